@@ -0,0 +1,66 @@
+package com.pld.agile.model.algorithm.bnb;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pld.agile.model.algorithm.Deadline;
+import com.pld.agile.model.graph.CompleteGraph;
+
+/**
+ * Compares the {@link BranchAndBound} search with the {@link CrossingTable}
+ * and with the scan of the partial tour, on random instances of 12 to 16 nodes.
+ * Both searches explore the same tree, so only their speed differs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CrossingBenchmark {
+    @Param({ "12", "14", "16" })
+    private int n;
+
+    @Param({ "false", "true" })
+    private boolean table;
+
+    private CompleteGraph graph;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(n);
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = random.nextDouble() * 1000;
+            y[i] = random.nextDouble() * 1000;
+        }
+        double[] costs = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                costs[i * n + j] = i == j ? -1.0 : Math.hypot(x[i] - x[j], y[i] - y[j]);
+            }
+        }
+        graph = new CompleteGraph(n, costs);
+    }
+
+    @Benchmark
+    public double search() {
+        BranchAndBound bnb = new BranchAndBound(graph);
+        bnb.setIncrementalCrossingCheck(table);
+        bnb.findBestCost(Deadline.none());
+        return bnb.getBestCost();
+    }
+}
@@ -0,0 +1,88 @@
+package com.pld.agile.model.graph;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost lookups of the solvers: the nested lists the complete graph
+ * used to hold, the boxed {@link Graph#getCost(int, int)} and the primitive
+ * {@link Graph#cost(int, int)}. Each benchmark sums the costs of a random
+ * sequence of arcs, as the solvers do along a partial tour.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CostLookupBenchmark {
+    private static final int NB_LOOKUPS = 1 << 16;
+
+    @Param({ "16", "64", "256" })
+    private int n;
+
+    private ArrayList<ArrayList<Double>> lists;
+    private Graph graph;
+    private int[] from;
+    private int[] to;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        lists = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            ArrayList<Double> row = new ArrayList<>(n);
+            for (int j = 0; j < n; j++) {
+                row.add(i == j ? -1.0 : random.nextDouble() * 1000);
+            }
+            lists.add(row);
+        }
+        graph = new CompleteGraph(n, lists);
+        from = new int[NB_LOOKUPS];
+        to = new int[NB_LOOKUPS];
+        for (int k = 0; k < NB_LOOKUPS; k++) {
+            from[k] = random.nextInt(n);
+            to[k] = random.nextInt(n);
+        }
+    }
+
+    @Benchmark
+    public double nestedLists() {
+        double sum = 0;
+        for (int k = 0; k < NB_LOOKUPS; k++) {
+            sum += lists.get(from[k]).get(to[k]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double boxedGetCost() {
+        double sum = 0;
+        for (int k = 0; k < NB_LOOKUPS; k++) {
+            sum += graph.getCost(from[k], to[k]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double primitiveCost() {
+        double sum = 0;
+        for (int k = 0; k < NB_LOOKUPS; k++) {
+            sum += graph.cost(from[k], to[k]);
+        }
+        return sum;
+    }
+}
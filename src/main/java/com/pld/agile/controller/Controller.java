@@ -2,16 +2,19 @@ package com.pld.agile.controller;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.pld.agile.model.entity.*;
 import com.pld.agile.model.graph.Plan;
+import com.pld.agile.model.graph.ShortestPathEngine;
 
 /**
  * The {@code Controller} class serves as a RESTful API for managing delivery planning
@@ -71,9 +74,25 @@ public class Controller {
     private int numberOfCouriers = 2;
 
     /**
-     * Default constructor for the {@code Controller} class.
+     * Constructs the {@code Controller}. The map answers its shortest path
+     * queries with the engine named by the {@code pld.shortest-path-engine}
+     * property, Dijkstra's algorithm by default, and is preprocessed for it as
+     * soon as it is loaded. If the {@code pld.snapshots.enabled} property is
+     * set, each loaded map is also kept as a binary snapshot in the
+     * {@code pld.snapshots.directory} directory, so that known maps load
+     * without being parsed again.
+     *
+     * @param engine            the shortest path engine of the map
+     * @param snapshotsEnabled  whether the loaded maps are kept as snapshots
+     * @param snapshotDirectory the directory of the snapshots
      */
-    public Controller() {
+    public Controller(@Value("${pld.shortest-path-engine:DIJKSTRA}") ShortestPathEngine engine,
+            @Value("${pld.snapshots.enabled:false}") boolean snapshotsEnabled,
+            @Value("${pld.snapshots.directory:${java.io.tmpdir}/pld-agile-snapshots}") String snapshotDirectory) {
+        map.setShortestPathEngine(engine);
+        if (snapshotsEnabled) {
+            map.setSnapshotDirectory(Path.of(snapshotDirectory));
+        }
     }
 
     /**
@@ -226,7 +245,6 @@ public class Controller {
         try {
             commandManager.resetCommandStack();
 
-            map.softResetMap();
             map.preprocessData();
 
             round.softReset();
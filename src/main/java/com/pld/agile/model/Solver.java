@@ -1,13 +1,21 @@
 package com.pld.agile.model;
 
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.pld.agile.model.algorithm.Deadline;
+import com.pld.agile.model.algorithm.bound.LagrangianBound;
+import com.pld.agile.model.algorithm.bound.SpanningTreeBound;
+import com.pld.agile.model.algorithm.localsearch.LocalSearch;
 import com.pld.agile.model.graph.CompleteGraph;
 import com.pld.agile.model.graph.Plan;
+import com.pld.agile.model.strategy.HeldKarpStrategy;
+import com.pld.agile.model.strategy.LinKernighanStrategy;
+import com.pld.agile.model.strategy.ParallelBnBStrategy;
 import com.pld.agile.model.strategy.SolvingStrategy;
 
 /**
@@ -26,15 +34,66 @@ import com.pld.agile.model.strategy.SolvingStrategy;
  * @since 2024-04-27
  */
 public class Solver {
+    /**
+     * The speed of the courier in kilometers per hour.
+     */
+    private static final double COURIER_SPEED = 15.0; // km/h
+
+    /**
+     * The time spent at each delivery point, in seconds.
+     */
+    private static final long DELIVERY_DURATION = 5 * 60;
+
+    /**
+     * The start of the courier's shift.
+     */
+    private static final LocalTime SHIFT_START = LocalTime.of(8, 0);
+
+    /**
+     * The end of the courier's 8-hour shift.
+     */
+    private static final LocalTime SHIFT_END = LocalTime.of(16, 0);
+
+    /**
+     * The largest number of vertices, warehouse included, for which
+     * {@link #Solver(Plan, List)} picks the Held-Karp strategy.
+     */
+    public static final int HELD_KARP_MAX_VERTICES = 16;
+
+    /**
+     * The smallest number of vertices, warehouse included, for which
+     * {@link #Solver(Plan, List)} picks the Lin-Kernighan heuristic.
+     */
+    public static final int LIN_KERNIGHAN_MIN_VERTICES = 25;
+
+    /**
+     * The default time given to the local search polishing the tour of the
+     * solving strategy, in milliseconds.
+     */
+    public static final long DEFAULT_LOCAL_SEARCH_TIME_SLICE = 100;
+
+    /**
+     * The time given to the local search repairing the tour after a delivery
+     * point is added or deleted, in milliseconds.
+     */
+    public static final long REPAIR_TIME_SLICE = 20;
+
     private List<Integer> vertices = new ArrayList<>();
-    private ArrayList<ArrayList<Double>> completeMatrix = new ArrayList<>();
     private Plan plan;
     private SolvingStrategy solvingStrategy;
     private CompleteGraph g;
     private Map<String, Object> resultPoint;
     private List<Integer> bestPath = new ArrayList<>();
+    private volatile List<Integer> tour;
+    private long localSearchTimeSlice = DEFAULT_LOCAL_SEARCH_TIME_SLICE;
+    private long timeBudget = 0;
+    private double lowerBound = 0.0;
+    private boolean timeExceeded = false;
+    private boolean optimal = false;
+    private SolverCache cache;
     private Map<Integer, Integer> originalToCurrentIndexMap = new HashMap<>();
     private Map<Integer, Integer> currentToOriginalIndexMap = new HashMap<>();
+    private long planVersion = -1;
 
     /**
      * Constructs a {@code Solver} with the specified plan, vertices, and solving strategy.
@@ -50,6 +109,37 @@ public class Solver {
         this.resultPoint = new HashMap<>();
     }
 
+    /**
+     * Constructs a {@code Solver} that picks its solving strategy from the number
+     * of vertices: the exact {@link HeldKarpStrategy} up to
+     * {@link #HELD_KARP_MAX_VERTICES} vertices, the {@link ParallelBnBStrategy}
+     * pruning with a {@link LagrangianBound} above, and the
+     * {@link LinKernighanStrategy} heuristic from
+     * {@link #LIN_KERNIGHAN_MIN_VERTICES} vertices.
+     *
+     * @param plan     the {@link Plan} object representing intersections and sections
+     * @param vertices the list of vertices to include in the TSP
+     */
+    public Solver(Plan plan, List<Integer> vertices) {
+        this(plan, vertices, defaultStrategy(vertices.size()));
+    }
+
+    /**
+     * Picks the solving strategy suited to the number of vertices of a tour.
+     *
+     * @param nbVertices the number of vertices, warehouse included
+     * @return the strategy used by {@link #Solver(Plan, List)}
+     */
+    private static SolvingStrategy defaultStrategy(int nbVertices) {
+        if (nbVertices <= HELD_KARP_MAX_VERTICES) {
+            return new HeldKarpStrategy();
+        }
+        if (nbVertices >= LIN_KERNIGHAN_MIN_VERTICES) {
+            return new LinKernighanStrategy();
+        }
+        return new ParallelBnBStrategy(LagrangianBound::new);
+    }
+
     /**
      * Initializes the solver by creating a complete graph representation of the problem.
      *
@@ -62,33 +152,274 @@ public class Solver {
 
     /**
      * Creates a complete graph representation using the provided vertices and plan.
+     * The distances are computed by {@link Plan#findDistanceMatrix(List)}, which
+     * runs one search per vertex (or a many-to-many contraction hierarchy query)
+     * and keeps the paths found for {@link Plan#computeTour(List)}.
      *
      * @return the {@link CompleteGraph} representing the problem
      */
     public CompleteGraph createCompleteGraph() {
-        completeMatrix.clear();
+        planVersion = plan.getVersion();
         int size = vertices.size();
+        double[][] distances = plan.findDistanceMatrix(vertices);
+        double[] costs = new double[size * size];
         for (int i = 0; i < size; i++) {
-            ArrayList<Double> row = new ArrayList<>();
             for (int j = 0; j < size; j++) {
-                if (i == j) {
-                    row.add(-1.0);
-                } else {
-                    Double distance = plan.findShortestDistance(vertices.get(i), vertices.get(j));
-                    row.add(distance);
-                }
+                costs[i * size + j] = i == j ? -1.0 : distances[i][j];
             }
-            completeMatrix.add(row);
         }
-        g = new CompleteGraph(completeMatrix.size(), completeMatrix);
+        g = new CompleteGraph(size, costs);
         return g;
     }
 
     /**
-     * Solves the TSP using the specified solving strategy.
+     * Checks whether the plan changed since the complete graph was created, in
+     * which case its distances and vertex indices can no longer be trusted.
+     *
+     * @return {@code true} if the complete graph was built on an older version
+     * of the plan
+     */
+    public boolean isStale() {
+        return planVersion != plan.getVersion();
+    }
+
+    /**
+     * Solves the TSP using the specified solving strategy, then polishes the tour
+     * found with a {@link LocalSearch} for at most the local search time slice.
+     * The strategy runs within the time budget of this solver if one was set,
+     * and within its own default time limit otherwise.
      */
     public void solve() {
+        if (timeBudget > 0) {
+            solve(Deadline.after(timeBudget));
+            return;
+        }
+        if (restoreFromCache()) {
+            return;
+        }
+        startSearch();
         solvingStrategy.solve(g);
+        polish(Deadline.after(localSearchTimeSlice));
+        finishSearch(Deadline.none());
+    }
+
+    /**
+     * Solves the TSP using the specified solving strategy until the deadline,
+     * then polishes the tour found with a {@link LocalSearch} for the time left,
+     * up to the local search time slice. If the deadline is cancelled, the tour
+     * is kept as the strategy left it.
+     *
+     * <p>
+     * While this method runs, {@link #getIncumbent()} and {@link #getGap()} may
+     * be called from another thread to follow the search.
+     * </p>
+     *
+     * @param deadline the deadline of the whole computation
+     */
+    public void solve(Deadline deadline) {
+        if (restoreFromCache()) {
+            return;
+        }
+        startSearch();
+        solvingStrategy.solve(g, deadline);
+        long slice = deadline.isCancelled() ? 0 : Math.min(localSearchTimeSlice, deadline.remainingMillis());
+        polish(Deadline.after(slice));
+        finishSearch(deadline);
+    }
+
+    /**
+     * Forgets the previous tour and computes the lower bound of the new search,
+     * creating the complete graph first if it is missing or stale.
+     */
+    private void startSearch() {
+        if (g == null || isStale()) {
+            createCompleteGraph();
+        }
+        tour = null;
+        bestPath = new ArrayList<>();
+        computeLowerBound();
+    }
+
+    /**
+     * Computes the spanning tree bound of the complete graph.
+     */
+    private void computeLowerBound() {
+        lowerBound = 0.0;
+        if (g.getNbVertices() > 1) {
+            SpanningTreeBound bound = new SpanningTreeBound();
+            bound.init(g);
+            lowerBound = bound.evaluateTour();
+        }
+    }
+
+    /**
+     * Takes the tour of the strategy and improves it with a {@link LocalSearch}
+     * until the deadline, if there is time left.
+     */
+    private void polish(Deadline deadline) {
+        List<Integer> path = solvingStrategy.getBestPath();
+        if (!path.isEmpty() && deadline.remainingMillis() > 0) {
+            path = new LocalSearch(g).improve(path, deadline);
+        }
+        bestPath = new ArrayList<>();
+        tour = path;
+    }
+
+    /**
+     * Records the outcome of the strategy, computes the points to be served, and
+     * stores the result in the cache if the tour is proven optimal, or if the
+     * search ended on its own before its time limit and the deadline: a later
+     * search with more time may find a better tour otherwise.
+     *
+     * @param deadline the deadline of the whole computation
+     */
+    private void finishSearch(Deadline deadline) {
+        timeExceeded = solvingStrategy.getTimeExceeded();
+        optimal = solvingStrategy.isOptimal();
+        if (tour.isEmpty()) {
+            return;
+        }
+        computePointsToBeServed();
+        boolean complete = optimal || (!timeExceeded && !deadline.isReached());
+        if (cache != null && !deadline.isCancelled() && complete) {
+            cache.put(SolverCache.key(plan, vertices, solvingStrategy),
+                    new SolverCache.Result(vertices, g, tour, getBestPossiblePath(), getPointsWithTime(),
+                            getBestPossibleCost(), lowerBound, timeExceeded, optimal));
+        }
+    }
+
+    /**
+     * Takes the result of the same stops from the cache, if there is one. The
+     * vertices are then in the order of the cached complete graph.
+     *
+     * @return {@code true} if the result was found in the cache
+     */
+    private boolean restoreFromCache() {
+        if (cache == null) {
+            return false;
+        }
+        SolverCache.Result result = cache.get(SolverCache.key(plan, vertices, solvingStrategy));
+        if (result == null) {
+            return false;
+        }
+        vertices = new ArrayList<>(result.vertices());
+        g = result.graph();
+        planVersion = plan.getVersion();
+        lowerBound = result.lowerBound();
+        timeExceeded = result.timeExceeded();
+        optimal = result.optimal();
+        bestPath = new ArrayList<>();
+        tour = result.tour();
+        resultPoint.put("path", new ArrayList<>(result.servedPath()));
+        resultPoint.put("pointsWithTime", new HashMap<>(result.arrivalTimes()));
+        resultPoint.put("cost", result.servedCost());
+        return true;
+    }
+
+    /**
+     * Sets the cache of results consulted by {@link #solve()} before solving,
+     * and filled after.
+     *
+     * @param cache the cache, or {@code null} to always solve
+     */
+    public void setCache(SolverCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Retrieves the cache of results of this solver.
+     *
+     * @return the cache, or {@code null} if there is none
+     */
+    public SolverCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Sets the time budget of {@link #solve()}, local search included.
+     *
+     * @param timeBudget the time budget in milliseconds, or 0 to let the
+     *                   strategy use its own default time limit
+     */
+    public void setTimeBudget(long timeBudget) {
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * Retrieves the time budget of {@link #solve()}.
+     *
+     * @return the time budget in milliseconds, or 0 if the strategy uses its own
+     *         default time limit
+     */
+    public long getTimeBudget() {
+        return timeBudget;
+    }
+
+    /**
+     * Retrieves the best tour known at this moment: the final tour once
+     * {@link #solve()} returned, or the best tour found so far by the strategy
+     * while it runs.
+     *
+     * @return the tour as a {@link List} of vertex indices, empty if no tour was
+     *         found yet
+     */
+    public List<Integer> getIncumbent() {
+        List<Integer> path = tour;
+        if (path == null) {
+            path = solvingStrategy.getBestPath();
+        }
+        List<Integer> result = new ArrayList<>(path.size());
+        for (int index : path) {
+            result.add(vertices.get(index));
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves a lower bound of the cost of the optimal tour: the cost of the
+     * tour if the strategy proved it optimal, and the spanning tree bound
+     * otherwise.
+     *
+     * @return the lower bound
+     */
+    public double getLowerBound() {
+        if (tour != null && optimal) {
+            return Math.max(lowerBound, getBestCost());
+        }
+        return lowerBound;
+    }
+
+    /**
+     * Retrieves the relative gap between the cost of the best tour known at this
+     * moment and the lower bound, which is 0 when the tour is proven optimal.
+     *
+     * @return the gap, between 0 and 1, or 1 if no tour was found yet
+     */
+    public double getGap() {
+        double cost = tour != null ? getBestCost() : solvingStrategy.getBestCost();
+        if (cost <= 0.0 || cost == Double.MAX_VALUE || Double.isNaN(cost)) {
+            return cost == 0.0 ? 0.0 : 1.0;
+        }
+        return Math.max(0.0, (cost - getLowerBound()) / cost);
+    }
+
+    /**
+     * Sets the time given to the local search after the solving strategy.
+     *
+     * @param localSearchTimeSlice the time slice in milliseconds, or 0 to keep
+     *                             the tour of the strategy as it is
+     */
+    public void setLocalSearchTimeSlice(long localSearchTimeSlice) {
+        this.localSearchTimeSlice = localSearchTimeSlice;
+    }
+
+    /**
+     * Retrieves the time given to the local search after the solving strategy.
+     *
+     * @return the time slice in milliseconds
+     */
+    public long getLocalSearchTimeSlice() {
+        return localSearchTimeSlice;
     }
 
     /**
@@ -112,19 +443,27 @@ public class Solver {
     /**
      * Retrieves the complete distance matrix used in the solver.
      *
-     * @return the distance matrix as an {@link ArrayList} of {@link ArrayList}
+     * @return the distance matrix as an {@link ArrayList} of {@link ArrayList},
+     *         built from the complete graph on each call
+     * @deprecated the nested lists box every distance; use
+     *             {@link #getCompleteGraph()} and {@link CompleteGraph#cost(int, int)}
+     *             instead
      */
+    @Deprecated
     public ArrayList<ArrayList<Double>> getCompleteMatrix() {
-        return this.completeMatrix;
+        return g == null ? new ArrayList<>() : g.getCostMatrix();
     }
 
     /**
-     * Sets the complete distance matrix for the solver.
+     * Sets the complete distance matrix for the solver, replacing its complete
+     * graph.
      *
      * @param completeMatrix the complete distance matrix to set
+     * @deprecated build a {@link CompleteGraph} from a row-major array instead
      */
+    @Deprecated
     public void setCompleteMatrix(ArrayList<ArrayList<Double>> completeMatrix) {
-        this.completeMatrix = completeMatrix;
+        this.g = new CompleteGraph(completeMatrix.size(), completeMatrix);
     }
 
     /**
@@ -151,11 +490,10 @@ public class Solver {
      * @return the best path as a {@link List} of vertex indices
      */
     public List<Integer> getBestPath() {
-        if (bestPath == null || bestPath.isEmpty()) {
-            bestPath = solvingStrategy.getBestPath();
+        if ((bestPath == null || bestPath.isEmpty()) && tour != null) {
             List<Integer> result = new ArrayList<>();
-            for (int i = 0; i < bestPath.size(); i++) {
-                result.add(vertices.get(bestPath.get(i)));
+            for (int i = 0; i < tour.size(); i++) {
+                result.add(vertices.get(tour.get(i)));
             }
             bestPath = result;
         }
@@ -172,41 +510,225 @@ public class Solver {
     }
 
     /**
-     * Retrieves the cost of the best path computed by the solving strategy.
+     * Retrieves the cost of the best path, after the local search.
      *
      * @return the best cost as a {@code double}
      */
     public double getBestCost() {
-        return solvingStrategy.getBestCost();
+        List<Integer> tour = this.tour;
+        if (tour == null) {
+            return solvingStrategy.getBestCost();
+        }
+        double cost = 0.0;
+        for (int i = 0; i < tour.size() - 1; i++) {
+            cost += g.cost(tour.get(i), tour.get(i + 1));
+        }
+        return cost;
     }
 
     /**
-     * Adds a new delivery point to the TSP and updates the best path.
+     * Adds a new delivery point to the tour without solving it again.
+     *
+     * <p>
+     * One forward and one backward search from the new point give the new row
+     * and column of the complete graph. The point is inserted where it lengthens
+     * the tour the least, then a {@link LocalSearch} started around the insertion
+     * repairs the tour for at most {@link #REPAIR_TIME_SLICE} milliseconds. If no
+     * tour was computed yet, or if the plan changed since, the tour is solved
+     * from scratch instead.
+     * </p>
      *
      * @param intersection the intersection ID to add
      * @return the updated best path as a {@link List} of vertex indices
      */
     public List<Integer> addDeliveryPoint(Integer intersection) {
-        // Implementation logic omitted for brevity
-        return new ArrayList<>(bestPath);
+        if (vertices.contains(intersection)) {
+            return getBestPath();
+        }
+        List<Integer> newVertices = new ArrayList<>(vertices);
+        newVertices.add(intersection);
+        if (!hasTour()) {
+            return solveAgain(newVertices);
+        }
+
+        int n = vertices.size();
+        double[] from = plan.findDistancesFrom(intersection, vertices);
+        double[] to = plan.findDistancesTo(intersection, vertices);
+        int size = n + 1;
+        double[] costs = new double[size * size];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                costs[i * size + j] = g.cost(i, j);
+            }
+            costs[i * size + n] = to[i];
+            costs[n * size + i] = from[i];
+        }
+        costs[n * size + n] = -1.0;
+        vertices = newVertices;
+        g = new CompleteGraph(size, costs);
+
+        // Cheapest insertion
+        List<Integer> path = new ArrayList<>(tour);
+        int position = 1;
+        double bestDelta = Double.MAX_VALUE;
+        for (int i = 1; i < path.size(); i++) {
+            int previous = path.get(i - 1);
+            int next = path.get(i);
+            double delta = g.cost(previous, n) + g.cost(n, next) - g.cost(previous, next);
+            if (delta < bestDelta) {
+                bestDelta = delta;
+                position = i;
+            }
+        }
+        path.add(position, n);
+        return repair(path, path.get(position - 1), n, path.get(position + 1));
     }
 
     /**
-     * Deletes a delivery point from the TSP and updates the best path.
+     * Deletes a delivery point from the tour without solving it again.
+     *
+     * <p>
+     * The point is spliced out of the tour and its row and column are dropped
+     * from the complete graph, then a {@link LocalSearch} started around the gap
+     * repairs the tour for at most {@link #REPAIR_TIME_SLICE} milliseconds. The
+     * warehouse cannot be deleted. If no tour was computed yet, or if the plan
+     * changed since, the tour is solved from scratch instead.
+     * </p>
      *
      * @param intersection the intersection ID to delete
      * @return the updated best path as a {@link List} of vertex indices
      */
     public List<Integer> deleteDeliveryPoint(Integer intersection) {
-        // Implementation logic omitted for brevity
-        return bestPath;
+        int k = vertices.indexOf(intersection);
+        if (k <= 0) {
+            return getBestPath();
+        }
+        List<Integer> newVertices = new ArrayList<>(vertices);
+        newVertices.remove(k);
+        if (!hasTour()) {
+            return solveAgain(newVertices);
+        }
+
+        int n = vertices.size();
+        int size = n - 1;
+        double[] costs = new double[size * size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                costs[i * size + j] = g.cost(i < k ? i : i + 1, j < k ? j : j + 1);
+            }
+        }
+        vertices = newVertices;
+        g = new CompleteGraph(size, costs);
+
+        // Splice the point out, the following vertices moving down one index
+        List<Integer> path = new ArrayList<>(tour.size() - 1);
+        int gap = 0;
+        for (int v : tour) {
+            if (v == k) {
+                gap = path.size();
+            } else {
+                path.add(v < k ? v : v - 1);
+            }
+        }
+        return repair(path, path.get(gap - 1), path.get(gap));
+    }
+
+    /**
+     * Checks whether a tour was computed on the current version of the plan,
+     * so that it can be edited.
+     */
+    private boolean hasTour() {
+        return g != null && tour != null && !tour.isEmpty() && !isStale();
+    }
+
+    /**
+     * Solves the tour of new vertices from scratch.
+     */
+    private List<Integer> solveAgain(List<Integer> newVertices) {
+        vertices = newVertices;
+        g = null;
+        solve();
+        return getBestPath();
+    }
+
+    /**
+     * Repairs an edited tour with a {@link LocalSearch} started around the
+     * edit, then computes the points to be served.
+     *
+     * @param path    the edited tour
+     * @param changed the vertices next to the edit
+     * @return the updated best path as a {@link List} of vertex indices
+     */
+    private List<Integer> repair(List<Integer> path, int... changed) {
+        tour = new LocalSearch(g).repair(path, changed, Deadline.after(REPAIR_TIME_SLICE));
+        bestPath = new ArrayList<>();
+        optimal = false;
+        computeLowerBound();
+        computePointsToBeServed();
+        return getBestPath();
     }
 
     /**
      * Computes the points that can be served within the time limit.
+     *
+     * <p>
+     * The best path is followed from the warehouse at 8:00, at the courier's
+     * speed and with 5 minutes spent at each delivery point. A delivery point is
+     * served only if the courier can still get back to the warehouse before the
+     * end of the 8-hour shift afterwards; the following points are dropped. The
+     * arrival time of each served point is recorded, the warehouse being mapped
+     * to the return time. {@link #solve()} and the delivery point edits already
+     * call it once the tour is known.
+     * </p>
      */
     public void computePointsToBeServed() {
-        // Implementation logic omitted for brevity
+        List<Integer> path = getBestPath();
+        List<Integer> servedPath = new ArrayList<>();
+        Map<Integer, LocalTime> pointsWithTime = new HashMap<>();
+        Map<Integer, Integer> positions = new HashMap<>();
+        for (int i = 0; i < vertices.size(); i++) {
+            positions.putIfAbsent(vertices.get(i), i);
+        }
+        long shiftSeconds = SHIFT_START.until(SHIFT_END, ChronoUnit.SECONDS);
+
+        int warehouse = positions.get(path.getFirst());
+        servedPath.add(path.getFirst());
+        int last = warehouse;
+        double cost = 0;
+        double elapsed = 0;
+        for (int i = 1; i < path.size() - 1; i++) {
+            int next = positions.get(path.get(i));
+            double arrival = elapsed + travelTime(g.cost(last, next));
+            double back = arrival + DELIVERY_DURATION + travelTime(g.cost(next, warehouse));
+            if (back > shiftSeconds) {
+                break;
+            }
+            pointsWithTime.put(path.get(i), SHIFT_START.plusSeconds((long) arrival));
+            servedPath.add(path.get(i));
+            cost += g.cost(last, next);
+            elapsed = arrival + DELIVERY_DURATION;
+            last = next;
+        }
+        if (last != warehouse) {
+            cost += g.cost(last, warehouse);
+            elapsed += travelTime(g.cost(last, warehouse));
+        }
+        servedPath.add(path.getFirst());
+        pointsWithTime.put(path.getFirst(), SHIFT_START.plusSeconds((long) elapsed));
+
+        resultPoint.put("path", servedPath);
+        resultPoint.put("pointsWithTime", pointsWithTime);
+        resultPoint.put("cost", cost);
+    }
+
+    /**
+     * Converts a distance into the time the courier needs to ride it.
+     *
+     * @param distance the distance in meters
+     * @return the travel time in seconds
+     */
+    private static double travelTime(double distance) {
+        return distance / (COURIER_SPEED * 1000) * 3600;
     }
 
     /**
@@ -214,9 +736,10 @@ public class Solver {
      *
      * @return the best possible path as a {@link List} of vertex indices
      */
+    @SuppressWarnings("unchecked")
     public List<Integer> getBestPossiblePath() {
-        // Implementation logic omitted for brevity
-        return bestPath;
+        List<Integer> path = (List<Integer>) resultPoint.get("path");
+        return path != null ? new ArrayList<>(path) : bestPath;
     }
 
     /**
@@ -243,6 +766,6 @@ public class Solver {
      * @return {@code true} if the time limit was exceeded, {@code false} otherwise
      */
     public boolean getTimeExceeded() {
-        return solvingStrategy.getTimeExceeded();
+        return timeExceeded;
     }
 }
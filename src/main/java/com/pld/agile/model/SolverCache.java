@@ -0,0 +1,191 @@
+package com.pld.agile.model;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.pld.agile.model.graph.CompleteGraph;
+import com.pld.agile.model.graph.Plan;
+import com.pld.agile.model.strategy.SolvingStrategy;
+
+/**
+ * The {@code SolverCache} class stores the results of {@link Solver#solve()},
+ * so that solving the same stops again on the same plan returns at once.
+ *
+ * <p>
+ * A result is keyed by the plan and its version, the type of the solving
+ * strategy, and the stops in a canonical order: the warehouse first, then the
+ * delivery points sorted, so that the same stops listed in another order hit
+ * the same entry. The cache is bounded by the number of distances held in the
+ * complete graphs of its results, and evicts the least recently used results
+ * first. Only proven optimal tours and the tours of searches that ended before
+ * their time limit and the deadline of the solver are stored, so a result
+ * never depends on the time budget of the solver. All methods are
+ * synchronized so the cache can be shared by the solvers of the couriers
+ * running concurrently.
+ * </p>
+ */
+public class SolverCache {
+    /**
+     * The default maximum number of distances stored over all cached results.
+     */
+    public static final int DEFAULT_MAX_DISTANCES = 1_000_000;
+
+    /**
+     * The key of a result.
+     *
+     * @param plan        the plan the stops were solved on
+     * @param planVersion the version of the plan
+     * @param strategy    the type of the solving strategy
+     * @param stops       the stops, the warehouse first and the delivery points
+     *                    sorted
+     */
+    public record Key(Plan plan, long planVersion, Class<? extends SolvingStrategy> strategy, List<Integer> stops) {
+    }
+
+    /**
+     * A cached result of a solver.
+     *
+     * @param vertices     the vertices of the solver, in the order of its graph
+     * @param graph        the complete graph of the vertices
+     * @param tour         the tour, as indices of the graph
+     * @param servedPath   the served path, as plan indices
+     * @param arrivalTimes the arrival time at each served point
+     * @param servedCost   the cost of the served path
+     * @param lowerBound   the lower bound of the cost of the tour
+     * @param timeExceeded whether the strategy stopped at its time limit
+     * @param optimal      whether the strategy proved the tour optimal
+     */
+    public record Result(List<Integer> vertices, CompleteGraph graph, List<Integer> tour,
+            List<Integer> servedPath, Map<Integer, LocalTime> arrivalTimes, double servedCost,
+            double lowerBound, boolean timeExceeded, boolean optimal) {
+
+        public Result {
+            vertices = Collections.unmodifiableList(new ArrayList<>(vertices));
+            tour = Collections.unmodifiableList(new ArrayList<>(tour));
+            servedPath = Collections.unmodifiableList(new ArrayList<>(servedPath));
+            arrivalTimes = Map.copyOf(arrivalTimes);
+        }
+
+        private long weight() {
+            return (long) graph.getNbVertices() * graph.getNbVertices() + tour.size();
+        }
+    }
+
+    private final long maxDistances;
+    private final LinkedHashMap<Key, Result> results = new LinkedHashMap<>(16, 0.75f, true);
+    private long storedDistances = 0;
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * Creates a cache with the default distance budget.
+     */
+    public SolverCache() {
+        this(DEFAULT_MAX_DISTANCES);
+    }
+
+    /**
+     * Creates a cache holding at most the given number of distances over all
+     * results.
+     *
+     * @param maxDistances the maximum number of distances stored in the cache
+     */
+    public SolverCache(long maxDistances) {
+        this.maxDistances = maxDistances;
+    }
+
+    /**
+     * Builds the key of the stops of a solver.
+     *
+     * @param plan     the plan the stops are solved on
+     * @param vertices the plan indices of the stops, the warehouse first
+     * @param strategy the solving strategy
+     * @return the key identifying the result
+     */
+    public static Key key(Plan plan, List<Integer> vertices, SolvingStrategy strategy) {
+        List<Integer> stops = new ArrayList<>(vertices);
+        if (stops.size() > 1) {
+            Collections.sort(stops.subList(1, stops.size()));
+        }
+        return new Key(plan, plan.getVersion(), strategy.getClass(), Collections.unmodifiableList(stops));
+    }
+
+    /**
+     * Returns the cached result of a key.
+     *
+     * @param key the key of the result
+     * @return the result, or {@code null} if it is not cached
+     */
+    public synchronized Result get(Key key) {
+        Result result = results.get(key);
+        if (result == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return result;
+    }
+
+    /**
+     * Stores a result, evicting the least recently used results if the distance
+     * budget is exceeded. Results larger than the whole budget are not stored.
+     *
+     * @param key    the key of the result
+     * @param result the result
+     */
+    public synchronized void put(Key key, Result result) {
+        if (result.weight() > maxDistances) {
+            return;
+        }
+        Result previous = results.put(key, result);
+        if (previous != null) {
+            storedDistances -= previous.weight();
+        }
+        storedDistances += result.weight();
+        Iterator<Map.Entry<Key, Result>> it = results.entrySet().iterator();
+        while (storedDistances > maxDistances && it.hasNext()) {
+            storedDistances -= it.next().getValue().weight();
+            it.remove();
+        }
+    }
+
+    /**
+     * Removes every cached result.
+     */
+    public synchronized void clear() {
+        results.clear();
+        storedDistances = 0;
+    }
+
+    /**
+     * Returns the number of cached results.
+     *
+     * @return the number of entries
+     */
+    public synchronized int size() {
+        return results.size();
+    }
+
+    /**
+     * Returns the number of lookups that found a cached result.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that did not find a cached result.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,220 @@
+package com.pld.agile.model.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * The {@code BalancedClustering} class splits delivery points between couriers
+ * with a capacity-constrained k-medoids on road distances.
+ *
+ * <p>
+ * The distance between two points is the length of the round trip between them
+ * on the road network, so one-way streets are taken into account and the
+ * distance is symmetric. Every cluster holds at most {@code ceil(m / k)} of the
+ * {@code m} points, so the couriers get the same number of stops, give or take
+ * one. The medoids start from the points farthest from the warehouse and from
+ * each other, then the algorithm alternates between:
+ * </p>
+ * <ul>
+ * <li>assigning the points greedily, closest (point, medoid) pairs first, to
+ * the medoids with room left;</li>
+ * <li>moving the medoid of each cluster to the member closest to the others.</li>
+ * </ul>
+ * <p>
+ * until the medoids stay the same. The result is deterministic.
+ * </p>
+ */
+public class BalancedClustering {
+    /**
+     * The largest number of assignment and update rounds.
+     */
+    private static final int MAX_ITERATIONS = 50;
+
+    /**
+     * The distance given to a pair of points with no path between them.
+     */
+    private static final double UNREACHABLE = Double.MAX_VALUE / 4;
+
+    /**
+     * Constructs a new {@code BalancedClustering} instance.
+     */
+    public BalancedClustering() {
+    }
+
+    /**
+     * Assigns delivery points to couriers from the road distances between them
+     * and the warehouse.
+     *
+     * @param distances      the distance matrix of the warehouse, at index 0, and
+     *                       of the delivery points, from index 1; -1 for the
+     *                       pairs with no path
+     * @param couriersNumber the number of couriers available to handle the
+     *                       deliveries
+     * @return an {@code ArrayList} of {@code ArrayList<Integer>} where each inner
+     * list contains the indices of the delivery points, from 0, assigned to a
+     * courier
+     * @throws IllegalArgumentException if {@code couriersNumber} is less than 1
+     */
+    public ArrayList<ArrayList<Integer>> predictClusters(double[][] distances, int couriersNumber) {
+        if (couriersNumber < 1) {
+            throw new IllegalArgumentException("Number of couriers must be at least 1.");
+        }
+        ArrayList<ArrayList<Integer>> groups = new ArrayList<>();
+        for (int i = 0; i < couriersNumber; i++) {
+            groups.add(new ArrayList<>());
+        }
+        int m = distances == null ? 0 : distances.length - 1;
+        if (m <= 0) {
+            return groups;
+        }
+
+        int k = Math.min(couriersNumber, m);
+        int capacity = (m + k - 1) / k;
+        double[] roundTrips = roundTrips(distances, m);
+        int[] medoids = initialMedoids(roundTrips, m, k);
+        int[] assignment = new int[m];
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            assign(roundTrips, m, medoids, capacity, assignment);
+            if (!updateMedoids(roundTrips, m, medoids, assignment)) {
+                break;
+            }
+        }
+        assign(roundTrips, m, medoids, capacity, assignment);
+
+        for (int p = 0; p < m; p++) {
+            groups.get(assignment[p]).add(p);
+        }
+        return groups;
+    }
+
+    /**
+     * Builds the flat matrix of the round trip lengths between every pair of
+     * points, the warehouse at index {@code m}.
+     */
+    private static double[] roundTrips(double[][] distances, int m) {
+        int size = m + 1;
+        double[] roundTrips = new double[size * size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (i == j) {
+                    continue;
+                }
+                // Point p is at index p + 1 of the distance matrix
+                int a = i == m ? 0 : i + 1;
+                int b = j == m ? 0 : j + 1;
+                double there = distances[a][b];
+                double back = distances[b][a];
+                roundTrips[i * size + j] = there < 0 || back < 0 ? UNREACHABLE : there + back;
+            }
+        }
+        return roundTrips;
+    }
+
+    /**
+     * Picks the first medoids: the point farthest from the warehouse, then
+     * repeatedly the point farthest from the warehouse and the medoids already
+     * picked.
+     */
+    private static int[] initialMedoids(double[] roundTrips, int m, int k) {
+        int size = m + 1;
+        double[] nearest = new double[m];
+        for (int p = 0; p < m; p++) {
+            nearest[p] = roundTrips[p * size + m];
+        }
+        int[] medoids = new int[k];
+        for (int c = 0; c < k; c++) {
+            int farthest = -1;
+            for (int p = 0; p < m; p++) {
+                if (nearest[p] >= 0 && (farthest < 0 || nearest[p] > nearest[farthest])) {
+                    farthest = p;
+                }
+            }
+            medoids[c] = farthest;
+            nearest[farthest] = -1;
+            for (int p = 0; p < m; p++) {
+                if (nearest[p] >= 0) {
+                    nearest[p] = Math.min(nearest[p], roundTrips[p * size + farthest]);
+                }
+            }
+        }
+        return medoids;
+    }
+
+    /**
+     * Assigns every point to a medoid with room left, taking the (point, medoid)
+     * pairs from the closest to the farthest.
+     */
+    private static void assign(double[] roundTrips, int m, int[] medoids, int capacity, int[] assignment) {
+        int size = m + 1;
+        int k = medoids.length;
+        double[] pairDistances = new double[m * k];
+        Integer[] order = new Integer[m * k];
+        for (int p = 0; p < m; p++) {
+            for (int c = 0; c < k; c++) {
+                int pair = p * k + c;
+                pairDistances[pair] = roundTrips[p * size + medoids[c]];
+                order[pair] = pair;
+            }
+        }
+        Arrays.sort(order, (a, b) -> pairDistances[a] != pairDistances[b]
+                ? Double.compare(pairDistances[a], pairDistances[b])
+                : Integer.compare(a, b));
+
+        Arrays.fill(assignment, -1);
+        int[] sizes = new int[k];
+        int nbAssigned = 0;
+        for (int i = 0; i < order.length && nbAssigned < m; i++) {
+            int p = order[i] / k;
+            int c = order[i] % k;
+            if (assignment[p] < 0 && sizes[c] < capacity) {
+                assignment[p] = c;
+                sizes[c]++;
+                nbAssigned++;
+            }
+        }
+    }
+
+    /**
+     * Moves the medoid of each cluster to the member with the smallest total
+     * round trip to the other members.
+     *
+     * @return {@code true} if a medoid moved
+     */
+    private static boolean updateMedoids(double[] roundTrips, int m, int[] medoids, int[] assignment) {
+        boolean moved = false;
+        for (int c = 0; c < medoids.length; c++) {
+            // The current medoid is kept unless a member does strictly better
+            int best = medoids[c];
+            double bestSum = totalRoundTrip(roundTrips, m, best, c, assignment, Double.MAX_VALUE);
+            for (int p = 0; p < m; p++) {
+                if (assignment[p] == c && p != medoids[c]) {
+                    double sum = totalRoundTrip(roundTrips, m, p, c, assignment, bestSum);
+                    if (sum < bestSum) {
+                        bestSum = sum;
+                        best = p;
+                    }
+                }
+            }
+            if (best != medoids[c]) {
+                medoids[c] = best;
+                moved = true;
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Sums the round trips from a point to the members of a cluster, stopping
+     * once the sum reaches a bound.
+     */
+    private static double totalRoundTrip(double[] roundTrips, int m, int p, int c, int[] assignment, double bound) {
+        int size = m + 1;
+        double sum = 0;
+        for (int q = 0; q < m && sum < bound; q++) {
+            if (assignment[q] == c) {
+                sum += roundTrips[p * size + q];
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,110 @@
+package com.pld.agile.model.algorithm;
+
+/**
+ * The {@code Deadline} class tells a search when to stop: at a point in time,
+ * when it is cancelled, or both.
+ *
+ * <p>
+ * Searches probe it with the number of nodes they explored so far through
+ * {@link #probe(long)}, which only reads the clock once every
+ * {@link #PROBE_INTERVAL} calls, and otherwise reads a volatile flag. Once the
+ * deadline is reached it stays reached, so every thread of a parallel search
+ * sees it at its next probe. A deadline can be shared by the threads of a
+ * search and cancelled from any thread.
+ * </p>
+ */
+public final class Deadline {
+    /**
+     * The number of probes between two readings of the clock, a power of two.
+     */
+    public static final int PROBE_INTERVAL = 1 << 10;
+
+    private final long deadlineNanos;
+    private final boolean unlimited;
+    private volatile boolean cancelled = false;
+    private volatile boolean reached = false;
+
+    private Deadline(long deadlineNanos, boolean unlimited) {
+        this.deadlineNanos = deadlineNanos;
+        this.unlimited = unlimited;
+    }
+
+    /**
+     * Creates a deadline a given time from now.
+     *
+     * @param millis the time budget, in milliseconds
+     * @return the {@code Deadline}
+     */
+    public static Deadline after(long millis) {
+        return new Deadline(System.nanoTime() + Math.max(0, millis) * 1_000_000, false);
+    }
+
+    /**
+     * Creates a deadline only reached when it is cancelled.
+     *
+     * @return the {@code Deadline}
+     */
+    public static Deadline none() {
+        return new Deadline(0, true);
+    }
+
+    /**
+     * Cancels the searches using this deadline: they stop at their next probe
+     * and keep the best solution they found.
+     */
+    public void cancel() {
+        cancelled = true;
+        reached = true;
+    }
+
+    /**
+     * Checks whether the deadline was cancelled.
+     *
+     * @return {@code true} if {@link #cancel()} was called
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Checks whether the search must stop, reading the clock.
+     *
+     * @return {@code true} if the time is over or the deadline was cancelled
+     */
+    public boolean isReached() {
+        if (reached) {
+            return true;
+        }
+        if (!unlimited && System.nanoTime() - deadlineNanos >= 0) {
+            reached = true;
+        }
+        return reached;
+    }
+
+    /**
+     * Checks whether the search must stop, reading the clock only once every
+     * {@link #PROBE_INTERVAL} calls.
+     *
+     * @param counter a counter incremented by the caller between two probes
+     * @return {@code true} if the time is over or the deadline was cancelled
+     */
+    public boolean probe(long counter) {
+        return (counter & (PROBE_INTERVAL - 1)) == 0 ? isReached() : reached;
+    }
+
+    /**
+     * Returns the time left before the deadline.
+     *
+     * @return the remaining time in milliseconds, 0 if the deadline is reached,
+     * or {@code Long.MAX_VALUE} if there is no time limit
+     */
+    public long remainingMillis() {
+        if (isReached()) {
+            return 0;
+        }
+        if (unlimited) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, (deadlineNanos - System.nanoTime()) / 1_000_000);
+    }
+}
@@ -1,7 +1,6 @@
 package com.pld.agile.model.algorithm;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 import org.apache.commons.math3.ml.clustering.CentroidCluster;
@@ -24,6 +23,21 @@ import org.apache.commons.math3.ml.clustering.KMeansPlusPlusClusterer;
  */
 public class KMeansClustering {
 
+    /**
+     * A delivery point that keeps its index in the input, so that the clusters
+     * found can be mapped back to the delivery points directly.
+     */
+    private static final class IndexedPoint extends DoublePoint {
+        private static final long serialVersionUID = 1L;
+
+        private final int index;
+
+        IndexedPoint(double[] point, int index) {
+            super(point);
+            this.index = index;
+        }
+    }
+
     /**
      * Constructs a new {@code KMeansClustering} instance.
      */
@@ -70,63 +84,42 @@ public class KMeansClustering {
         System.out.println("Number of effective clusters: " + effectiveClusters);
 
         // Initialize the K-Means++ clusterer with the effective number of clusters
-        KMeansPlusPlusClusterer<DoublePoint> kMeans = new KMeansPlusPlusClusterer<>(effectiveClusters);
-        List<CentroidCluster<DoublePoint>> clusters = kMeans.cluster(createPoints(data));
+        KMeansPlusPlusClusterer<IndexedPoint> kMeans = new KMeansPlusPlusClusterer<>(effectiveClusters);
+        List<CentroidCluster<IndexedPoint>> clusters = kMeans.cluster(createPoints(data));
 
         // Initialize all groups, including those that may remain empty
         for (int i = 0; i < couriersNumber; i++) {
             groups.add(new ArrayList<>());
         }
 
-        System.out.println("\nDistribution of delivery points by courier:");
-
-        // Assign each delivery point to its corresponding cluster
-        for (int i = 0; i < data.length; i++) {
-            int assignedCluster = getAssignedCluster(data[i], clusters);
-            if (assignedCluster >= 0) {
-                System.out.printf("Delivery point [%.2f, %.2f] is in Cluster %d%n",
-                        data[i][0], data[i][1], assignedCluster);
-                groups.get(assignedCluster).add(i);
+        // Each point carries its index, so it is assigned to its own cluster
+        int[] assignedClusters = new int[data.length];
+        for (int i = 0; i < clusters.size(); i++) {
+            for (IndexedPoint point : clusters.get(i).getPoints()) {
+                assignedClusters[point.index] = i;
             }
         }
+        for (int i = 0; i < data.length; i++) {
+            groups.get(assignedClusters[i]).add(i);
+        }
 
         return groups;
     }
 
     /**
-     * Converts a two-dimensional array of coordinates into a list of {@code DoublePoint} objects
+     * Converts a two-dimensional array of coordinates into a list of {@code IndexedPoint} objects
      * suitable for clustering.
      *
      * @param data a two-dimensional array where each sub-array represents the coordinates
      *             of a delivery point.
-     * @return a {@code List} of {@code DoublePoint} instances corresponding to the delivery points.
+     * @return a {@code List} of {@code IndexedPoint} instances corresponding to the delivery points,
+     * each holding its index in {@code data}.
      */
-    private List<DoublePoint> createPoints(double[][] data) {
-        return Arrays.stream(data)
-                .map(DoublePoint::new)
-                .toList();
-    }
-
-    /**
-     * Determines the cluster index to which a specific delivery point belongs.
-     *
-     * <p>
-     * This method iterates through the clusters and their points to find a match for the given
-     * delivery point coordinates.
-     * </p>
-     *
-     * @param point    a one-dimensional array representing the coordinates of a delivery point.
-     * @param clusters a list of {@code CentroidCluster<DoublePoint>} representing the clustered groups.
-     * @return the index of the cluster to which the delivery point belongs, or {@code -1} if not found.
-     */
-    private int getAssignedCluster(double[] point, List<CentroidCluster<DoublePoint>> clusters) {
-        for (int i = 0; i < clusters.size(); i++) {
-            for (DoublePoint p : clusters.get(i).getPoints()) {
-                if (Arrays.equals(p.getPoint(), point)) {
-                    return i;
-                }
-            }
+    private List<IndexedPoint> createPoints(double[][] data) {
+        List<IndexedPoint> points = new ArrayList<>(data.length);
+        for (int i = 0; i < data.length; i++) {
+            points.add(new IndexedPoint(data[i], i));
         }
-        return -1;
+        return points;
     }
 }
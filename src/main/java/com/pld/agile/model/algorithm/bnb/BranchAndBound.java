@@ -1,10 +1,11 @@
 package com.pld.agile.model.algorithm.bnb;
 
 import java.util.Arrays;
-import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import com.pld.agile.model.algorithm.Deadline;
+import com.pld.agile.model.algorithm.bound.LowerBound;
 import com.pld.agile.model.graph.CompleteGraph;
 
 /**
@@ -16,14 +17,26 @@ import com.pld.agile.model.graph.CompleteGraph;
  * distance.
  */
 public class BranchAndBound {
+    /**
+     * The time limit of {@link #findBestCost()}, in milliseconds.
+     */
+    public static final long DEFAULT_TIME_LIMIT = 20000;
+
     private long nbCalls = 0; // Number of calls to the recursive permut function
-    private double best = Double.MAX_VALUE;
-    private int[] bestPath; // To store the best path found
+    private volatile double best = Double.MAX_VALUE;
+    private volatile int[] bestPath = new int[0]; // To store the best path found
     private CompleteGraph g;
+    private LowerBound lowerBound;
+    private int n;
+    private double[] costs; // Row-major cost matrix
+    private int[] neighbours; // Per-node neighbours, nearest first
+    private int[] indexInNotVisited; // Position of each node in notVisited
+    private boolean incrementalCrossingCheck = true;
+    private CrossingTable crossingTable; // null to scan the partial tour
+    private long[] crossingStack;
 
     // Time tracking variables
-    private long startTime;
-    private final long timeLimit = 20000;
+    private Deadline deadline;
     private volatile boolean timeExceeded = false;
 
     /**
@@ -39,6 +52,16 @@ public class BranchAndBound {
     public BranchAndBound() {
     }
 
+    /**
+     * Constructor for the BranchAndBound class.
+     *
+     * @param lowerBound the lower bound used to prune partial paths, or
+     *                   {@code null} to only prune on the current distance
+     */
+    public BranchAndBound(LowerBound lowerBound) {
+        this.lowerBound = lowerBound;
+    }
+
     /**
      * Starts the process of finding the best cost and path using the branch and
      * bound
@@ -47,6 +70,18 @@ public class BranchAndBound {
      * path visiting all nodes and returning to the starting point.
      */
     public void findBestCost() {
+        findBestCost(Deadline.after(DEFAULT_TIME_LIMIT));
+    }
+
+    /**
+     * Starts the branch and bound search, until the whole tree is explored or the
+     * deadline is reached. The best path found so far can be read from another
+     * thread during the search: the search starts from the nearest neighbour
+     * tour, so there is always one.
+     *
+     * @param deadline the deadline of the search
+     */
+    public void findBestCost(Deadline deadline) {
         int n = g.getNbVertices(); // Number of nodes
         int[] visited = new int[n + 1]; // +1 to include the return to the starting point
         int[] notVisited = new int[n - 1]; // Exclude the starting node (0)
@@ -57,23 +92,75 @@ public class BranchAndBound {
             notVisited[i - 1] = i;
         }
 
-        bestPath = new int[n + 1]; // +1 for the return to starting point
+        // Flat costs and neighbour orders, so the recursion allocates nothing
+        this.n = n;
+        costs = flatCosts(g);
+        neighbours = neighbourOrders(costs, n);
+        indexInNotVisited = new int[n];
+        for (int i = 0; i < n - 1; i++) {
+            indexInNotVisited[notVisited[i]] = i;
+        }
+        indexInNotVisited[0] = n - 1; // The starting node is never unvisited
+        crossingTable = null;
+        if (incrementalCrossingCheck && CrossingTable.fits(n)) {
+            crossingTable = new CrossingTable(costs, n);
+            crossingStack = crossingTable.newStack();
+        }
+
+        bestPath = nearestNeighbourTour(g);
+        best = tourCost(g, bestPath);
+        nbCalls = 0;
+        if (lowerBound != null) {
+            lowerBound.init(g);
+        }
 
         // Initialize time tracking
-        startTime = System.currentTimeMillis();
+        this.deadline = deadline;
         timeExceeded = false;
 
         // Start the recursive permutation
         permut(visited, 1, notVisited, n - 1, 0.0);
+    }
 
-        // Output the best cost and path
-        System.out.println("Optimized solution :");
-        System.out.println("Best cost: " + best);
-        System.out.print("Best path: ");
-        for (int i = 0; i <= n; i++) {
-            System.out.print(bestPath[i] + " ");
+    /**
+     * Builds the tour going from node 0 to the nearest unvisited node at each
+     * step, used as the first incumbent of the searches.
+     *
+     * @param g the complete graph
+     * @return the tour, starting and ending at node 0
+     */
+    static int[] nearestNeighbourTour(CompleteGraph g) {
+        int n = g.getNbVertices();
+        int[] tour = new int[n + 1];
+        boolean[] visited = new boolean[n];
+        visited[0] = true;
+        for (int i = 1; i < n; i++) {
+            int last = tour[i - 1];
+            int next = -1;
+            for (int v = 1; v < n; v++) {
+                if (!visited[v] && (next < 0 || g.cost(last, v) < g.cost(last, next))) {
+                    next = v;
+                }
+            }
+            visited[next] = true;
+            tour[i] = next;
         }
-        System.out.println();
+        return tour;
+    }
+
+    /**
+     * Computes the cost of a tour.
+     *
+     * @param g    the complete graph
+     * @param tour the nodes of the tour
+     * @return the total cost
+     */
+    static double tourCost(CompleteGraph g, int[] tour) {
+        double cost = 0.0;
+        for (int i = 0; i < tour.length - 1; i++) {
+            cost += g.cost(tour[i], tour[i + 1]);
+        }
+        return cost;
     }
 
     /**
@@ -92,86 +179,100 @@ public class BranchAndBound {
      */
     private void permut(int[] visited, int nbVisited, int[] notVisited, int nbNotVisited, double distance) {
         nbCalls++;
-    
-        // **Early Check:**
-        if (timeExceeded) {
-            System.out.println("weird1");
-            return; // Terminate recursion immediately
-        }
-    
-        // **Time Check:**
-        long currentTime = System.currentTimeMillis();
-        if (currentTime - startTime >= timeLimit) {
+
+        // **Time Check:** the clock is only read every few thousand calls
+        if (timeExceeded || deadline.probe(nbCalls)) {
             timeExceeded = true;
-            System.out.println("Time out after " + (currentTime - startTime) + " ms");
             return; // Exit early if time is up
         }
-        
-    
+
         // **Eliminate paths exceeding current best distance**
         if (distance >= best) {
             return;
         }
-    
+
+        int lastVisited = visited[nbVisited - 1];
+
         // **Base case: all nodes have been visited**
         if (nbNotVisited == 0) {
             // Add distance to return to the starting point
-            distance += g.getCost(visited[nbVisited - 1], 0);
+            distance += costs[lastVisited * n];
             if (distance < best) {
+                // Save the best path found, in a new array so it can be read during the search
+                int[] path = Arrays.copyOf(visited, nbVisited + 1);
+                path[nbVisited] = 0; // Return to starting point
+                bestPath = path;
                 best = distance;
-                // Save the best path found
-                System.arraycopy(visited, 0, bestPath, 0, nbVisited);
-                bestPath[nbVisited] = 0; // Return to starting point
             }
             return;
         }
-    
-        // **Create a temporary array for sorting the remaining nodes**
-        Integer[] sortedNotVisited = new Integer[nbNotVisited];
-        for (int i = 0; i < nbNotVisited; i++) {
-            sortedNotVisited[i] = notVisited[i];
+
+        // **Eliminate paths whose lower bound exceeds current best distance**
+        if (lowerBound != null && lowerBound.prunes(lastVisited, notVisited, nbNotVisited, distance, best)) {
+            return;
         }
-    
-        int lastVisited = visited[nbVisited - 1];
-    
-        // **Sort the remaining nodes based on cost from last visited node**
-        Arrays.sort(sortedNotVisited, Comparator.comparingDouble(a -> g.getCost(lastVisited, a)));
-    
-        // **Iterate over sorted nodes**
-        for (int idx = 0; idx < nbNotVisited; idx++) {
+
+        // **Iterate over the unvisited nodes, nearest first**
+        int from = lastVisited * (n - 1);
+        for (int idx = 0; idx < n - 1; idx++) {
             // **Check the flag inside the loop as well**
             if (timeExceeded) {
                 return; // Terminate recursion if time is up
             }
-    
-            int nextNode = sortedNotVisited[idx];
-            double newDistance = distance + g.getCost(lastVisited, nextNode);
-    
+
+            int nextNode = neighbours[from + idx];
+            if (indexInNotVisited[nextNode] >= nbNotVisited) {
+                continue; // Already visited
+            }
+            double newDistance = distance + costs[lastVisited * n + nextNode];
+
             // **Eliminate paths exceeding current best distance**
             if (newDistance >= best) {
                 continue;
             }
-    
+
             // **Intersection check**
-            boolean hasIntersection = containIntersection(nbVisited, lastVisited, nextNode, visited);
-            if (!hasIntersection) {
-                // **Find the index of nextNode in notVisited**
-                int indexInNotVisited = findIndex(notVisited, nextNode, nbNotVisited);
-                if (indexInNotVisited == -1) {
-                    continue;
+            if (!crosses(nbVisited, lastVisited, nextNode, visited)) {
+                int i = indexInNotVisited[nextNode];
+                updateTables(visited, nbVisited, notVisited, nbNotVisited, nextNode, i);
+                if (crossingTable != null) {
+                    crossingTable.push(crossingStack, nbVisited - 1, lastVisited, nextNode);
+                }
+
+                if (lowerBound != null) {
+                    lowerBound.visit(nextNode);
                 }
-    
-                updateTables(visited, nbVisited, notVisited, nbNotVisited, nextNode, indexInNotVisited);
-    
+
                 // **Recursive call with updated counts**
                 permut(visited, nbVisited + 1, notVisited, nbNotVisited - 1, newDistance);
-    
+
+                if (lowerBound != null) {
+                    lowerBound.unvisit(nextNode);
+                }
+
                 // **Restore tables after recursion**
-                restoreTables(notVisited, nbNotVisited, nextNode, indexInNotVisited);
+                restoreTables(notVisited, nbNotVisited, nextNode, i);
             }
         }
     }
 
+    /**
+     * Checks if the edge to the next node crosses the partial tour, in constant
+     * time with the {@link CrossingTable} when there is one.
+     *
+     * @param nbVisited   the number of nodes visited so far
+     * @param lastVisited the last node visited
+     * @param nextNode    the next node to visit
+     * @param visited     the array of visited nodes
+     * @return {@code true} if an intersection is found, {@code false} otherwise
+     */
+    private boolean crosses(int nbVisited, int lastVisited, int nextNode, int[] visited) {
+        if (crossingTable != null) {
+            return crossingTable.crosses(crossingStack, nbVisited - 1, lastVisited, nextNode);
+        }
+        return containIntersection(nbVisited, lastVisited, nextNode, visited);
+    }
+
     /**
      * Checks if the edges formed by two pairs of nodes intersect, i.e., whether
      * they cross
@@ -184,10 +285,10 @@ public class BranchAndBound {
      * @return {@code true} if the edges intersect, {@code false} otherwise
      */
     private boolean edgesIntersect(int i, int iNext, int j, int jNext) {
-        double edge1 = g.getCost(i, iNext);
-        double edge2 = g.getCost(j, jNext);
-        double cross1 = g.getCost(i, j);
-        double cross2 = g.getCost(iNext, jNext);
+        double edge1 = costs[i * n + iNext];
+        double edge2 = costs[j * n + jNext];
+        double cross1 = costs[i * n + j];
+        double cross2 = costs[iNext * n + jNext];
         return edge1 + edge2 > cross1 + cross2;
     }
 
@@ -213,7 +314,9 @@ public class BranchAndBound {
 
     /**
      * Updates the visited and notVisited arrays by marking the next node as visited
-     * and swapping it with the last unvisited node in the notVisited array.
+     * and swapping it with the last unvisited node in the notVisited array. The
+     * nodes of {@code notVisited} past {@code nbNotVisited - 1} are the visited
+     * ones, which {@code indexInNotVisited} tells in constant time.
      *
      * @param visited      the array of visited nodes
      * @param nbVisited    the number of visited nodes
@@ -224,8 +327,11 @@ public class BranchAndBound {
      */
     private void updateTables(int[] visited, int nbVisited, int[] notVisited, int nbNotVisited, int nextNode, int i) {
         visited[nbVisited] = nextNode;
-        notVisited[i] = notVisited[nbNotVisited - 1];
+        int moved = notVisited[nbNotVisited - 1];
+        notVisited[i] = moved;
         notVisited[nbNotVisited - 1] = nextNode;
+        indexInNotVisited[moved] = i;
+        indexInNotVisited[nextNode] = nbNotVisited - 1;
     }
 
     /**
@@ -238,25 +344,53 @@ public class BranchAndBound {
      * @param i            the index of nextNode in notVisited array
      */
     private void restoreTables(int[] notVisited, int nbNotVisited, int nextNode, int i) {
-        notVisited[nbNotVisited - 1] = notVisited[i];
+        int moved = notVisited[i];
+        notVisited[nbNotVisited - 1] = moved;
         notVisited[i] = nextNode;
+        indexInNotVisited[moved] = nbNotVisited - 1;
+        indexInNotVisited[nextNode] = i;
     }
 
     /**
-     * Finds the index of a specific value in an array up to the given length.
+     * Copies the costs of a complete graph into a flat row-major array, so that
+     * the cost from {@code i} to {@code j} is at index {@code i * n + j}.
      *
-     * @param array  the array to search
-     * @param value  the value to find
-     * @param length the length of the array to consider
-     * @return the index of the value in the array, or -1 if not found
+     * @param g the complete graph
+     * @return the cost matrix
      */
-    private int findIndex(int[] array, int value, int length) {
-        for (int idx = 0; idx < length; idx++) {
-            if (array[idx] == value) {
-                return idx;
+    static double[] flatCosts(CompleteGraph g) {
+        return g.copyCosts();
+    }
+
+    /**
+     * Sorts the other nodes of each node by their cost from it, once per search.
+     * The {@code n - 1} neighbours of node {@code i} are stored from index
+     * {@code i * (n - 1)}, nearest first, ties broken by node index.
+     *
+     * @param costs the flat cost matrix
+     * @param n     the number of nodes
+     * @return the neighbour orders
+     */
+    static int[] neighbourOrders(double[] costs, int n) {
+        int[] orders = new int[n * Math.max(n - 1, 0)];
+        for (int i = 0; i < n; i++) {
+            int base = i * (n - 1);
+            int size = 0;
+            // Insertion sort, stable on the node index
+            for (int j = 0; j < n; j++) {
+                if (j == i) {
+                    continue;
+                }
+                double c = costs[i * n + j];
+                int k = size++;
+                while (k > 0 && costs[i * n + orders[base + k - 1]] > c) {
+                    orders[base + k] = orders[base + k - 1];
+                    k--;
+                }
+                orders[base + k] = j;
             }
         }
-        return -1;
+        return orders;
     }
 
     /**
@@ -302,6 +436,27 @@ public class BranchAndBound {
         this.g = completeGraph;
     }
 
+    /**
+     * Chooses how the crossing check is computed: with the precomputed
+     * {@link CrossingTable}, the default, or by scanning the partial tour. Both
+     * prune the same paths.
+     *
+     * @param incrementalCrossingCheck {@code true} to use the table on graphs
+     *                                 small enough for it
+     */
+    public void setIncrementalCrossingCheck(boolean incrementalCrossingCheck) {
+        this.incrementalCrossingCheck = incrementalCrossingCheck;
+    }
+
+    /**
+     * Returns the lower bound used to prune partial paths.
+     *
+     * @return the lower bound, or {@code null} if none is used
+     */
+    public LowerBound getLowerBound() {
+        return lowerBound;
+    }
+
     /**
      * Returns the best path found during the execution as a {@code List<Integer>}.
      *
@@ -313,6 +468,21 @@ public class BranchAndBound {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Returns the cost of the best path found so far.
+     *
+     * @return the best cost, or {@code Double.MAX_VALUE} if no path was found yet
+     */
+    public double getBestCost() {
+        return this.best;
+    }
+
+    /**
+     * Checks whether the search stopped at its deadline before exploring the
+     * whole tree.
+     *
+     * @return {@code true} if the deadline was reached
+     */
     public boolean getTimeExceeded()
     {
         return this.timeExceeded;
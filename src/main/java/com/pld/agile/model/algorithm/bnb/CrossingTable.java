@@ -0,0 +1,111 @@
+package com.pld.agile.model.algorithm.bnb;
+
+/**
+ * The {@code CrossingTable} class answers the crossing check of the branch and
+ * bound searches in constant time.
+ *
+ * <p>
+ * An edge {@code (c, d)} crosses an edge {@code (a, b)} of the partial tour when
+ * {@code cost(a, b) + cost(c, d) > cost(a, c) + cost(b, d)}, that is when the
+ * 2-opt move replacing both edges would shorten the tour. The table precomputes,
+ * for every edge, the bitset of the edges crossing it. During the search, the
+ * edges crossing the partial tour are the union of the rows of its edges: one
+ * bitset per depth, each built from the previous one when an edge is added, so
+ * backtracking needs no undo.
+ * </p>
+ *
+ * <p>
+ * The table holds {@code n^4} bits, so it is only built for graphs of at most
+ * {@link #MAX_NODES} nodes.
+ * </p>
+ */
+final class CrossingTable {
+    /**
+     * The largest number of nodes the table is built for, which takes 2 MB.
+     */
+    static final int MAX_NODES = 64;
+
+    private final int n;
+    private final int words;
+    private final long[] rows;
+
+    /**
+     * Precomputes the edges crossing each edge.
+     *
+     * @param costs the flat cost matrix
+     * @param n     the number of nodes
+     */
+    CrossingTable(double[] costs, int n) {
+        this.n = n;
+        this.words = (n * n + 63) >>> 6;
+        this.rows = new long[n * n * words];
+        for (int a = 0; a < n; a++) {
+            for (int b = 0; b < n; b++) {
+                if (a == b) {
+                    continue;
+                }
+                int row = (a * n + b) * words;
+                double edge = costs[a * n + b];
+                for (int c = 0; c < n; c++) {
+                    for (int d = 0; d < n; d++) {
+                        if (c != d && edge + costs[c * n + d] > costs[a * n + c] + costs[b * n + d]) {
+                            int bit = c * n + d;
+                            rows[row + (bit >>> 6)] |= 1L << bit;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether a table can be built for a graph.
+     *
+     * @param n the number of nodes
+     * @return {@code true} if the graph is small enough
+     */
+    static boolean fits(int n) {
+        return n <= MAX_NODES;
+    }
+
+    /**
+     * Creates the per-depth bitsets of a search, with no edge at depth 0.
+     *
+     * @return the bitsets, one per number of edges of the partial tour
+     */
+    long[] newStack() {
+        return new long[(n + 1) * words];
+    }
+
+    /**
+     * Checks whether an edge crosses one of the edges of the partial tour.
+     *
+     * @param stack the per-depth bitsets of the search
+     * @param level the number of edges of the partial tour
+     * @param from  the last node of the partial tour
+     * @param to    the next node
+     * @return {@code true} if the edge crosses the partial tour
+     */
+    boolean crosses(long[] stack, int level, int from, int to) {
+        int bit = from * n + to;
+        return (stack[level * words + (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Builds the bitset of the next depth, once an edge is added to the partial
+     * tour.
+     *
+     * @param stack the per-depth bitsets of the search
+     * @param level the number of edges of the partial tour, before the edge
+     * @param from  the last node of the partial tour
+     * @param to    the next node
+     */
+    void push(long[] stack, int level, int from, int to) {
+        int source = level * words;
+        int target = source + words;
+        int row = (from * n + to) * words;
+        for (int w = 0; w < words; w++) {
+            stack[target + w] = stack[source + w] | rows[row + w];
+        }
+    }
+}
@@ -0,0 +1,444 @@
+package com.pld.agile.model.algorithm.bnb;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import com.pld.agile.model.algorithm.Deadline;
+import com.pld.agile.model.algorithm.bound.LowerBound;
+import com.pld.agile.model.graph.CompleteGraph;
+
+/**
+ * The {@code ParallelBranchAndBound} class is a multi-threaded variant of
+ * {@link BranchAndBound}. It explores the same search tree, with the same
+ * nearest-first ordering and crossing check, but the top levels of the tree
+ * are split into fork/join tasks that the pool balances by work stealing.
+ *
+ * <p>
+ * The cost of the best tour found so far is shared by all the tasks through
+ * an atomic incumbent updated by compare-and-set, so a tour found by one
+ * thread immediately prunes the branches explored by the others. Each task
+ * works on its own copies of the {@code visited} and {@code notVisited}
+ * arrays.
+ * </p>
+ *
+ * <p>
+ * A {@link LowerBound} keeps working arrays and is not thread-safe, so each
+ * task exploring its branch sequentially gets its own bound from a supplier,
+ * initialized on the graph, and prunes its partial tours with it as
+ * {@link BranchAndBound} does.
+ * </p>
+ */
+public class ParallelBranchAndBound {
+    /**
+     * The number of visited nodes up to which the search tree is split into
+     * tasks; deeper branches are explored sequentially by the task owning them.
+     */
+    private static final int SPLIT_DEPTH = 3;
+
+    /**
+     * Below this number of unvisited nodes, a branch is too small to be worth
+     * a task of its own.
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 6;
+
+    private final ForkJoinPool pool;
+    private final Supplier<LowerBound> lowerBounds; // null to only prune on the distance
+    private final LongAdder nbCalls = new LongAdder();
+    private final LongAdder nbPruned = new LongAdder();
+    private final AtomicLong best = new AtomicLong(Double.doubleToLongBits(Double.MAX_VALUE));
+    private double bestPathCost = Double.MAX_VALUE;
+    private int[] bestPath = new int[0];
+    private CompleteGraph g;
+    private double[] costs;
+    private int[] neighbours;
+    private CrossingTable crossingTable; // null to scan the partial tour
+    private int n;
+
+    // Time tracking variables
+    private Deadline deadline;
+    private volatile boolean timeExceeded = false;
+
+    /**
+     * Creates a solver running its tasks on the common fork/join pool.
+     */
+    public ParallelBranchAndBound() {
+        this(ForkJoinPool.commonPool(), null);
+    }
+
+    /**
+     * Creates a solver running its tasks on the given pool.
+     *
+     * @param pool the fork/join pool executing the search tasks
+     */
+    public ParallelBranchAndBound(ForkJoinPool pool) {
+        this(pool, null);
+    }
+
+    /**
+     * Creates a solver running its tasks on the common fork/join pool and
+     * pruning with lower bounds.
+     *
+     * @param lowerBounds the supplier of the lower bound of each task, or
+     *                    {@code null} to only prune on the current distance
+     */
+    public ParallelBranchAndBound(Supplier<LowerBound> lowerBounds) {
+        this(ForkJoinPool.commonPool(), lowerBounds);
+    }
+
+    /**
+     * Creates a solver running its tasks on the given pool and pruning with
+     * lower bounds.
+     *
+     * @param pool        the fork/join pool executing the search tasks
+     * @param lowerBounds the supplier of the lower bound of each task, or
+     *                    {@code null} to only prune on the current distance
+     */
+    public ParallelBranchAndBound(ForkJoinPool pool, Supplier<LowerBound> lowerBounds) {
+        this.pool = pool;
+        this.lowerBounds = lowerBounds;
+    }
+
+    /**
+     * Starts the search for the shortest tour starting and ending at node 0, and
+     * waits until the whole tree is explored or the default time limit of
+     * {@link BranchAndBound} is reached.
+     */
+    public void findBestCost() {
+        findBestCost(Deadline.after(BranchAndBound.DEFAULT_TIME_LIMIT));
+    }
+
+    /**
+     * Starts the search for the shortest tour starting and ending at node 0, and
+     * waits until the whole tree is explored or the deadline is reached. The best
+     * path found so far can be read from another thread during the search.
+     *
+     * @param deadline the deadline of the search, shared by all the tasks
+     */
+    public void findBestCost(Deadline deadline) {
+        n = g.getNbVertices();
+        costs = BranchAndBound.flatCosts(g);
+        neighbours = BranchAndBound.neighbourOrders(costs, n);
+        crossingTable = CrossingTable.fits(n) ? new CrossingTable(costs, n) : null;
+
+        int[] visited = new int[n + 1]; // +1 to include the return to the starting point
+        int[] notVisited = new int[n - 1]; // Exclude the starting node (0)
+        for (int i = 1; i < n; i++) {
+            notVisited[i - 1] = i;
+        }
+
+        // Start from the nearest neighbour tour, so there is always an incumbent
+        int[] seed = BranchAndBound.nearestNeighbourTour(g);
+        synchronized (this) {
+            bestPath = seed;
+            bestPathCost = BranchAndBound.tourCost(g, seed);
+        }
+        best.set(Double.doubleToLongBits(bestPathCost));
+        nbCalls.reset();
+        nbPruned.reset();
+        this.deadline = deadline;
+        timeExceeded = false;
+
+        pool.invoke(new SearchTask(visited, 1, notVisited, n - 1, 0.0));
+    }
+
+    /**
+     * A branch of the search tree, defined by the nodes already visited.
+     */
+    private final class SearchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] visited;
+        private final int nbVisited;
+        private final int[] notVisited;
+        private final int nbNotVisited;
+        private final double distance;
+        private long nbProbes = 0;
+        private int[] indexInNotVisited;
+        private long[] crossingStack;
+        private transient LowerBound lowerBound;
+
+        SearchTask(int[] visited, int nbVisited, int[] notVisited, int nbNotVisited, double distance) {
+            this.visited = visited;
+            this.nbVisited = nbVisited;
+            this.notVisited = notVisited;
+            this.nbNotVisited = nbNotVisited;
+            this.distance = distance;
+        }
+
+        @Override
+        protected void compute() {
+            if (nbVisited >= SPLIT_DEPTH || nbNotVisited <= SEQUENTIAL_THRESHOLD) {
+                // The visited nodes are the ones past the unvisited ones
+                indexInNotVisited = new int[n];
+                Arrays.fill(indexInNotVisited, n - 1);
+                for (int i = 0; i < nbNotVisited; i++) {
+                    indexInNotVisited[notVisited[i]] = i;
+                }
+                if (crossingTable != null) {
+                    // Rebuild the crossings of the partial tour owned by the task
+                    crossingStack = crossingTable.newStack();
+                    for (int j = 0; j < nbVisited - 1; j++) {
+                        crossingTable.push(crossingStack, j, visited[j], visited[j + 1]);
+                    }
+                }
+                if (lowerBounds != null) {
+                    lowerBound = lowerBounds.get();
+                    lowerBound.init(g);
+                    for (int j = 1; j < nbVisited; j++) {
+                        lowerBound.visit(visited[j]);
+                    }
+                }
+                permut(visited, nbVisited, notVisited, nbNotVisited, distance);
+                nbCalls.add(nbProbes);
+                if (lowerBound != null) {
+                    nbPruned.add(lowerBound.getNbPruned());
+                }
+                return;
+            }
+            if (timeExceeded || deadline.isReached()) {
+                timeExceeded = true;
+                return;
+            }
+            if (distance >= currentBest()) {
+                return;
+            }
+            nbCalls.increment();
+
+            // Fork one task per child, nearest nodes first
+            int lastVisited = visited[nbVisited - 1];
+            int[] sorted = sortByCost(lastVisited, notVisited, nbNotVisited);
+            List<SearchTask> children = new ArrayList<>(nbNotVisited);
+            for (int nextNode : sorted) {
+                double newDistance = distance + cost(lastVisited, nextNode);
+                if (newDistance >= currentBest() || containIntersection(nbVisited, lastVisited, nextNode, visited)) {
+                    continue;
+                }
+                int[] childVisited = visited.clone();
+                childVisited[nbVisited] = nextNode;
+                int[] childNotVisited = new int[nbNotVisited - 1];
+                int k = 0;
+                for (int i = 0; i < nbNotVisited; i++) {
+                    if (notVisited[i] != nextNode) {
+                        childNotVisited[k++] = notVisited[i];
+                    }
+                }
+                children.add(new SearchTask(childVisited, nbVisited + 1, childNotVisited, nbNotVisited - 1,
+                        newDistance));
+            }
+            invokeAll(children);
+        }
+
+        /**
+         * Sequential depth-first exploration of a branch, as in
+         * {@link BranchAndBound}, pruned with the shared incumbent and the lower
+         * bound of the task.
+         *
+         * @param visited      the list of already visited nodes, owned by the task
+         * @param nbVisited    the number of visited nodes
+         * @param notVisited   the list of unvisited nodes, owned by the task
+         * @param nbNotVisited the number of unvisited nodes
+         * @param distance     the current total distance traveled
+         */
+        private void permut(int[] visited, int nbVisited, int[] notVisited, int nbNotVisited, double distance) {
+            // The first call of each task reads the clock
+            if (timeExceeded || deadline.probe(nbProbes++)) {
+                timeExceeded = true;
+                return;
+            }
+            if (distance >= currentBest()) {
+                return;
+            }
+
+            // Base case: all nodes have been visited
+            if (nbNotVisited == 0) {
+                visited[nbVisited] = 0;
+                offer(distance + cost(visited[nbVisited - 1], 0), visited, nbVisited + 1);
+                return;
+            }
+
+            int lastVisited = visited[nbVisited - 1];
+            if (lowerBound != null
+                    && lowerBound.prunes(lastVisited, notVisited, nbNotVisited, distance, currentBest())) {
+                return;
+            }
+
+            // Walk the neighbours of the last node, nearest first, skipping the visited ones
+            int from = lastVisited * (n - 1);
+            for (int idx = 0; idx < n - 1; idx++) {
+                if (timeExceeded) {
+                    return;
+                }
+                int nextNode = neighbours[from + idx];
+                int i = indexInNotVisited[nextNode];
+                if (i >= nbNotVisited) {
+                    continue;
+                }
+                double newDistance = distance + cost(lastVisited, nextNode);
+                if (newDistance >= currentBest()) {
+                    continue;
+                }
+                if (crossingTable != null
+                        ? crossingTable.crosses(crossingStack, nbVisited - 1, lastVisited, nextNode)
+                        : containIntersection(nbVisited, lastVisited, nextNode, visited)) {
+                    continue;
+                }
+                if (crossingTable != null) {
+                    crossingTable.push(crossingStack, nbVisited - 1, lastVisited, nextNode);
+                }
+                int moved = notVisited[nbNotVisited - 1];
+                visited[nbVisited] = nextNode;
+                notVisited[i] = moved;
+                notVisited[nbNotVisited - 1] = nextNode;
+                indexInNotVisited[moved] = i;
+                indexInNotVisited[nextNode] = nbNotVisited - 1;
+
+                if (lowerBound != null) {
+                    lowerBound.visit(nextNode);
+                }
+                permut(visited, nbVisited + 1, notVisited, nbNotVisited - 1, newDistance);
+                if (lowerBound != null) {
+                    lowerBound.unvisit(nextNode);
+                }
+
+                notVisited[nbNotVisited - 1] = moved;
+                notVisited[i] = nextNode;
+                indexInNotVisited[moved] = nbNotVisited - 1;
+                indexInNotVisited[nextNode] = i;
+            }
+        }
+    }
+
+    /**
+     * Publishes a complete tour if it beats the incumbent. The cost is swapped
+     * in with compare-and-set, then the path is copied under the lock, unless a
+     * better tour was recorded in the meantime.
+     *
+     * @param cost   the cost of the tour, including the return to node 0
+     * @param path   the nodes of the tour
+     * @param length the number of nodes of the tour
+     */
+    private void offer(double cost, int[] path, int length) {
+        long current = best.get();
+        while (cost < Double.longBitsToDouble(current)) {
+            if (best.compareAndSet(current, Double.doubleToLongBits(cost))) {
+                synchronized (this) {
+                    if (cost < bestPathCost) {
+                        bestPathCost = cost;
+                        bestPath = Arrays.copyOf(path, length);
+                    }
+                }
+                return;
+            }
+            current = best.get();
+        }
+    }
+
+    /**
+     * Returns the cost of the best tour found so far by any task.
+     */
+    private double currentBest() {
+        return Double.longBitsToDouble(best.get());
+    }
+
+    private double cost(int i, int j) {
+        return costs[i * n + j];
+    }
+
+    /**
+     * Returns the unvisited nodes sorted by their cost from the last visited
+     * node.
+     */
+    private int[] sortByCost(int lastVisited, int[] notVisited, int nbNotVisited) {
+        int[] sorted = Arrays.copyOf(notVisited, nbNotVisited);
+        // Insertion sort, the lists are short
+        for (int i = 1; i < nbNotVisited; i++) {
+            int node = sorted[i];
+            double c = cost(lastVisited, node);
+            int j = i - 1;
+            while (j >= 0 && cost(lastVisited, sorted[j]) > c) {
+                sorted[j + 1] = sorted[j];
+                j--;
+            }
+            sorted[j + 1] = node;
+        }
+        return sorted;
+    }
+
+    /**
+     * Checks if adding the edge from the last visited node to the next node
+     * crosses an edge already in the path, with the same test as
+     * {@link BranchAndBound}.
+     */
+    private boolean containIntersection(int nbVisited, int lastVisited, int nextNode, int[] visited) {
+        for (int j = 0; j < nbVisited - 1; j++) {
+            int i = visited[j];
+            int iNext = visited[j + 1];
+            if (cost(i, iNext) + cost(lastVisited, nextNode) > cost(i, lastVisited) + cost(iNext, nextNode)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sets the complete graph for the algorithm.
+     *
+     * @param completeGraph the complete graph to set
+     */
+    public void setCompleteGraph(CompleteGraph completeGraph) {
+        this.g = completeGraph;
+    }
+
+    /**
+     * Returns the best path found during the execution as a {@code List<Integer>}.
+     *
+     * @return the best path, starting and ending at node 0
+     */
+    public synchronized List<Integer> getBestPath() {
+        return Arrays.stream(this.bestPath).boxed().collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the cost of the best path found during the execution.
+     *
+     * @return the best cost
+     */
+    public synchronized double getBestCost() {
+        return bestPathCost;
+    }
+
+    /**
+     * Returns the number of nodes of the search tree explored by all the tasks.
+     *
+     * @return the number of calls
+     */
+    public long getNbCalls() {
+        return nbCalls.sum();
+    }
+
+    /**
+     * Returns the number of partial tours pruned by the lower bounds of all the
+     * tasks.
+     *
+     * @return the number of pruned partial tours, 0 without lower bounds
+     */
+    public long getNbPruned() {
+        return nbPruned.sum();
+    }
+
+    /**
+     * Checks whether the search stopped because of the time limit.
+     *
+     * @return {@code true} if the time limit was exceeded
+     */
+    public boolean getTimeExceeded() {
+        return this.timeExceeded;
+    }
+}
@@ -0,0 +1,128 @@
+package com.pld.agile.model.algorithm.bound;
+
+import java.util.Arrays;
+
+/**
+ * The {@code LagrangianBound} class tightens the {@link SpanningTreeBound} with
+ * the Held-Karp Lagrangian relaxation.
+ *
+ * <p>
+ * Each vertex gets a penalty added to the weight of its edges. The completion
+ * of the tour has a fixed degree at every vertex (1 at both ends of the path,
+ * 2 elsewhere), so its cost only moves by a constant, and the spanning tree of
+ * the penalized weights minus that constant stays a lower bound. Subgradient
+ * steps raise the penalty of the vertices of degree too high in the tree and
+ * lower the others, which pushes the tree towards a path and raises the bound.
+ * </p>
+ *
+ * <p>
+ * The penalties tuned for a partial tour are kept in a stack with one row per
+ * depth, so the bound of a partial tour starts from the penalties of its parent
+ * in the depth-first search. The iterations stop as soon as the bound is high
+ * enough to prune.
+ * </p>
+ */
+public class LagrangianBound extends SpanningTreeBound {
+    /**
+     * The largest number of subgradient steps of an evaluation.
+     */
+    private static final int ITERATIONS = 20;
+
+    /**
+     * The initial step factor of the subgradient steps.
+     */
+    private static final double INITIAL_STEP = 1.0;
+
+    /**
+     * The factor applied to the step factor after each step.
+     */
+    private static final double STEP_DECAY = 0.9;
+
+    private double[] penaltyStack = new double[0];
+    private double[] penalties = new double[0];
+    private int[] degrees = new int[0];
+    private final int[] endpoints = new int[2];
+
+    @Override
+    protected void prepare() {
+        super.prepare();
+        penaltyStack = new double[n * n];
+        penalties = new double[n];
+        degrees = new int[n + 1];
+    }
+
+    @Override
+    protected double compute(int current, int[] unvisited, int nbUnvisited, double budget) {
+        if (nbUnvisited == 0) {
+            return costs[current * n];
+        }
+        if (current == 0 && nbUnvisited == 1) {
+            return costs[unvisited[0]] + costs[unvisited[0] * n];
+        }
+        boolean root = current == 0;
+        int size = collectNodes(current, unvisited, nbUnvisited);
+
+        // Start from the penalties tuned for the parent, one level up in the search
+        int depth = n - 1 - nbUnvisited;
+        if (depth == 0) {
+            Arrays.fill(penalties, 0.0);
+        } else {
+            System.arraycopy(penaltyStack, (depth - 1) * n, penalties, 0, n);
+        }
+        // Without an incumbent the plain tree is computed once
+        int iterations = budget >= Double.MAX_VALUE / 2 ? 1 : ITERATIONS;
+
+        double best = 0.0;
+        double step = INITIAL_STEP;
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            double weight = minimumSpanningTree(size, penalties);
+            Arrays.fill(degrees, 0, size + 1, 0);
+            for (int k = 0; k < size; k++) {
+                if (parents[k] >= 0) {
+                    degrees[k]++;
+                    degrees[parents[k]]++;
+                }
+            }
+            if (root) {
+                weight += twoCheapestEdgesFromStart(size, penalties, endpoints);
+                degrees[endpoints[0]]++;
+                degrees[endpoints[1]]++;
+            }
+
+            // Subtract the constant added to the cost of every completion
+            double bound = weight;
+            double norm = 0.0;
+            for (int k = 0; k < size; k++) {
+                bound -= penalties[nodes[k]] * target(k, size, root);
+                double gradient = degrees[k] - target(k, size, root);
+                norm += gradient * gradient;
+            }
+            if (root) {
+                bound -= penalties[0] * 2;
+            }
+            if (bound > best) {
+                best = bound;
+            }
+            if (best >= budget || norm == 0.0 || iteration == iterations - 1) {
+                break;
+            }
+
+            double t = step * (budget - bound) / norm;
+            for (int k = 0; k < size; k++) {
+                penalties[nodes[k]] += t * (degrees[k] - target(k, size, root));
+            }
+            step *= STEP_DECAY;
+        }
+        System.arraycopy(penalties, 0, penaltyStack, depth * n, n);
+        return best;
+    }
+
+    /**
+     * Returns the degree of a vertex of the tree in the completion of the tour:
+     * 1 for the current vertex and vertex 0, the two last nodes outside the
+     * root, and 2 for the others.
+     */
+    private static int target(int position, int size, boolean root) {
+        return !root && position >= size - 2 ? 1 : 2;
+    }
+}
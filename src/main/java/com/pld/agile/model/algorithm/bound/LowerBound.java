@@ -0,0 +1,164 @@
+package com.pld.agile.model.algorithm.bound;
+
+import com.pld.agile.model.graph.Graph;
+
+/**
+ * The {@code LowerBound} class is the base of the lower bounds the branch and
+ * bound searches can use to prune partial tours.
+ *
+ * <p>
+ * A partial tour has visited some vertices and stands at {@code current}; it
+ * still has to visit every vertex of {@code unvisited} and to come back to
+ * vertex 0. A lower bound is a value that never exceeds the cost of the
+ * cheapest such completion, so a partial tour whose cost plus bound reaches
+ * the cost of the best tour found can be discarded.
+ * </p>
+ *
+ * <p>
+ * The costs of the graph are copied once into a flat row-major array by
+ * {@link #init(Graph)}, and the subclasses keep their working arrays across
+ * evaluations, so an instance is not thread-safe. Each instance counts how many
+ * times it was evaluated and how many partial tours it pruned.
+ * </p>
+ */
+public abstract class LowerBound {
+    protected int n;
+    protected double[] costs = new double[0];
+    private long nbEvaluations = 0;
+    private long nbPruned = 0;
+
+    /**
+     * Prepares the bound for a graph and resets the counters.
+     *
+     * @param g the complete graph of the problem
+     */
+    public void init(Graph g) {
+        n = g.getNbVertices();
+        costs = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                costs[i * n + j] = i == j ? 0.0 : g.cost(i, j);
+            }
+        }
+        nbEvaluations = 0;
+        nbPruned = 0;
+        prepare();
+    }
+
+    /**
+     * Precomputes the data the bound needs once per graph, after the costs were
+     * copied.
+     */
+    protected void prepare() {
+    }
+
+    /**
+     * Records that the search moved to a vertex, so that the bounds keeping
+     * running totals over the unvisited vertices can update them. A search
+     * calling it must call {@link #unvisit(int)} when it backtracks, in reverse
+     * order; the bounds still work for the searches that never call it.
+     *
+     * @param v the vertex added to the partial tour
+     */
+    public void visit(int v) {
+    }
+
+    /**
+     * Records that the search backtracked from the last vertex passed to
+     * {@link #visit(int)}.
+     *
+     * @param v the vertex removed from the partial tour
+     */
+    public void unvisit(int v) {
+    }
+
+    /**
+     * Computes a lower bound of the cost of the completion of a partial tour.
+     *
+     * @param current     the last visited vertex
+     * @param unvisited   the vertices left to visit, in the first
+     *                    {@code nbUnvisited} cells
+     * @param nbUnvisited the number of vertices left to visit
+     * @param budget      the cost the completion must stay below to improve on
+     *                    the best tour, which lets iterative bounds stop early
+     * @return a lower bound of the remaining cost, never negative
+     */
+    protected abstract double compute(int current, int[] unvisited, int nbUnvisited, double budget);
+
+    /**
+     * Computes a lower bound of the cost of the completion of a partial tour,
+     * without counting it as an evaluation.
+     *
+     * @param current     the last visited vertex
+     * @param unvisited   the vertices left to visit, in the first
+     *                    {@code nbUnvisited} cells
+     * @param nbUnvisited the number of vertices left to visit
+     * @return a lower bound of the remaining cost
+     */
+    public final double evaluate(int current, int[] unvisited, int nbUnvisited) {
+        return compute(current, unvisited, nbUnvisited, Double.MAX_VALUE);
+    }
+
+    /**
+     * Computes a lower bound of the cost of the whole tour, from vertex 0 through
+     * every other vertex.
+     *
+     * @return a lower bound of the cost of the optimal tour
+     */
+    public final double evaluateTour() {
+        int[] unvisited = new int[Math.max(n - 1, 0)];
+        for (int v = 1; v < n; v++) {
+            unvisited[v - 1] = v;
+        }
+        return compute(0, unvisited, unvisited.length, Double.MAX_VALUE);
+    }
+
+    /**
+     * Checks whether a partial tour can be discarded.
+     *
+     * @param current     the last visited vertex
+     * @param unvisited   the vertices left to visit, in the first
+     *                    {@code nbUnvisited} cells
+     * @param nbUnvisited the number of vertices left to visit
+     * @param distance    the cost of the partial tour
+     * @param best        the cost of the best tour found so far
+     * @return {@code true} if no completion of the partial tour can beat the best
+     * tour
+     */
+    public final boolean prunes(int current, int[] unvisited, int nbUnvisited, double distance, double best) {
+        nbEvaluations++;
+        if (distance + compute(current, unvisited, nbUnvisited, best - distance) >= best) {
+            nbPruned++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the symmetric cost between two vertices, the cheapest of both
+     * directions, which the tree bounds use.
+     */
+    protected final double symmetricCost(int i, int j) {
+        return Math.min(costs[i * n + j], costs[j * n + i]);
+    }
+
+    /**
+     * Returns the number of partial tours evaluated since the last
+     * {@link #init(Graph)}.
+     *
+     * @return the number of evaluations
+     */
+    public long getNbEvaluations() {
+        return nbEvaluations;
+    }
+
+    /**
+     * Returns the number of partial tours pruned since the last
+     * {@link #init(Graph)}.
+     *
+     * @return the number of pruned partial tours
+     */
+    public long getNbPruned() {
+        return nbPruned;
+    }
+}
@@ -0,0 +1,72 @@
+package com.pld.agile.model.algorithm.bound;
+
+/**
+ * The {@code MinOutgoingEdgeBound} class bounds the completion of a partial
+ * tour by the sum of the cheapest outgoing edges: the completion leaves the
+ * current vertex once and every unvisited vertex once.
+ *
+ * <p>
+ * The cheapest outgoing edge of every vertex is computed once per graph. The
+ * sum over the unvisited vertices is kept in a stack with one entry per depth,
+ * updated by {@link #visit(int)} and {@link #unvisit(int)}, so an evaluation
+ * only looks for the cheapest edge out of the current vertex. For a search
+ * that does not report its moves, the sum is computed at each evaluation.
+ * </p>
+ */
+public class MinOutgoingEdgeBound extends LowerBound {
+    private double[] minOut = new double[0];
+    private double[] unvisitedSums = new double[0];
+    private int depth = 0;
+
+    @Override
+    protected void prepare() {
+        minOut = new double[n];
+        for (int i = 0; i < n; i++) {
+            double min = Double.MAX_VALUE;
+            for (int j = 0; j < n; j++) {
+                if (i != j && costs[i * n + j] < min) {
+                    min = costs[i * n + j];
+                }
+            }
+            minOut[i] = min == Double.MAX_VALUE ? 0.0 : min;
+        }
+        unvisitedSums = new double[Math.max(n, 1)];
+        for (int i = 1; i < n; i++) {
+            unvisitedSums[0] += minOut[i];
+        }
+        depth = 0;
+    }
+
+    @Override
+    public void visit(int v) {
+        unvisitedSums[depth + 1] = unvisitedSums[depth] - minOut[v];
+        depth++;
+    }
+
+    @Override
+    public void unvisit(int v) {
+        depth--;
+    }
+
+    @Override
+    protected double compute(int current, int[] unvisited, int nbUnvisited, double budget) {
+        if (nbUnvisited == 0) {
+            return costs[current * n];
+        }
+        double firstEdge = Double.MAX_VALUE;
+        for (int k = 0; k < nbUnvisited; k++) {
+            int u = unvisited[k];
+            if (costs[current * n + u] < firstEdge) {
+                firstEdge = costs[current * n + u];
+            }
+        }
+        if (nbUnvisited == n - 1 - depth) {
+            return firstEdge + unvisitedSums[depth];
+        }
+        double sum = 0.0;
+        for (int k = 0; k < nbUnvisited; k++) {
+            sum += minOut[unvisited[k]];
+        }
+        return firstEdge + sum;
+    }
+}
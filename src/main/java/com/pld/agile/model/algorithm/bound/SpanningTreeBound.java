@@ -0,0 +1,159 @@
+package com.pld.agile.model.algorithm.bound;
+
+/**
+ * The {@code SpanningTreeBound} class bounds the completion of a partial tour
+ * by the weight of a minimum spanning tree.
+ *
+ * <p>
+ * The completion is a path from the current vertex to vertex 0 through every
+ * unvisited vertex, which is a spanning tree of these vertices, so it costs at
+ * least their minimum spanning tree, with each edge weighted by the cheapest
+ * of its two directions. At the root of the search, where the current vertex
+ * is vertex 0, the completion is a whole cycle and the bound is the 1-tree: a
+ * minimum spanning tree of the other vertices plus the two cheapest edges of
+ * vertex 0.
+ * </p>
+ *
+ * <p>
+ * The trees are built with Prim's algorithm on dense arrays reused across
+ * evaluations, which suits the complete graphs of the tours.
+ * </p>
+ */
+public class SpanningTreeBound extends LowerBound {
+    /**
+     * The vertices of the tree of the last evaluation.
+     */
+    protected int[] nodes = new int[0];
+
+    /**
+     * The parent of each node in the tree of the last evaluation, as a position
+     * in {@code nodes}, or {@code -1} for the root.
+     */
+    protected int[] parents = new int[0];
+
+    private double[] keys = new double[0];
+    private boolean[] inTree = new boolean[0];
+
+    @Override
+    protected void prepare() {
+        nodes = new int[n + 1];
+        parents = new int[n + 1];
+        keys = new double[n + 1];
+        inTree = new boolean[n + 1];
+    }
+
+    @Override
+    protected double compute(int current, int[] unvisited, int nbUnvisited, double budget) {
+        if (nbUnvisited == 0) {
+            return costs[current * n];
+        }
+        int size = collectNodes(current, unvisited, nbUnvisited);
+        if (current == 0) {
+            return minimumSpanningTree(size, null) + twoCheapestEdgesFromStart(size, null);
+        }
+        return minimumSpanningTree(size, null);
+    }
+
+    /**
+     * Fills {@code nodes} with the vertices of the tree: the unvisited vertices
+     * first, then the current vertex and vertex 0, or only vertex 0 at the root.
+     *
+     * @return the number of vertices of the spanning tree, vertex 0 excluded
+     * at the root
+     */
+    protected final int collectNodes(int current, int[] unvisited, int nbUnvisited) {
+        System.arraycopy(unvisited, 0, nodes, 0, nbUnvisited);
+        if (current == 0) {
+            nodes[nbUnvisited] = 0;
+            return nbUnvisited;
+        }
+        nodes[nbUnvisited] = current;
+        nodes[nbUnvisited + 1] = 0;
+        return nbUnvisited + 2;
+    }
+
+    /**
+     * Computes the minimum spanning tree of the first {@code size} vertices of
+     * {@code nodes} with Prim's algorithm, and records the parents.
+     *
+     * @param size      the number of vertices of the tree
+     * @param penalties the penalty of each vertex added to the weight of its
+     *                  edges, or {@code null} for the plain weights
+     * @return the weight of the tree
+     */
+    protected final double minimumSpanningTree(int size, double[] penalties) {
+        for (int k = 0; k < size; k++) {
+            keys[k] = Double.MAX_VALUE;
+            inTree[k] = false;
+            parents[k] = -1;
+        }
+        keys[0] = 0.0;
+        double weight = 0.0;
+        for (int step = 0; step < size; step++) {
+            int next = -1;
+            for (int k = 0; k < size; k++) {
+                if (!inTree[k] && (next < 0 || keys[k] < keys[next])) {
+                    next = k;
+                }
+            }
+            inTree[next] = true;
+            weight += keys[next];
+            int u = nodes[next];
+            for (int k = 0; k < size; k++) {
+                if (!inTree[k]) {
+                    double w = weight(u, nodes[k], penalties);
+                    if (w < keys[k]) {
+                        keys[k] = w;
+                        parents[k] = next;
+                    }
+                }
+            }
+        }
+        return weight;
+    }
+
+    /**
+     * Computes the weight of the two cheapest edges between vertex 0 and the
+     * first {@code size} vertices of {@code nodes}, which close a 1-tree.
+     *
+     * @param size      the number of vertices of the spanning tree
+     * @param endpoints receives the positions of both ends in {@code nodes}, or
+     *                  {@code null}
+     * @return the weight of both edges
+     */
+    protected final double twoCheapestEdgesFromStart(int size, int[] endpoints) {
+        return twoCheapestEdgesFromStart(size, null, endpoints);
+    }
+
+    /**
+     * Computes the weight of the two cheapest edges between vertex 0 and the
+     * first {@code size} vertices of {@code nodes}, with penalties.
+     */
+    protected final double twoCheapestEdgesFromStart(int size, double[] penalties, int[] endpoints) {
+        int first = -1;
+        int second = -1;
+        for (int k = 0; k < size; k++) {
+            double w = weight(0, nodes[k], penalties);
+            if (first < 0 || w < weight(0, nodes[first], penalties)) {
+                second = first;
+                first = k;
+            } else if (second < 0 || w < weight(0, nodes[second], penalties)) {
+                second = k;
+            }
+        }
+        if (endpoints != null) {
+            endpoints[0] = first;
+            endpoints[1] = second;
+        }
+        if (second < 0) {
+            // A single vertex is visited and left: both edges are the same pair
+            return costs[nodes[first]] + costs[nodes[first] * n];
+        }
+        return weight(0, nodes[first], penalties) + weight(0, nodes[second], penalties);
+    }
+
+    private double weight(int u, int v, double[] penalties) {
+        double w = symmetricCost(u, v);
+        return penalties == null ? w : w + penalties[u] + penalties[v];
+    }
+}
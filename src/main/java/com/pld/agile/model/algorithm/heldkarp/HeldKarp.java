@@ -0,0 +1,254 @@
+package com.pld.agile.model.algorithm.heldkarp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import com.pld.agile.model.algorithm.Deadline;
+import com.pld.agile.model.graph.CompleteGraph;
+
+/**
+ * The {@code HeldKarp} class solves the Traveling Salesman Problem exactly with
+ * the Held-Karp dynamic program over subsets.
+ *
+ * <p>
+ * For every subset {@code S} of the vertices other than the start vertex 0 and
+ * every vertex {@code j} of {@code S}, the table holds the cost of the shortest
+ * path leaving 0, visiting exactly {@code S} and ending at {@code j}. Subsets
+ * are bitmasks, and the tables are flat primitive arrays indexed by
+ * {@code mask * m + j}, where {@code m = n - 1}. Subsets of the same size only
+ * depend on smaller ones, so each layer is computed in parallel.
+ * </p>
+ *
+ * <p>
+ * The tables hold {@code 2^m * m} entries, so the solver refuses graphs whose
+ * tables would not fit in the memory budget: see {@link #fits(int)}.
+ * </p>
+ */
+public class HeldKarp {
+    /**
+     * The number of bytes of one table entry: a {@code double} cost and an
+     * {@code int} parent.
+     */
+    private static final long BYTES_PER_ENTRY = Double.BYTES + Integer.BYTES;
+
+    /**
+     * The largest share of the maximum heap size the tables may use.
+     */
+    private static final double MEMORY_SHARE = 0.25;
+
+    /**
+     * Layers smaller than this are computed sequentially.
+     */
+    private static final int PARALLEL_LAYER_SIZE = 1 << 10;
+
+    private volatile List<Integer> bestPath = new ArrayList<>();
+    private volatile double bestCost = Double.MAX_VALUE;
+    private boolean timeExceeded = false;
+
+    /**
+     * Checks whether the tables for a graph of the given size fit in the memory
+     * budget, a quarter of the maximum heap size.
+     *
+     * @param nbVertices the number of vertices of the graph
+     * @return {@code true} if the graph can be solved by this class
+     */
+    public static boolean fits(int nbVertices) {
+        int m = nbVertices - 1;
+        if (m >= 31) {
+            return false;
+        }
+        long bytes = (1L << Math.max(m, 0)) * Math.max(m, 1) * BYTES_PER_ENTRY;
+        return bytes <= Runtime.getRuntime().maxMemory() * MEMORY_SHARE;
+    }
+
+    /**
+     * Computes the shortest tour starting and ending at vertex 0.
+     *
+     * @param g the complete graph
+     * @throws IllegalArgumentException if the graph is too large for the memory
+     *                                  budget
+     */
+    public void solve(CompleteGraph g) {
+        solve(g, Deadline.none());
+    }
+
+    /**
+     * Computes the shortest tour starting and ending at vertex 0, checking the
+     * deadline between two layers. The dynamic program has no tour before its
+     * last layer, so if the deadline is reached first, the tour built by always
+     * going to the nearest unvisited vertex is kept instead.
+     *
+     * @param g        the complete graph
+     * @param deadline the deadline of the computation
+     * @throws IllegalArgumentException if the graph is too large for the memory
+     *                                  budget
+     */
+    public void solve(CompleteGraph g, Deadline deadline) {
+        int n = g.getNbVertices();
+        timeExceeded = false;
+        if (!fits(n)) {
+            throw new IllegalArgumentException("Too many vertices for the Held-Karp solver: " + n);
+        }
+        if (n <= 1) {
+            bestPath = new ArrayList<>(List.of(0, 0));
+            bestCost = 0.0;
+            return;
+        }
+
+        double[] costs = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                costs[i * n + j] = g.cost(i, j);
+            }
+        }
+
+        int m = n - 1;
+        int nbMasks = 1 << m;
+        double[] dp = new double[nbMasks * m];
+        int[] parent = new int[nbMasks * m];
+        Arrays.fill(dp, Double.MAX_VALUE);
+        for (int j = 0; j < m; j++) {
+            dp[(1 << j) * m + j] = costs[j + 1];
+            parent[(1 << j) * m + j] = -1;
+        }
+
+        // Order the masks by size, with a counting sort on their bit count
+        int[] layerStart = new int[m + 2];
+        for (int mask = 1; mask < nbMasks; mask++) {
+            layerStart[Integer.bitCount(mask) + 1]++;
+        }
+        for (int k = 0; k <= m; k++) {
+            layerStart[k + 1] += layerStart[k];
+        }
+        int[] masks = new int[nbMasks];
+        int[] next = Arrays.copyOf(layerStart, m + 1);
+        for (int mask = 1; mask < nbMasks; mask++) {
+            masks[next[Integer.bitCount(mask)]++] = mask;
+        }
+
+        for (int k = 2; k <= m; k++) {
+            if (deadline.isReached()) {
+                timeExceeded = true;
+                nearestNeighbourTour(n, costs);
+                return;
+            }
+            IntStream layer = IntStream.range(layerStart[k], layerStart[k + 1]);
+            if (layerStart[k + 1] - layerStart[k] >= PARALLEL_LAYER_SIZE) {
+                layer = layer.parallel();
+            }
+            layer.forEach(index -> relax(masks[index], m, n, costs, dp, parent));
+        }
+
+        // Close the tour back to vertex 0
+        int full = nbMasks - 1;
+        int last = -1;
+        bestCost = Double.MAX_VALUE;
+        for (int j = 0; j < m; j++) {
+            double cost = dp[full * m + j] + costs[(j + 1) * n];
+            if (dp[full * m + j] != Double.MAX_VALUE && cost < bestCost) {
+                bestCost = cost;
+                last = j;
+            }
+        }
+
+        // Follow the parents back to the start
+        int[] tour = new int[n + 1];
+        int mask = full;
+        for (int position = m; position >= 1 && last >= 0; position--) {
+            tour[position] = last + 1;
+            int previous = parent[mask * m + last];
+            mask &= ~(1 << last);
+            last = previous;
+        }
+        List<Integer> path = new ArrayList<>(n + 1);
+        for (int vertex : tour) {
+            path.add(vertex);
+        }
+        bestPath = path;
+    }
+
+    /**
+     * Builds a tour by always going to the nearest unvisited vertex.
+     */
+    private void nearestNeighbourTour(int n, double[] costs) {
+        boolean[] visited = new boolean[n];
+        List<Integer> path = new ArrayList<>(n + 1);
+        double cost = 0.0;
+        int last = 0;
+        visited[0] = true;
+        path.add(0);
+        for (int i = 1; i < n; i++) {
+            int next = -1;
+            for (int v = 1; v < n; v++) {
+                if (!visited[v] && (next < 0 || costs[last * n + v] < costs[last * n + next])) {
+                    next = v;
+                }
+            }
+            visited[next] = true;
+            path.add(next);
+            cost += costs[last * n + next];
+            last = next;
+        }
+        path.add(0);
+        bestCost = cost + costs[last * n];
+        bestPath = path;
+    }
+
+    /**
+     * Computes the entries of one subset from the entries of its subsets with
+     * one vertex less.
+     */
+    private static void relax(int mask, int m, int n, double[] costs, double[] dp, int[] parent) {
+        for (int j = 0; j < m; j++) {
+            if ((mask & (1 << j)) == 0) {
+                continue;
+            }
+            int previousMask = mask & ~(1 << j);
+            int base = previousMask * m;
+            double best = Double.MAX_VALUE;
+            int bestParent = -1;
+            for (int i = 0; i < m; i++) {
+                if ((previousMask & (1 << i)) == 0 || dp[base + i] == Double.MAX_VALUE) {
+                    continue;
+                }
+                double cost = dp[base + i] + costs[(i + 1) * n + j + 1];
+                if (cost < best) {
+                    best = cost;
+                    bestParent = i;
+                }
+            }
+            dp[mask * m + j] = best;
+            parent[mask * m + j] = bestParent;
+        }
+    }
+
+    /**
+     * Returns the best tour found, starting and ending at vertex 0.
+     *
+     * @return the best path as a {@code List<Integer>}
+     */
+    public List<Integer> getBestPath() {
+        return new ArrayList<>(bestPath);
+    }
+
+    /**
+     * Returns the cost of the best tour found.
+     *
+     * @return the best cost
+     */
+    public double getBestCost() {
+        return bestCost;
+    }
+
+    /**
+     * Checks whether the deadline was reached before the optimal tour was
+     * computed.
+     *
+     * @return {@code true} if the deadline was reached
+     */
+    public boolean getTimeExceeded() {
+        return timeExceeded;
+    }
+}
@@ -0,0 +1,493 @@
+package com.pld.agile.model.algorithm.lk;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import com.pld.agile.model.algorithm.Deadline;
+import com.pld.agile.model.graph.Graph;
+
+/**
+ * The {@code LinKernighan} class searches a short tour with an iterated
+ * Lin-Kernighan heuristic.
+ *
+ * <p>
+ * A Lin-Kernighan move is a chain of 2-opt moves sharing a fixed vertex
+ * {@code t1}: each step removes the edge leaving {@code t1} and an edge
+ * {@code (t3, t4)}, and adds {@code (t2, t4)} and the closing edge
+ * {@code (t1, t3)}, which the next step removes again. The vertex {@code t4}
+ * is taken from the candidate set of {@code t2}, its nearest neighbours, as
+ * long as the partial gain of the chain stays positive, and the chain is cut
+ * back to its best prefix. The first step tries several candidates, the deeper
+ * ones only the best. Once no chain improves the tour, a random double-bridge
+ * kick perturbs the best tour and the search starts again from the kicked
+ * vertices, until the time limit.
+ * </p>
+ *
+ * <p>
+ * The tour is an array of vertices with the position of each vertex, and
+ * prefix sums of the costs in both directions give the exact cost of a move on
+ * asymmetric costs in constant time. The random generator has a fixed seed, so
+ * the results are reproducible for a given number of kicks.
+ * </p>
+ */
+public class LinKernighan {
+    /**
+     * The number of nearest neighbours in the candidate set of a vertex.
+     */
+    private static final int NB_CANDIDATES = 10;
+
+    /**
+     * The number of candidates tried for the first step of a chain.
+     */
+    private static final int BREADTH = 5;
+
+    /**
+     * The largest number of steps of a chain.
+     */
+    private static final int MAX_DEPTH = 30;
+
+    /**
+     * The number of kicks per vertex after which the search stops, even before
+     * the time limit.
+     */
+    private static final int KICKS_PER_VERTEX = 50;
+
+    /**
+     * The smallest gain for a move to count as an improvement.
+     */
+    private static final double EPSILON = 1e-7;
+
+    private int n;
+    private double[] costs;
+    private int[][] candidates;
+    private int[] tour;
+    private int[] position;
+    private double[] forward;
+    private double[] backward;
+    private boolean[] dontLook;
+    private int[] queue;
+    private int queueHead;
+    private int queueSize;
+    private int[] touched;
+    private int touchedStamp = 0;
+    private int[] steps;
+    private final Random random = new Random(42);
+
+    private volatile List<Integer> bestPath = new ArrayList<>();
+    private volatile double bestCost = Double.MAX_VALUE;
+    private long nbKicks = 0;
+    private long nbProbes = 0;
+    private boolean timeExceeded = false;
+
+    /**
+     * Searches a short tour starting and ending at vertex 0.
+     *
+     * @param g         the complete graph
+     * @param timeLimit the time allowed, in milliseconds
+     */
+    public void solve(Graph g, long timeLimit) {
+        solve(g, Deadline.after(timeLimit));
+    }
+
+    /**
+     * Searches a short tour starting and ending at vertex 0 until the deadline.
+     * The best tour found so far can be read from another thread during the
+     * search. The search ends earlier once every kick has been tried.
+     *
+     * @param g        the complete graph
+     * @param deadline the deadline of the search
+     */
+    public void solve(Graph g, Deadline deadline) {
+        init(g);
+        timeExceeded = false;
+        if (n <= 3) {
+            bestPath = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                tour[i] = i;
+                bestPath.add(i);
+            }
+            bestPath.add(0);
+            update();
+            bestCost = tourCost();
+            return;
+        }
+        bestCost = Double.MAX_VALUE;
+        nbProbes = 0;
+
+        nearestNeighbourTour();
+        update();
+        for (int v = 0; v < n; v++) {
+            dontLook[v] = true;
+            activate(v);
+        }
+        optimize(deadline);
+        int[] best = tour.clone();
+        publish();
+
+        nbKicks = 0;
+        long maxKicks = n >= 8 ? (long) KICKS_PER_VERTEX * n : 0;
+        while (nbKicks < maxKicks && !deadline.isReached()) {
+            System.arraycopy(best, 0, tour, 0, n);
+            rotate(0);
+            doubleBridge();
+            optimize(deadline);
+            if (tourCost() < bestCost - EPSILON) {
+                System.arraycopy(tour, 0, best, 0, n);
+                publish();
+            }
+            nbKicks++;
+        }
+        if (nbKicks < maxKicks) {
+            timeExceeded = true;
+        }
+    }
+
+    /**
+     * Publishes the current tour as the best one, starting from vertex 0.
+     */
+    private void publish() {
+        rotate(0);
+        List<Integer> path = new ArrayList<>(n + 1);
+        for (int i = 0; i < n; i++) {
+            path.add(tour[i]);
+        }
+        path.add(0);
+        bestPath = path;
+        bestCost = tourCost();
+    }
+
+    /**
+     * Copies the costs and computes the candidate sets.
+     */
+    private void init(Graph g) {
+        n = g.getNbVertices();
+        costs = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                costs[i * n + j] = i == j ? 0.0 : g.cost(i, j);
+            }
+        }
+        int k = Math.min(NB_CANDIDATES, n - 1);
+        candidates = new int[n][];
+        Integer[] order = new Integer[n];
+        for (int v = 0; v < n; v++) {
+            for (int u = 0; u < n; u++) {
+                order[u] = u;
+            }
+            final int from = v;
+            Arrays.sort(order, (a, b) -> Double.compare(distance(from, a), distance(from, b)));
+            candidates[v] = new int[k];
+            int size = 0;
+            for (int i = 0; i < n && size < k; i++) {
+                if (order[i] != v) {
+                    candidates[v][size++] = order[i];
+                }
+            }
+        }
+        tour = new int[n];
+        position = new int[n];
+        forward = new double[n + 1];
+        backward = new double[n + 1];
+        dontLook = new boolean[n];
+        queue = new int[n];
+        touched = new int[n];
+        steps = new int[MAX_DEPTH];
+    }
+
+    private double cost(int u, int v) {
+        return costs[u * n + v];
+    }
+
+    private double distance(int u, int v) {
+        return Math.min(cost(u, v), cost(v, u));
+    }
+
+    /**
+     * Builds the initial tour by always going to the nearest unvisited vertex.
+     */
+    private void nearestNeighbourTour() {
+        boolean[] visited = new boolean[n];
+        tour[0] = 0;
+        visited[0] = true;
+        for (int i = 1; i < n; i++) {
+            int last = tour[i - 1];
+            int next = -1;
+            for (int v = 0; v < n; v++) {
+                if (!visited[v] && (next < 0 || cost(last, v) < cost(last, next))) {
+                    next = v;
+                }
+            }
+            tour[i] = next;
+            visited[next] = true;
+        }
+    }
+
+    /**
+     * Recomputes the positions and the prefix sums of the tour.
+     */
+    private void update() {
+        forward[0] = 0.0;
+        backward[0] = 0.0;
+        for (int i = 0; i < n; i++) {
+            position[tour[i]] = i;
+            int next = tour[(i + 1) % n];
+            forward[i + 1] = forward[i] + cost(tour[i], next);
+            backward[i + 1] = backward[i] + cost(next, tour[i]);
+        }
+    }
+
+    /**
+     * Rotates the tour so that a vertex comes first.
+     */
+    private void rotate(int vertex) {
+        int shift = 0;
+        while (tour[shift] != vertex) {
+            shift++;
+        }
+        if (shift != 0) {
+            int[] rotated = new int[n];
+            for (int i = 0; i < n; i++) {
+                rotated[i] = tour[(i + shift) % n];
+            }
+            System.arraycopy(rotated, 0, tour, 0, n);
+        }
+        update();
+    }
+
+    private double tourCost() {
+        return forward[n];
+    }
+
+    private void activate(int v) {
+        if (dontLook[v]) {
+            dontLook[v] = false;
+            queue[(queueHead + queueSize) % n] = v;
+            queueSize++;
+        }
+    }
+
+    /**
+     * Runs Lin-Kernighan moves from the active vertices until none improves the
+     * tour, or until the deadline.
+     */
+    private void optimize(Deadline deadline) {
+        while (queueSize > 0) {
+            if (deadline.probe(nbProbes++)) {
+                timeExceeded = true;
+                return;
+            }
+            int t1 = queue[queueHead];
+            queueHead = (queueHead + 1) % n;
+            queueSize--;
+            dontLook[t1] = true;
+            if (improveFrom(t1)) {
+                activate(t1);
+            }
+        }
+    }
+
+    /**
+     * Tries the chains of 2-opt moves starting with the edge leaving a vertex,
+     * and keeps the first improving one.
+     *
+     * @param t1 the fixed vertex of the chains
+     * @return {@code true} if the tour was improved
+     */
+    private boolean improveFrom(int t1) {
+        rotate(t1);
+        int t2 = tour[1];
+        double removed = cost(t1, t2);
+
+        // The candidates of the first step, by decreasing partial gain
+        int[] firstSteps = new int[BREADTH];
+        double[] firstGains = new double[BREADTH];
+        int nbFirstSteps = 0;
+        for (int t4 : candidates[t2]) {
+            double gain = removed - cost(t2, t4);
+            if (position[t4] < 3 || gain <= 0) {
+                continue;
+            }
+            int i;
+            if (nbFirstSteps < BREADTH) {
+                i = nbFirstSteps++;
+            } else if (gain > firstGains[BREADTH - 1]) {
+                i = BREADTH - 1;
+            } else {
+                continue;
+            }
+            while (i > 0 && firstGains[i - 1] < gain) {
+                firstSteps[i] = firstSteps[i - 1];
+                firstGains[i] = firstGains[i - 1];
+                i--;
+            }
+            firstSteps[i] = t4;
+            firstGains[i] = gain;
+        }
+
+        for (int f = 0; f < nbFirstSteps; f++) {
+            touchedStamp++;
+            int t4 = firstSteps[f];
+            int q = position[t4];
+            int t3 = tour[q - 1];
+            double gain = firstGains[f] + cost(t3, t4);
+            double total = step(q);
+            steps[0] = q;
+            int nbSteps = 1;
+            double bestTotal = total;
+            int bestSteps = 1;
+            touched[t4] = touchedStamp;
+
+            // Deeper steps take the best candidate only
+            while (nbSteps < MAX_DEPTH) {
+                t2 = tour[1];
+                int next = -1;
+                double nextGain = 0.0;
+                for (int candidate : candidates[t2]) {
+                    if (position[candidate] < 3 || touched[candidate] == touchedStamp) {
+                        continue;
+                    }
+                    double g = gain - cost(t2, candidate);
+                    if (g > nextGain) {
+                        nextGain = g;
+                        next = candidate;
+                    }
+                }
+                if (next < 0) {
+                    break;
+                }
+                touched[next] = touchedStamp;
+                q = position[next];
+                gain = nextGain + cost(tour[q - 1], next);
+                total += step(q);
+                steps[nbSteps++] = q;
+                if (total < bestTotal) {
+                    bestTotal = total;
+                    bestSteps = nbSteps;
+                }
+            }
+
+            // Cut the chain back to its best prefix
+            while (nbSteps > bestSteps) {
+                reverse(1, steps[--nbSteps] - 1);
+            }
+            if (bestTotal < -EPSILON) {
+                update();
+                for (int i = 0; i < bestSteps; i++) {
+                    int p = steps[i];
+                    activate(tour[p - 1]);
+                    activate(tour[p]);
+                }
+                activate(tour[1]);
+                activate(tour[n - 1]);
+                return true;
+            }
+            while (nbSteps > 0) {
+                reverse(1, steps[--nbSteps] - 1);
+            }
+            update();
+        }
+        return false;
+    }
+
+    /**
+     * Applies one step of a chain: reverses the tour between positions 1 and
+     * {@code q - 1}, so that {@code t1} is followed by {@code t3} and {@code t2}
+     * by {@code t4}.
+     *
+     * @param q the position of {@code t4}
+     * @return the change of the cost of the tour
+     */
+    private double step(int q) {
+        int t1 = tour[0];
+        int t2 = tour[1];
+        int t3 = tour[q - 1];
+        int t4 = tour[q];
+        double delta = cost(t1, t3) + cost(t2, t4) - cost(t1, t2) - cost(t3, t4)
+                + (backward[q - 1] - backward[1]) - (forward[q - 1] - forward[1]);
+        reverse(1, q - 1);
+        update();
+        return delta;
+    }
+
+    /**
+     * Reverses the tour between two positions, both included.
+     */
+    private void reverse(int from, int to) {
+        for (int lo = from, hi = to; lo < hi; lo++, hi--) {
+            int tmp = tour[lo];
+            tour[lo] = tour[hi];
+            tour[hi] = tmp;
+        }
+    }
+
+    /**
+     * Perturbs the tour with a random double-bridge move, which exchanges two
+     * consecutive sections and cannot be undone by a single chain.
+     */
+    private void doubleBridge() {
+        int a = 1 + random.nextInt(n - 3);
+        int b = a + 1 + random.nextInt(n - a - 2);
+        int c = b + 1 + random.nextInt(n - b - 1);
+        int[] kicked = new int[n];
+        int size = 0;
+        for (int i = 0; i < a; i++) {
+            kicked[size++] = tour[i];
+        }
+        for (int i = b; i < c; i++) {
+            kicked[size++] = tour[i];
+        }
+        for (int i = a; i < b; i++) {
+            kicked[size++] = tour[i];
+        }
+        for (int i = c; i < n; i++) {
+            kicked[size++] = tour[i];
+        }
+        System.arraycopy(kicked, 0, tour, 0, n);
+        update();
+        int[] ends = {a - 1, a, b - 1, b, c - 1, c % n};
+        for (int p : ends) {
+            activate(tour[p]);
+        }
+        activate(tour[(c + 1) % n]);
+        activate(tour[(a + 1) % n]);
+    }
+
+    /**
+     * Returns the best tour found, starting and ending at vertex 0.
+     *
+     * @return the best path as a {@code List<Integer>}
+     */
+    public List<Integer> getBestPath() {
+        return new ArrayList<>(bestPath);
+    }
+
+    /**
+     * Returns the cost of the best tour found.
+     *
+     * @return the best cost
+     */
+    public double getBestCost() {
+        return bestCost;
+    }
+
+    /**
+     * Indicates whether the deadline ended the last search before every kick
+     * was tried and the last tour was locally optimal.
+     *
+     * @return {@code true} if the deadline stopped the search
+     */
+    public boolean getTimeExceeded() {
+        return timeExceeded;
+    }
+
+    /**
+     * Returns the number of double-bridge kicks of the last search.
+     *
+     * @return the number of kicks
+     */
+    public long getNbKicks() {
+        return nbKicks;
+    }
+}
@@ -0,0 +1,415 @@
+package com.pld.agile.model.algorithm.localsearch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.pld.agile.model.algorithm.Deadline;
+import com.pld.agile.model.graph.Graph;
+
+/**
+ * The {@code LocalSearch} class improves a tour with 2-opt, Or-opt and
+ * relocate moves until no move improves it or its time slice is spent.
+ *
+ * <p>
+ * The moves are:
+ * </p>
+ * <ul>
+ * <li>2-opt: reverse a section of the tour;</li>
+ * <li>relocate: move one vertex elsewhere in the tour;</li>
+ * <li>Or-opt: move a section of two or three vertices elsewhere, possibly
+ * reversed.</li>
+ * </ul>
+ *
+ * <p>
+ * Only the moves creating an edge between a vertex and one of its nearest
+ * neighbours are tried, and a vertex whose moves all failed gets a don't-look
+ * bit, cleared when one of its tour neighbours changes. The costs of the graph
+ * can be asymmetric: prefix sums of the costs along the tour in both directions
+ * give the cost of a reversed section in constant time. Vertex 0 stays the first
+ * vertex of the tour.
+ * </p>
+ */
+public class LocalSearch {
+    /**
+     * The number of nearest neighbours of each vertex the moves are tried with.
+     */
+    private static final int NB_NEIGHBOURS = 8;
+
+    /**
+     * The longest section moved by Or-opt.
+     */
+    private static final int MAX_SEGMENT = 3;
+
+    /**
+     * The smallest gain for a move to count as an improvement, to avoid cycling
+     * on rounding errors.
+     */
+    private static final double EPSILON = 1e-7;
+
+    private final int n;
+    private final double[] costs;
+    private final int[][] neighbours;
+
+    private final int[] tour;
+    private final int[] position;
+    private final double[] forward;
+    private final double[] backward;
+    private final boolean[] dontLook;
+    private final int[] queue;
+    private int queueHead;
+    private int queueSize;
+    private long nbMoves = 0;
+
+    /**
+     * Creates a local search on a complete graph, computing the neighbour lists.
+     *
+     * @param g the complete graph
+     */
+    public LocalSearch(Graph g) {
+        n = g.getNbVertices();
+        costs = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                costs[i * n + j] = i == j ? 0.0 : g.cost(i, j);
+            }
+        }
+        neighbours = new int[n][];
+        for (int v = 0; v < n; v++) {
+            neighbours[v] = nearest(v, Math.min(NB_NEIGHBOURS, n - 1));
+        }
+        tour = new int[n];
+        position = new int[n];
+        forward = new double[n + 1];
+        backward = new double[n + 1];
+        dontLook = new boolean[n];
+        queue = new int[n];
+    }
+
+    /**
+     * Returns the {@code k} vertices closest to a vertex, in both directions.
+     */
+    private int[] nearest(int v, int k) {
+        int[] result = new int[k];
+        int size = 0;
+        for (int u = 0; u < n; u++) {
+            if (u == v) {
+                continue;
+            }
+            double d = distance(v, u);
+            if (size == k && d >= distance(v, result[k - 1])) {
+                continue;
+            }
+            int i = size == k ? k - 1 : size++;
+            while (i > 0 && distance(v, result[i - 1]) > d) {
+                result[i] = result[i - 1];
+                i--;
+            }
+            result[i] = u;
+        }
+        return result;
+    }
+
+    private double distance(int u, int v) {
+        return Math.min(cost(u, v), cost(v, u));
+    }
+
+    private double cost(int u, int v) {
+        return costs[u * n + v];
+    }
+
+    /**
+     * Improves a tour.
+     *
+     * @param path      the tour, starting and ending at vertex 0
+     * @param timeSlice the time allowed, in milliseconds
+     * @return the improved tour, starting and ending at vertex 0
+     */
+    public List<Integer> improve(List<Integer> path, long timeSlice) {
+        return improve(path, Deadline.after(timeSlice));
+    }
+
+    /**
+     * Improves a tour until no move improves it or the deadline is reached.
+     *
+     * @param path     the tour, starting and ending at vertex 0
+     * @param deadline the deadline of the search
+     * @return the improved tour, starting and ending at vertex 0
+     */
+    public List<Integer> improve(List<Integer> path, Deadline deadline) {
+        return improve(path, null, deadline);
+    }
+
+    /**
+     * Repairs a tour after a local edit: only the given vertices and their tour
+     * neighbours start active, so the search stays around the edit unless the
+     * moves found spread further.
+     *
+     * @param path     the tour, starting and ending at vertex 0
+     * @param changed  the vertices next to the edit
+     * @param deadline the deadline of the search
+     * @return the improved tour, starting and ending at vertex 0
+     */
+    public List<Integer> repair(List<Integer> path, int[] changed, Deadline deadline) {
+        return improve(path, changed, deadline);
+    }
+
+    /**
+     * Runs the search from the given active vertices, or from every vertex if
+     * there are none.
+     */
+    private List<Integer> improve(List<Integer> path, int[] changed, Deadline deadline) {
+        if (n < 4 || path.size() != n + 1) {
+            return new ArrayList<>(path);
+        }
+        long nbProbes = 0;
+        for (int i = 0; i < n; i++) {
+            tour[i] = path.get(i);
+        }
+        update();
+
+        queueHead = 0;
+        queueSize = 0;
+        for (int i = 0; i < n; i++) {
+            dontLook[i] = true;
+        }
+        if (changed == null) {
+            // Every vertex starts active
+            for (int i = 0; i < n; i++) {
+                activate(tour[i]);
+            }
+        } else {
+            for (int v : changed) {
+                activateAround(v);
+            }
+        }
+
+        while (queueSize > 0 && !deadline.probe(nbProbes++)) {
+            int v = queue[queueHead];
+            queueHead = (queueHead + 1) % n;
+            queueSize--;
+            dontLook[v] = true;
+            if (twoOpt(v) || relocate(v)) {
+                nbMoves++;
+                activate(v);
+            }
+        }
+
+        List<Integer> result = new ArrayList<>(n + 1);
+        for (int i = 0; i < n; i++) {
+            result.add(tour[i]);
+        }
+        result.add(tour[0]);
+        return result;
+    }
+
+    /**
+     * Clears the don't-look bit of a vertex and queues it.
+     */
+    private void activate(int v) {
+        if (dontLook[v]) {
+            dontLook[v] = false;
+            queue[(queueHead + queueSize) % n] = v;
+            queueSize++;
+        }
+    }
+
+    /**
+     * Activates a vertex and its neighbours in the tour.
+     */
+    private void activateAround(int v) {
+        activate(v);
+        activate(tour[(position[v] + 1) % n]);
+        activate(tour[(position[v] + n - 1) % n]);
+    }
+
+    /**
+     * Recomputes the positions and the prefix sums after a move.
+     */
+    private void update() {
+        forward[0] = 0.0;
+        backward[0] = 0.0;
+        for (int i = 0; i < n; i++) {
+            position[tour[i]] = i;
+            int next = tour[(i + 1) % n];
+            forward[i + 1] = forward[i] + cost(tour[i], next);
+            backward[i + 1] = backward[i] + cost(next, tour[i]);
+        }
+    }
+
+    /**
+     * Returns the cost of the section of the tour between two positions, in the
+     * order of the tour.
+     */
+    private double sectionCost(int from, int to) {
+        return forward[to] - forward[from];
+    }
+
+    /**
+     * Returns the cost of the section of the tour between two positions, walked
+     * backwards.
+     */
+    private double reversedSectionCost(int from, int to) {
+        return backward[to] - backward[from];
+    }
+
+    /**
+     * Tries the 2-opt moves creating an edge between a vertex and one of its
+     * neighbours, and applies the first improving one.
+     *
+     * @param v the vertex
+     * @return {@code true} if the tour was improved
+     */
+    private boolean twoOpt(int v) {
+        for (int u : neighbours[v]) {
+            int pv = position[v];
+            int pu = position[u];
+            // The section reversed is between positions i + 1 and j, which never
+            // contains position 0
+            int i = Math.min(pv, pu);
+            int j = Math.max(pv, pu);
+            if (tryTwoOpt(i, j) || (i > 0 && tryTwoOpt(i - 1, j - 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reverses the section between positions {@code i + 1} and {@code j} if that
+     * shortens the tour.
+     */
+    private boolean tryTwoOpt(int i, int j) {
+        if (j - i < 2) {
+            return false;
+        }
+        int a = tour[i];
+        int b = tour[i + 1];
+        int c = tour[j];
+        int d = tour[(j + 1) % n];
+        double delta = cost(a, c) + cost(b, d) - cost(a, b) - cost(c, d)
+                + reversedSectionCost(i + 1, j) - sectionCost(i + 1, j);
+        if (delta > -EPSILON) {
+            return false;
+        }
+        for (int lo = i + 1, hi = j; lo < hi; lo++, hi--) {
+            int tmp = tour[lo];
+            tour[lo] = tour[hi];
+            tour[hi] = tmp;
+        }
+        update();
+        activateAround(a);
+        activateAround(b);
+        activateAround(c);
+        activateAround(d);
+        return true;
+    }
+
+    /**
+     * Tries to move the sections of one to three vertices starting at a vertex
+     * next to one of its neighbours, forwards or reversed, and applies the first
+     * improving move.
+     *
+     * @param v the vertex
+     * @return {@code true} if the tour was improved
+     */
+    private boolean relocate(int v) {
+        int start = position[v];
+        if (start == 0) {
+            return false;
+        }
+        for (int length = 1; length <= MAX_SEGMENT && start + length - 1 < n; length++) {
+            int end = start + length - 1;
+            int first = tour[start];
+            int last = tour[end];
+            int previous = tour[start - 1];
+            int next = tour[(end + 1) % n];
+            double removal = cost(previous, first) + cost(last, next) - cost(previous, next);
+            double internal = sectionCost(start, end);
+            double reversedInternal = reversedSectionCost(start, end);
+
+            for (int u : neighbours[v]) {
+                int pu = position[u];
+                if (pu >= start - 1 && pu <= end) {
+                    continue;
+                }
+                // Insert after u, the section starting with v
+                int w = tour[(pu + 1) % n];
+                double delta = cost(u, first) + cost(last, w) - cost(u, w) - removal;
+                if (delta < -EPSILON) {
+                    move(start, length, pu, false);
+                    return true;
+                }
+                // Insert before u, the section reversed so that it ends with v
+                int t = tour[(pu + n - 1) % n];
+                if ((pu + n - 1) % n != end) {
+                    delta = cost(t, last) + cost(first, u) - cost(t, u) - removal + reversedInternal - internal;
+                    if (delta < -EPSILON) {
+                        move(start, length, (pu + n - 1) % n, true);
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves a section of the tour after the vertex at a given position.
+     *
+     * @param start    the position of the first vertex of the section
+     * @param length   the number of vertices of the section
+     * @param after    the position of the vertex the section is inserted after,
+     *                 outside of the section
+     * @param reversed {@code true} to insert the section reversed
+     */
+    private void move(int start, int length, int after, boolean reversed) {
+        int[] section = new int[length];
+        for (int k = 0; k < length; k++) {
+            section[k] = tour[start + (reversed ? length - 1 - k : k)];
+        }
+        int anchor = tour[after];
+        int previous = tour[start - 1];
+        int[] rebuilt = new int[n];
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            if (i >= start && i < start + length) {
+                continue;
+            }
+            rebuilt[size++] = tour[i];
+            if (tour[i] == anchor) {
+                System.arraycopy(section, 0, rebuilt, size, length);
+                size += length;
+            }
+        }
+        System.arraycopy(rebuilt, 0, tour, 0, n);
+        update();
+        activateAround(previous);
+        activateAround(anchor);
+        activateAround(section[0]);
+        activateAround(section[length - 1]);
+    }
+
+    /**
+     * Computes the cost of a tour on the graph of this local search.
+     *
+     * @param path the tour, starting and ending at vertex 0
+     * @return the total cost of the tour
+     */
+    public double cost(List<Integer> path) {
+        double total = 0.0;
+        for (int i = 0; i < path.size() - 1; i++) {
+            total += cost(path.get(i), path.get(i + 1));
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of improving moves applied since this local search was
+     * created.
+     *
+     * @return the number of moves
+     */
+    public long getNbMoves() {
+        return nbMoves;
+    }
+}
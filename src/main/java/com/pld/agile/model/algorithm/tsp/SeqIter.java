@@ -4,31 +4,42 @@ package com.pld.agile.model.algorithm.tsp;
 import com.pld.agile.model.graph.Graph;
 
 import java.util.Collection;
-import java.util.Iterator;
-
-import java.util.Collection;
-import java.util.Iterator;
+import java.util.PrimitiveIterator;
 
 /**
  * The {@code SeqIter} class implements an {@code Iterator} for traversing the set of
  * unvisited vertices that are successors of a given current vertex in a graph.
- * The vertices are traversed in the same order as they appear in the unvisited set.
+ * The vertices are traversed in the reverse order of the unvisited set.
+ *
+ * <p>
+ * The iterator is primitive, and can be reset to other vertices without
+ * allocating: {@link TemplateTSP} keeps one per depth of its search.
+ * </p>
  */
-public class SeqIter implements Iterator<Integer> {
-	private Integer[] candidates;
+public class SeqIter implements PrimitiveIterator.OfInt {
+	private int[] candidates;
 	private int nbCandidates;
 
+	/**
+	 * Creates an empty iterator, to be {@link #reset(int[], int, int, Graph) reset}
+	 * to the successors of a vertex.
+	 *
+	 * @param capacity the largest number of successors
+	 */
+	public SeqIter(int capacity) {
+		this.candidates = new int[capacity];
+	}
+
 	/**
 	 * Creates an iterator to traverse the set of vertices in {@code unvisited}
 	 * that are successors of {@code currentVertex} in the graph {@code g}.
-	 * Vertices are traversed in the same order as in {@code unvisited}.
 	 *
 	 * @param unvisited      the set of unvisited vertices
 	 * @param currentVertex  the current vertex from which successors are considered
 	 * @param g              the {@code Graph} object representing the graph
 	 */
 	public SeqIter(Collection<Integer> unvisited, int currentVertex, Graph g) {
-		this.candidates = new Integer[unvisited.size()];
+		this.candidates = new int[unvisited.size()];
 		for (Integer s : unvisited) {
 			if (g.isArc(currentVertex, s)) {
 				candidates[nbCandidates++] = s;
@@ -36,6 +47,24 @@ public class SeqIter implements Iterator<Integer> {
 		}
 	}
 
+	/**
+	 * Restarts the iterator on the vertices of {@code unvisited} that are
+	 * successors of {@code currentVertex} in the graph {@code g}.
+	 *
+	 * @param unvisited     the unvisited vertices, in the first {@code nbUnvisited} entries
+	 * @param nbUnvisited   the number of unvisited vertices, at most the capacity
+	 * @param currentVertex the current vertex from which successors are considered
+	 * @param g             the {@code Graph} object representing the graph
+	 */
+	public void reset(int[] unvisited, int nbUnvisited, int currentVertex, Graph g) {
+		nbCandidates = 0;
+		for (int i = 0; i < nbUnvisited; i++) {
+			if (g.isArc(currentVertex, unvisited[i])) {
+				candidates[nbCandidates++] = unvisited[i];
+			}
+		}
+	}
+
 	/**
 	 * Checks if there are more candidates (successors) to iterate over.
 	 *
@@ -49,10 +78,10 @@ public class SeqIter implements Iterator<Integer> {
 	/**
 	 * Returns the next candidate (successor) in the iteration.
 	 *
-	 * @return the next successor vertex as an {@code Integer}
+	 * @return the next successor vertex
 	 */
 	@Override
-	public Integer next() {
+	public int nextInt() {
 		nbCandidates--;
 		return candidates[nbCandidates];
 	}
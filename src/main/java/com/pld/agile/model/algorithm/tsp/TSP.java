@@ -1,5 +1,6 @@
 package com.pld.agile.model.algorithm.tsp;
 
+import com.pld.agile.model.algorithm.Deadline;
 import com.pld.agile.model.graph.Graph;
 
 public interface TSP {
@@ -12,6 +13,19 @@ public interface TSP {
 	 * @param g
 	 */
 	public void searchSolution(int timeLimit, Graph g);
+
+	/**
+	 * Search for a shortest cost hamiltonian circuit in <code>g</code> until <code>deadline</code>
+	 * (returns the best found tour whenever the deadline is reached)
+	 * @param deadline
+	 * @param g
+	 */
+	public void searchSolution(Deadline deadline, Graph g);
+
+	/**
+	 * @return true if the last search was stopped by its deadline
+	 */
+	public boolean getTimeExceeded();
 	
 	/**
 	 * @param i
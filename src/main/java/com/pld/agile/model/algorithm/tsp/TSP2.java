@@ -0,0 +1,61 @@
+package com.pld.agile.model.algorithm.tsp;
+
+import com.pld.agile.model.algorithm.Deadline;
+import com.pld.agile.model.algorithm.bound.LowerBound;
+import com.pld.agile.model.graph.Graph;
+
+/**
+ * The {@code TSP2} class extends the {@code TemplateTSP} class and prunes the
+ * partial tours with a pluggable {@link LowerBound}, such as the cheapest
+ * outgoing edges or a spanning tree of the unvisited vertices.
+ */
+public class TSP2 extends TemplateTSP {
+	private final LowerBound lowerBound;
+
+	/**
+	 * Creates a solver pruning with the given lower bound.
+	 *
+	 * @param lowerBound the lower bound of the cost of the completion of a tour
+	 */
+	public TSP2(LowerBound lowerBound) {
+		this.lowerBound = lowerBound;
+	}
+
+	@Override
+	public void searchSolution(Deadline deadline, Graph g) {
+		lowerBound.init(g);
+		super.searchSolution(deadline, g);
+	}
+
+	/**
+	 * Returns the lower bound.
+	 *
+	 * @param currentVertex the current vertex in the TSP tour
+	 * @param unvisited     the unvisited vertices, in the first {@code nbUnvisited} entries
+	 * @param nbUnvisited   the number of unvisited vertices
+	 * @return a lower bound of the remaining cost
+	 */
+	@Override
+	protected double bound(int currentVertex, int[] unvisited, int nbUnvisited) {
+		return lowerBound.evaluate(currentVertex, unvisited, nbUnvisited);
+	}
+
+	/**
+	 * Asks the lower bound whether the partial tour can be discarded, so that it
+	 * counts the partial tours it prunes.
+	 */
+	@Override
+	protected boolean prunes(int currentVertex, int[] unvisited, int nbUnvisited, double currentCost,
+			double bestCost) {
+		return lowerBound.prunes(currentVertex, unvisited, nbUnvisited, currentCost, bestCost);
+	}
+
+	/**
+	 * Returns the lower bound used to prune the partial tours.
+	 *
+	 * @return the {@code LowerBound}
+	 */
+	public LowerBound getLowerBound() {
+		return lowerBound;
+	}
+}
@@ -1,24 +1,41 @@
 package com.pld.agile.model.algorithm.tsp;
 
+import com.pld.agile.model.algorithm.Deadline;
 import com.pld.agile.model.graph.Graph;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Iterator;
+import java.util.PrimitiveIterator;
 
 
 /**
  * The {@code TemplateTSP} class provides an abstract template for solving the
  * Traveling Salesman Problem (TSP) using a branch and bound algorithm. Subclasses
  * of {@code TemplateTSP} must define specific methods for calculating lower bounds
- * and determining the traversal order of vertices.
+ * and may change the traversal order of vertices.
+ *
+ * <p>
+ * The search state is held in primitive arrays: the visited vertices in order,
+ * and the unvisited ones, from which a vertex is removed by swapping it with the
+ * last one. The hooks receive the unvisited vertices as the first
+ * {@code nbUnvisited} entries of an array they must not modify, and the
+ * iterators are reused from one node of the search tree to the next at the same
+ * depth, so the search allocates nothing but its improved solutions.
+ * </p>
  */
 public abstract class TemplateTSP implements TSP {
-	private Integer[] bestSol;
+	private volatile Integer[] bestSol;
 	protected Graph g;
-	private Double bestSolCost;
-	private int timeLimit;
-	private long startTime;
+	private volatile double bestSolCost;
+	private Deadline deadline;
+	private long nbCalls;
+	private boolean timeExceeded;
+
+	// Search state
+	private int[] visited;
+	private int nbVisited;
+	private int[] unvisited;
+	private int nbUnvisited;
+	private int[] position; // Position of each unvisited vertex in unvisited
+	private SeqIter[] iterators; // Reused by the default iterator, one per depth
 
 	/**
 	 * Starts the search for the best solution to the TSP using a branch and bound algorithm.
@@ -31,17 +48,37 @@ public abstract class TemplateTSP implements TSP {
 	public void searchSolution(int timeLimit, Graph g) {
 		if (timeLimit <= 0)
 			return;
-		startTime = System.currentTimeMillis();
-		this.timeLimit = timeLimit;
+		searchSolution(Deadline.after(timeLimit), g);
+	}
+
+	/**
+	 * Starts the search for the best solution to the TSP, until the search tree is
+	 * explored or the deadline is reached. The best solution found so far can be
+	 * read from another thread during the search.
+	 *
+	 * @param deadline the deadline of the search
+	 * @param g        the graph representing the TSP problem
+	 */
+	public void searchSolution(Deadline deadline, Graph g) {
+		this.deadline = deadline;
+		nbCalls = 0;
+		timeExceeded = false;
 		this.g = g;
-		bestSol = new Integer[g.getNbVertices()];
-		Collection<Integer> unvisited = new ArrayList<>(g.getNbVertices() - 1);
-		for (int i = 1; i < g.getNbVertices(); i++)
-			unvisited.add(i);
-		Collection<Integer> visited = new ArrayList<>(g.getNbVertices());
-		visited.add(0); // The first visited vertex is 0
+		int n = g.getNbVertices();
+		bestSol = new Integer[n];
+		visited = new int[n];
+		unvisited = new int[n];
+		position = new int[n];
+		iterators = new SeqIter[n];
+		nbUnvisited = 0;
+		for (int i = 1; i < n; i++) {
+			position[i] = nbUnvisited;
+			unvisited[nbUnvisited++] = i;
+		}
+		visited[0] = 0; // The first visited vertex is 0
+		nbVisited = 1;
 		bestSolCost = Double.MAX_VALUE;
-		branchAndBound(0, unvisited, visited, 0.0);
+		branchAndBound(0, 0.0);
 	}
 
 	/**
@@ -51,11 +88,22 @@ public abstract class TemplateTSP implements TSP {
 	 * @return the vertex at index {@code i}, or -1 if no valid solution exists
 	 */
 	public Integer getSolution(int i) {
-		if (g != null && i >= 0 && i < g.getNbVertices())
-			return bestSol[i];
+		Integer[] solution = bestSol;
+		if (g != null && i >= 0 && i < solution.length)
+			return solution[i];
 		return -1;
 	}
 
+	/**
+	 * Checks whether the search stopped at its deadline before exploring the whole
+	 * search tree.
+	 *
+	 * @return {@code true} if the deadline was reached
+	 */
+	public boolean getTimeExceeded() {
+		return timeExceeded;
+	}
+
 	/**
 	 * Returns the cost of the best solution found.
 	 *
@@ -73,23 +121,57 @@ public abstract class TemplateTSP implements TSP {
 	 * through the remaining unvisited vertices and back to the starting vertex.
 	 *
 	 * @param currentVertex the current vertex
-	 * @param unvisited     the set of unvisited vertices
+	 * @param unvisited     the unvisited vertices, in the first {@code nbUnvisited} entries
+	 * @param nbUnvisited   the number of unvisited vertices
 	 * @return a lower bound on the remaining cost of the tour
 	 */
-	protected abstract int bound(Integer currentVertex, Collection<Integer> unvisited);
+	protected abstract double bound(int currentVertex, int[] unvisited, int nbUnvisited);
+
+	/**
+	 * Checks whether the partial tour can be discarded, because no completion of it
+	 * can beat the best solution. By default, the partial tour is discarded when its
+	 * cost plus {@link #bound(int, int[], int)} reaches the best cost.
+	 *
+	 * @param currentVertex the current vertex
+	 * @param unvisited     the unvisited vertices, in the first {@code nbUnvisited} entries
+	 * @param nbUnvisited   the number of unvisited vertices
+	 * @param currentCost   the cost of the partial tour
+	 * @param bestCost      the cost of the best solution found so far
+	 * @return {@code true} if the partial tour can be discarded
+	 */
+	protected boolean prunes(int currentVertex, int[] unvisited, int nbUnvisited, double currentCost,
+			double bestCost) {
+		return currentCost + bound(currentVertex, unvisited, nbUnvisited) >= bestCost;
+	}
 
 	/**
-	 * Method that must be implemented in subclasses of {@code TemplateTSP}.
 	 * Provides an iterator for traversing the unvisited vertices that are successors
 	 * of the current vertex in the graph. The iterator determines the order in which
 	 * these vertices are explored during the branch and bound search.
 	 *
+	 * <p>
+	 * The iterator is used up before the search returns to the same depth, so it
+	 * can be reused for every node at that depth. By default, a {@link SeqIter} per
+	 * depth is reset to the successors of the current vertex.
+	 * </p>
+	 *
 	 * @param currentVertex the current vertex
-	 * @param unvisited     the set of unvisited vertices
+	 * @param unvisited     the unvisited vertices, in the first {@code nbUnvisited} entries
+	 * @param nbUnvisited   the number of unvisited vertices
 	 * @param g             the graph representing the problem
+	 * @param depth         the number of edges of the partial tour
 	 * @return an iterator for the unvisited successors of {@code currentVertex}
 	 */
-	protected abstract Iterator<Integer> iterator(Integer currentVertex, Collection<Integer> unvisited, Graph g);
+	protected PrimitiveIterator.OfInt iterator(int currentVertex, int[] unvisited, int nbUnvisited, Graph g,
+			int depth) {
+		SeqIter it = iterators[depth];
+		if (it == null) {
+			it = new SeqIter(g.getNbVertices());
+			iterators[depth] = it;
+		}
+		it.reset(unvisited, nbUnvisited, currentVertex, g);
+		return it;
+	}
 
 	/**
 	 * The core branch and bound algorithm for solving the TSP.
@@ -97,31 +179,44 @@ public abstract class TemplateTSP implements TSP {
 	 * and pruning paths that exceed the current best solution using lower bounds.
 	 *
 	 * @param currentVertex the last visited vertex
-	 * @param unvisited     the set of vertices that have not yet been visited
-	 * @param visited       the sequence of vertices that have already been visited
-	 * @param currentCost   the current cost of the path corresponding to {@code visited}
+	 * @param currentCost   the current cost of the path of the visited vertices
 	 */
-	private void branchAndBound(int currentVertex, Collection<Integer> unvisited,
-								Collection<Integer> visited, Double currentCost) {
-		if (System.currentTimeMillis() - startTime > timeLimit)
+	private void branchAndBound(int currentVertex, double currentCost) {
+		if (timeExceeded || deadline.probe(nbCalls++)) {
+			timeExceeded = true;
 			return;
-		if (unvisited.isEmpty()) {
+		}
+		if (nbUnvisited == 0) {
 			if (g.isArc(currentVertex, 0)) {
-				if (currentCost + g.getCost(currentVertex, 0) < bestSolCost) {
-					visited.toArray(bestSol);
-					bestSolCost = currentCost + g.getCost(currentVertex, 0);
+				double cost = currentCost + g.cost(currentVertex, 0);
+				if (cost < bestSolCost) {
+					// A new array, so that the solution can be read during the search
+					Integer[] solution = new Integer[nbVisited];
+					for (int i = 0; i < nbVisited; i++)
+						solution[i] = visited[i];
+					bestSol = solution;
+					bestSolCost = cost;
 				}
 			}
-		} else if (currentCost + bound(currentVertex, unvisited) < bestSolCost) {
-			Iterator<Integer> it = iterator(currentVertex, unvisited, g);
+		} else if (!prunes(currentVertex, unvisited, nbUnvisited, currentCost, bestSolCost)) {
+			PrimitiveIterator.OfInt it = iterator(currentVertex, unvisited, nbUnvisited, g, nbVisited - 1);
 			while (it.hasNext()) {
-				Integer nextVertex = it.next();
-				visited.add(nextVertex);
-				unvisited.remove(nextVertex);
-				branchAndBound(nextVertex, unvisited, visited,
-						currentCost + g.getCost(currentVertex, nextVertex));
-				visited.remove(nextVertex);
-				unvisited.add(nextVertex);
+				int nextVertex = it.nextInt();
+				int i = position[nextVertex];
+				int moved = unvisited[nbUnvisited - 1];
+				visited[nbVisited++] = nextVertex;
+				unvisited[i] = moved;
+				position[moved] = i;
+				unvisited[--nbUnvisited] = nextVertex;
+				position[nextVertex] = nbUnvisited;
+
+				branchAndBound(nextVertex, currentCost + g.cost(currentVertex, nextVertex));
+
+				unvisited[nbUnvisited++] = moved;
+				position[moved] = nbUnvisited - 1;
+				unvisited[i] = nextVertex;
+				position[nextVertex] = i;
+				nbVisited--;
 			}
 		}
 	}
@@ -9,6 +9,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.management.InstanceNotFoundException;
 import javax.xml.parsers.DocumentBuilder;
@@ -21,9 +25,10 @@ import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
 import com.pld.agile.model.Solver;
+import com.pld.agile.model.SolverCache;
+import com.pld.agile.model.algorithm.BalancedClustering;
 import com.pld.agile.model.algorithm.KMeansClustering;
 import com.pld.agile.model.graph.Plan;
-import com.pld.agile.model.strategy.BnBStrategy;
 
 /**
  * The {@code Round} class represents a round of deliveries managed by a fleet
@@ -46,6 +51,17 @@ public class Round {
      */
     private static final double COURIER_SPEED = 15.0; // km/h
 
+    /**
+     * The bounded pool solving the tours of the couriers concurrently, with one
+     * thread per available processor.
+     */
+    private static final ExecutorService SOLVER_POOL = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, "round-solver");
+                thread.setDaemon(true);
+                return thread;
+            });
+
     /**
      * The plan containing intersections and sections.
      */
@@ -72,7 +88,13 @@ public class Round {
     private Intersection warehouse;
 
     /**
-     * The K-Means clustering instance for grouping delivery points.
+     * The clustering grouping delivery points on road distances.
+     */
+    private BalancedClustering clustering = new BalancedClustering();
+
+    /**
+     * The K-Means clustering instance for grouping delivery points on their
+     * coordinates, when some cannot be reached from the warehouse.
      */
     private KMeansClustering KNN = new KMeansClustering();
 
@@ -81,6 +103,11 @@ public class Round {
      */
     private List<Solver> solverList = new ArrayList<>();
 
+    /**
+     * The results of the solvers, shared by the computations of this round.
+     */
+    private final SolverCache solverCache = new SolverCache();
+
     /**
      * The list indicating whether the computed tours are optimal.
      */
@@ -116,8 +143,8 @@ public class Round {
     }
 
     /**
-     * Soft resets the round by clearing the K-Means clustering instance and
-     * resetting the tour attributions.
+     * Soft resets the round by clearing the clustering instances and resetting
+     * the tour attributions.
      *
      * <p>
      * This method allows for re-computation of delivery tours without altering
@@ -125,6 +152,7 @@ public class Round {
      * </p>
      */
     public void softReset() {
+        clustering = new BalancedClustering();
         KNN = new KMeansClustering();
         tourAttribution = new ArrayList<>();
     }
@@ -191,9 +219,9 @@ public class Round {
 
             // Initialize and solve the delivery tour for this courier
             System.out.println("Courier " + courier.getId() + " is assigned " + courierDeliveryIndices.size() + " deliveries.");
-            Solver solver = new Solver(plan, courierDeliveryIndices, new BnBStrategy()).init();
+            Solver solver = new Solver(plan, courierDeliveryIndices);
+            solver.setCache(solverCache);
             solver.solve();
-            solver.computePointsToBeServed();
             isOptimalList.add(solver.getTimeExceeded());
             double bestCost = solver.getBestPossibleCost();
             double bestTime = bestCost / (COURIER_SPEED * 1000) * 3600; // Convert to seconds
@@ -411,6 +439,38 @@ public class Round {
         return data;
     }
 
+    /**
+     * Builds the plan indices of the warehouse followed by the delivery points,
+     * in the order of the delivery requests.
+     *
+     * @return the list of node indices, the warehouse first
+     */
+    private List<Integer> setUpStops() {
+        List<Integer> stops = new ArrayList<>();
+        stops.add(plan.getIndexById(warehouse.getId()));
+        for (DeliveryRequest delivery : deliveryRequestList) {
+            stops.add(plan.getIndexById(delivery.getDeliveryAdress().getId()));
+        }
+        return stops;
+    }
+
+    /**
+     * Checks whether every delivery point can be reached from the warehouse and
+     * can reach it back.
+     *
+     * @param distances the distance matrix of the warehouse, at index 0, and of
+     *                  the delivery points
+     * @return {@code true} if no distance to or from the warehouse is missing
+     */
+    private static boolean reachesWarehouse(double[][] distances) {
+        for (int i = 1; i < distances.length; i++) {
+            if (distances[0][i] < 0 || distances[i][0] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Converts cluster groups of delivery point indices into their corresponding
      * intersection IDs.
@@ -441,10 +501,13 @@ public class Round {
      * assigning them to couriers.
      *
      * <p>
-     * This method uses K-Means clustering to group delivery points based on their
-     * geographical coordinates and assigns each group to a courier. It then
-     * computes the optimal delivery tour for each courier using the Branch and
-     * Bound strategy.
+     * This method uses a {@link BalancedClustering} on the road distances to
+     * group delivery points into clusters of the same size, and assigns each
+     * group to a courier. If some delivery point cannot be reached from the
+     * warehouse, K-Means clustering on the geographical coordinates is used
+     * instead. It then
+     * computes the optimal delivery tour for each courier, with the strategy the
+     * {@link Solver} picks for the size of the tour.
      * </p>
      *
      * @return an {@code ArrayList} of {@code ArrayList<String>} where each inner
@@ -454,17 +517,21 @@ public class Round {
         // Reset solvers and tour attributions
         solverList.clear();
         tourAttribution.clear();
+        plan.preprocessData();
 
         // Prepare data for clustering
-        double[][] data = setUpData();
+        double[][] distances = plan.findDistanceMatrix(setUpStops());
         System.out.println("Number of Couriers in the round: " + courierList.size());
         Integer couriersNumber = courierList.size();
 
-        // Perform K-Means clustering
-        ArrayList<ArrayList<Integer>> groups = KNN.predictClusters(data, couriersNumber);
+        // Perform the clustering on road distances, or on coordinates as a fallback
+        ArrayList<ArrayList<Integer>> groups = reachesWarehouse(distances)
+                ? clustering.predictClusters(distances, couriersNumber)
+                : KNN.predictClusters(setUpData(), couriersNumber);
         ArrayList<ArrayList<String>> finalGroups = getIntersectionGroups(groups);
 
-        // Assign clusters to couriers and compute delivery tours
+        // Solve the tour of every courier concurrently
+        List<Future<Solver>> solvers = new ArrayList<>();
         Integer index = 0;
         for (Courier courier : courierList) {
             List<String> group = finalGroups.get(index);
@@ -474,14 +541,22 @@ public class Round {
                 courierDeliveryIndices.add(plan.getIndexById(intersectionId));
             }
 
-            // Initialize and solve the delivery tour for this courier
             System.out.println("Courier " + courier.getId() + " is assigned " + courierDeliveryIndices.size() + " deliveries.");
-            Solver solver = new Solver(plan, courierDeliveryIndices, new BnBStrategy()).init();
-            solver.solve();
-            solver.computePointsToBeServed();
+            solvers.add(SOLVER_POOL.submit(() -> {
+                Solver solver = new Solver(plan, courierDeliveryIndices);
+                solver.setCache(solverCache);
+                solver.solve();
+                return solver;
+            }));
+            index += 1;
+        }
+
+        // Gather the results in courier order
+        index = 0;
+        for (Courier courier : courierList) {
+            Solver solver = awaitSolver(solvers.get(index));
             solverList.add(solver);
-            double bestCost = solver.getBestPossibleCost();
-            double bestTime = bestCost / (COURIER_SPEED * 1000) * 3600; // Convert to seconds
+            List<Integer> courierDeliveryIndices = solver.getVertices();
 
             // Create delivery requests for this courier
             List<DeliveryRequest> courierDeliveryRequests = new ArrayList<>();
@@ -492,7 +567,7 @@ public class Round {
             }
 
             // Retrieve the best route
-            List<Integer> bestRouteIndexes = solver.getBestPossiblePath(); // Placeholder comment
+            List<Integer> bestRouteIndexes = solver.getBestPossiblePath();
             // Convert route indices to intersection objects
             List<Intersection> bestRoute = plan.computeTour(bestRouteIndexes);
 
@@ -516,6 +591,28 @@ public class Round {
         return finalGroups;
     }
 
+    /**
+     * Waits for the solver of a courier computed by the solver pool.
+     *
+     * @param future the pending solver
+     * @return the solved {@code Solver}
+     * @throws IllegalStateException if the computation failed or was interrupted
+     */
+    private static Solver awaitSolver(Future<Solver> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while computing the round.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Error while computing a courier tour: " + e.getCause().getMessage(),
+                    e.getCause());
+        }
+    }
+
     /**
      * Retrieves the warehouse intersection for the round.
      *
@@ -668,9 +765,6 @@ public class Round {
                 courierSolver.addDeliveryPoint(intersectionIndex);
             }
 
-            // Recompute points to be served
-            courierSolver.computePointsToBeServed();
-
             // Get updated route information
             List<Integer> bestRouteIndexes = courierSolver.getBestPossiblePath();
             List<Intersection> bestRoute = plan.computeTour(bestRouteIndexes);
@@ -718,6 +812,20 @@ public class Round {
         }
     }
 
+    /**
+     * Checks whether the round was computed on an older version of the plan.
+     *
+     * @return {@code true} if one of the courier solvers is stale
+     */
+    public boolean isStale() {
+        for (Solver solver : solverList) {
+            if (solver.isStale()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Updates the delivery tour for a specified courier by adding or deleting an
      * intersection point.
@@ -741,9 +849,10 @@ public class Round {
                 ", Intersection: " + intersectionId + ", Mode: " + mode);
 
         try {
-            // Reset state to ensure clean computation
-            plan.softResetMap();
-            plan.preprocessData();
+            // The plan is preprocessed once per map, the solvers only have to be up to date
+            if (isStale()) {
+                throw new IllegalStateException("The plan changed since the round was computed.");
+            }
 
             // Re-compute with updated state
             List<DeliveryTour> result = ComputeNewRound(courierIndex, plan.getIndexById(intersectionId), mode);
@@ -910,4 +1019,14 @@ public class Round {
     public List<Boolean> getIsOptimalList() {
         return this.isOptimalList;
     }
+
+    /**
+     * Retrieves the cache of the results of the solvers of this round, with its
+     * hit and miss counts.
+     *
+     * @return the {@code SolverCache}
+     */
+    public SolverCache getSolverCache() {
+        return this.solverCache;
+    }
 }
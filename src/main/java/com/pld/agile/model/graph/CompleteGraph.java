@@ -6,10 +6,16 @@ import java.util.ArrayList;
  * The {@code CompleteGraph} class represents a complete directed graph.
  * Each vertex in the graph is connected to every other vertex, and each
  * edge has a specified cost (weight) that can be retrieved from a cost matrix.
+ *
+ * <p>
+ * The costs are stored in a row-major {@code double[]}: the cost from {@code i}
+ * to {@code j} is at index {@code i * nbVertices + j}. The class is final so
+ * that {@link #cost(int, int)} is inlined by the JIT in the solvers.
+ * </p>
  */
-public class CompleteGraph implements Graph {
-    int nbVertices;
-    ArrayList<ArrayList<Double>> cost = new ArrayList<>();
+public final class CompleteGraph implements Graph {
+    private final int nbVertices;
+    private final double[] costs;
 
     /**
      * Constructs a complete directed graph with the specified number of vertices.
@@ -20,15 +26,65 @@ public class CompleteGraph implements Graph {
      */
     public CompleteGraph(int nbVertices, ArrayList<ArrayList<Double>> cost) {
         this.nbVertices = nbVertices;
-        this.cost = cost;
+        this.costs = new double[nbVertices * nbVertices];
+        for (int i = 0; i < nbVertices; i++) {
+            for (int j = 0; j < nbVertices; j++) {
+                costs[i * nbVertices + j] = cost.get(i).get(j);
+            }
+        }
     }
 
-    public CompleteGraph() {
+    /**
+     * Constructs a complete directed graph from a row-major cost matrix, without
+     * copying it. Like the cost matrix of the other constructor, its diagonal
+     * is expected to hold -1.
+     *
+     * @param nbVertices the number of vertices in the graph
+     * @param costs      the costs, the cost from {@code i} to {@code j} at index
+     *                   {@code i * nbVertices + j}
+     * @throws IllegalArgumentException if the array does not have
+     *                                  {@code nbVertices * nbVertices} costs
+     */
+    public CompleteGraph(int nbVertices, double[] costs) {
+        if (costs.length != nbVertices * nbVertices) {
+            throw new IllegalArgumentException("Expected " + nbVertices * nbVertices + " costs, got " + costs.length);
+        }
+        this.nbVertices = nbVertices;
+        this.costs = costs;
+    }
 
+    public CompleteGraph() {
+        this(0, new double[0]);
     }
 
+    /**
+     * Returns the costs as nested lists, built on each call.
+     *
+     * @return the cost matrix
+     * @deprecated the nested lists box every cost; use {@link #cost(int, int)}
+     *             or {@link #copyCosts()} instead
+     */
+    @Deprecated
     public ArrayList<ArrayList<Double>> getCostMatrix() {
-        return this.cost;
+        ArrayList<ArrayList<Double>> matrix = new ArrayList<>(nbVertices);
+        for (int i = 0; i < nbVertices; i++) {
+            ArrayList<Double> row = new ArrayList<>(nbVertices);
+            for (int j = 0; j < nbVertices; j++) {
+                row.add(costs[i * nbVertices + j]);
+            }
+            matrix.add(row);
+        }
+        return matrix;
+    }
+
+    /**
+     * Returns a copy of the row-major cost matrix.
+     *
+     * @return the costs, the cost from {@code i} to {@code j} at index
+     *         {@code i * nbVertices + j}
+     */
+    public double[] copyCosts() {
+        return costs.clone();
     }
 
     /**
@@ -53,7 +109,20 @@ public class CompleteGraph implements Graph {
     public Double getCost(int i, int j) {
         if (i < 0 || i >= nbVertices || j < 0 || j >= nbVertices)
             return -1.0;
-        return cost.get(i).get(j);
+        return costs[i * nbVertices + j];
+    }
+
+    /**
+     * Returns the cost of the directed edge from vertex {@code i} to vertex
+     * {@code j}, both within bounds.
+     *
+     * @param i the source vertex
+     * @param j the destination vertex
+     * @return the cost of the edge from {@code i} to {@code j}, or -1.0 if {@code i == j}
+     */
+    @Override
+    public double cost(int i, int j) {
+        return costs[i * nbVertices + j];
     }
 
     /**
@@ -87,10 +156,10 @@ public class CompleteGraph implements Graph {
 
         for (int i = 0; i < nbVertices; i++) {
             for (int j = 0; j < nbVertices; j++) {
-                if (cost.get(i).get(j) == -1) {
+                if (costs[i * nbVertices + j] == -1) {
                     sb.append(" ∞ "); // Use infinity symbol for non-existent connections or self-loops
                 } else {
-                    sb.append(String.format("%4.2f", cost.get(i).get(j))).append(" ");
+                    sb.append(String.format("%4.2f", costs[i * nbVertices + j])).append(" ");
                 }
             }
             sb.append("\n");
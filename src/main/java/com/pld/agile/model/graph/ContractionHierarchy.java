@@ -0,0 +1,457 @@
+package com.pld.agile.model.graph;
+
+import java.util.Arrays;
+
+/**
+ * The {@code ContractionHierarchy} class holds a contraction hierarchy (CH) of
+ * a {@link RoadGraph}: a rank for every vertex and an overlay of the original
+ * edges plus the shortcut edges added while contracting the vertices in rank
+ * order.
+ *
+ * <p>
+ * Every edge points either upward (towards a vertex of higher rank) or
+ * downward. A shortest path query only has to explore upward edges from the
+ * origin and, backwards, from the destination, which settles a few hundred
+ * vertices instead of a large part of the map. Shortcuts remember the two
+ * edges they replace, so the paths found can be unpacked into original road
+ * sections. The structure is immutable once built; queries are run by
+ * {@link ContractionHierarchyQuery}.
+ * </p>
+ */
+public final class ContractionHierarchy {
+    /**
+     * The maximum number of vertices a witness search settles before giving up
+     * and adding the shortcut anyway.
+     */
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+
+    private final int nbVertices;
+    private final int[] rank;
+    private final int[] edgeFrom;
+    private final int[] edgeTo;
+    private final double[] edgeWeight;
+    private final int[] edgeFirstChild;
+    private final int[] edgeSecondChild;
+    private final int[] upOffsets;
+    private final int[] upEdges;
+    private final int[] downOffsets;
+    private final int[] downEdges;
+
+    /**
+     * Wraps the arrays of an already built hierarchy.
+     *
+     * @param rank            the contraction rank of each vertex
+     * @param edgeFrom        the origin of each overlay edge
+     * @param edgeTo          the destination of each overlay edge
+     * @param edgeWeight      the length of each overlay edge
+     * @param edgeFirstChild  the first edge replaced by each shortcut, or
+     *                        {@code -1} for an original edge
+     * @param edgeSecondChild the second edge replaced by each shortcut, or
+     *                        {@code -1} for an original edge
+     */
+    public ContractionHierarchy(int[] rank, int[] edgeFrom, int[] edgeTo, double[] edgeWeight,
+                                int[] edgeFirstChild, int[] edgeSecondChild) {
+        this.nbVertices = rank.length;
+        this.rank = rank;
+        this.edgeFrom = edgeFrom;
+        this.edgeTo = edgeTo;
+        this.edgeWeight = edgeWeight;
+        this.edgeFirstChild = edgeFirstChild;
+        this.edgeSecondChild = edgeSecondChild;
+
+        // Upward edges are stored at their origin, downward edges at their
+        // destination so that the backward search can walk them in reverse
+        int nbEdges = edgeFrom.length;
+        this.upOffsets = new int[nbVertices + 1];
+        this.downOffsets = new int[nbVertices + 1];
+        for (int e = 0; e < nbEdges; e++) {
+            if (rank[edgeFrom[e]] < rank[edgeTo[e]]) {
+                upOffsets[edgeFrom[e] + 1]++;
+            } else {
+                downOffsets[edgeTo[e] + 1]++;
+            }
+        }
+        for (int v = 0; v < nbVertices; v++) {
+            upOffsets[v + 1] += upOffsets[v];
+            downOffsets[v + 1] += downOffsets[v];
+        }
+        this.upEdges = new int[upOffsets[nbVertices]];
+        this.downEdges = new int[downOffsets[nbVertices]];
+        int[] upNext = Arrays.copyOf(upOffsets, nbVertices);
+        int[] downNext = Arrays.copyOf(downOffsets, nbVertices);
+        for (int e = 0; e < nbEdges; e++) {
+            if (rank[edgeFrom[e]] < rank[edgeTo[e]]) {
+                upEdges[upNext[edgeFrom[e]]++] = e;
+            } else {
+                downEdges[downNext[edgeTo[e]]++] = e;
+            }
+        }
+    }
+
+    /**
+     * Builds the contraction hierarchy of a road graph. Vertices are contracted
+     * in the order given by their edge difference (shortcuts added minus edges
+     * removed) plus the number of already contracted neighbours, with lazy
+     * updates of the priorities.
+     *
+     * @param graph the road graph to preprocess
+     * @return the {@code ContractionHierarchy} of the graph
+     */
+    public static ContractionHierarchy build(RoadGraph graph) {
+        return new Builder(graph).build();
+    }
+
+    /**
+     * Returns the number of vertices of the hierarchy.
+     *
+     * @return the number of vertices
+     */
+    public int getNbVertices() {
+        return nbVertices;
+    }
+
+    /**
+     * Returns the number of overlay edges, original edges and shortcuts.
+     *
+     * @return the number of edges
+     */
+    public int getNbEdges() {
+        return edgeFrom.length;
+    }
+
+    /**
+     * Returns the contraction rank of a vertex.
+     *
+     * @param v the vertex
+     * @return its rank, higher ranks being contracted later
+     */
+    public int getRank(int v) {
+        return rank[v];
+    }
+
+    int firstUpEdge(int v) {
+        return upOffsets[v];
+    }
+
+    int endUpEdge(int v) {
+        return upOffsets[v + 1];
+    }
+
+    int upEdge(int i) {
+        return upEdges[i];
+    }
+
+    int firstDownEdge(int v) {
+        return downOffsets[v];
+    }
+
+    int endDownEdge(int v) {
+        return downOffsets[v + 1];
+    }
+
+    int downEdge(int i) {
+        return downEdges[i];
+    }
+
+    int from(int e) {
+        return edgeFrom[e];
+    }
+
+    int to(int e) {
+        return edgeTo[e];
+    }
+
+    double weight(int e) {
+        return edgeWeight[e];
+    }
+
+    int firstChild(int e) {
+        return edgeFirstChild[e];
+    }
+
+    int secondChild(int e) {
+        return edgeSecondChild[e];
+    }
+
+    /**
+     * Returns the rank array, for serialization.
+     *
+     * @return the rank of each vertex
+     */
+    public int[] getRanks() {
+        return rank;
+    }
+
+    /**
+     * Returns the origin array of the overlay edges, for serialization.
+     *
+     * @return the origin of each edge
+     */
+    public int[] getEdgeFrom() {
+        return edgeFrom;
+    }
+
+    /**
+     * Returns the destination array of the overlay edges, for serialization.
+     *
+     * @return the destination of each edge
+     */
+    public int[] getEdgeTo() {
+        return edgeTo;
+    }
+
+    /**
+     * Returns the weight array of the overlay edges, for serialization.
+     *
+     * @return the length of each edge
+     */
+    public double[] getEdgeWeights() {
+        return edgeWeight;
+    }
+
+    /**
+     * Returns the first child array of the overlay edges, for serialization.
+     *
+     * @return the first replaced edge of each shortcut, {@code -1} otherwise
+     */
+    public int[] getEdgeFirstChildren() {
+        return edgeFirstChild;
+    }
+
+    /**
+     * Returns the second child array of the overlay edges, for serialization.
+     *
+     * @return the second replaced edge of each shortcut, {@code -1} otherwise
+     */
+    public int[] getEdgeSecondChildren() {
+        return edgeSecondChild;
+    }
+
+    /**
+     * The {@code Builder} class contracts the vertices of a road graph one by
+     * one on a dynamic adjacency structure, adding the shortcuts needed to keep
+     * the distances between the remaining vertices.
+     */
+    private static final class Builder {
+        private final int n;
+        private int nbEdges = 0;
+        private int[] from = new int[16];
+        private int[] to = new int[16];
+        private double[] weight = new double[16];
+        private int[] firstChild = new int[16];
+        private int[] secondChild = new int[16];
+
+        private final int[][] outEdges;
+        private final int[] outCount;
+        private final int[][] inEdges;
+        private final int[] inCount;
+        private final boolean[] contracted;
+        private final int[] contractedNeighbors;
+        private final int[] rank;
+
+        // Witness search state
+        private final IndexedMinHeap witnessHeap;
+        private final double[] witnessDistance;
+        private final int[] witnessStamp;
+        private int witnessGeneration = 0;
+
+        Builder(RoadGraph graph) {
+            this.n = graph.getNbVertices();
+            this.outEdges = new int[n][];
+            this.outCount = new int[n];
+            this.inEdges = new int[n][];
+            this.inCount = new int[n];
+            this.contracted = new boolean[n];
+            this.contractedNeighbors = new int[n];
+            this.rank = new int[n];
+            this.witnessHeap = new IndexedMinHeap(n);
+            this.witnessDistance = new double[n];
+            this.witnessStamp = new int[n];
+            for (int v = 0; v < n; v++) {
+                outEdges[v] = new int[4];
+                inEdges[v] = new int[4];
+            }
+            for (int u = 0; u < n; u++) {
+                for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                    int v = graph.target(e);
+                    if (u != v) {
+                        addEdge(u, v, graph.weight(e), -1, -1);
+                    }
+                }
+            }
+        }
+
+        ContractionHierarchy build() {
+            IndexedMinHeap queue = new IndexedMinHeap(n);
+            for (int v = 0; v < n; v++) {
+                queue.insertOrDecrease(v, priority(v));
+            }
+            int order = 0;
+            while (!queue.isEmpty()) {
+                // Lazy update: recompute the priority of the best candidate and
+                // only contract it if it is still the best one
+                int v = queue.peek();
+                double p = priority(v);
+                if (p > queue.getKey(v)) {
+                    queue.update(v, p);
+                    continue;
+                }
+                queue.poll();
+                contract(v);
+                rank[v] = order++;
+                for (int i = 0; i < outCount[v]; i++) {
+                    int w = to[outEdges[v][i]];
+                    if (!contracted[w]) {
+                        contractedNeighbors[w]++;
+                        queue.update(w, priority(w));
+                    }
+                }
+                for (int i = 0; i < inCount[v]; i++) {
+                    int w = from[inEdges[v][i]];
+                    if (!contracted[w]) {
+                        contractedNeighbors[w]++;
+                        queue.update(w, priority(w));
+                    }
+                }
+            }
+            return new ContractionHierarchy(rank, Arrays.copyOf(from, nbEdges), Arrays.copyOf(to, nbEdges),
+                    Arrays.copyOf(weight, nbEdges), Arrays.copyOf(firstChild, nbEdges),
+                    Arrays.copyOf(secondChild, nbEdges));
+        }
+
+        /**
+         * Computes the contraction priority of a vertex: the edge difference
+         * plus the number of contracted neighbours, which spreads the
+         * contraction uniformly over the map.
+         */
+        private double priority(int v) {
+            int removed = 0;
+            for (int i = 0; i < inCount[v]; i++) {
+                if (!contracted[from[inEdges[v][i]]]) {
+                    removed++;
+                }
+            }
+            for (int i = 0; i < outCount[v]; i++) {
+                if (!contracted[to[outEdges[v][i]]]) {
+                    removed++;
+                }
+            }
+            return processShortcuts(v, false) - removed + contractedNeighbors[v];
+        }
+
+        private void contract(int v) {
+            processShortcuts(v, true);
+            contracted[v] = true;
+        }
+
+        /**
+         * Finds the shortcuts needed to bypass a vertex, i.e. the pairs of
+         * neighbours whose shortest path goes through it.
+         *
+         * @param v   the vertex to bypass
+         * @param add whether the shortcuts must be added to the graph or only
+         *            counted
+         * @return the number of shortcuts needed
+         */
+        private int processShortcuts(int v, boolean add) {
+            int shortcuts = 0;
+            for (int i = 0; i < inCount[v]; i++) {
+                int in = inEdges[v][i];
+                int u = from[in];
+                if (contracted[u]) {
+                    continue;
+                }
+                double maxLength = -1;
+                for (int j = 0; j < outCount[v]; j++) {
+                    int out = outEdges[v][j];
+                    int w = to[out];
+                    if (!contracted[w] && w != u) {
+                        maxLength = Math.max(maxLength, weight[in] + weight[out]);
+                    }
+                }
+                if (maxLength < 0) {
+                    continue;
+                }
+                witnessSearch(u, v, maxLength);
+                for (int j = 0; j < outCount[v]; j++) {
+                    int out = outEdges[v][j];
+                    int w = to[out];
+                    if (contracted[w] || w == u) {
+                        continue;
+                    }
+                    double length = weight[in] + weight[out];
+                    double witness = witnessStamp[w] == witnessGeneration ? witnessDistance[w] : Double.MAX_VALUE;
+                    if (witness > length) {
+                        shortcuts++;
+                        if (add) {
+                            addEdge(u, w, length, in, out);
+                            // The new shortcut is a witness for the next pairs
+                            witnessStamp[w] = witnessGeneration;
+                            witnessDistance[w] = length;
+                        }
+                    }
+                }
+            }
+            return shortcuts;
+        }
+
+        /**
+         * Runs a bounded Dijkstra search from a vertex on the remaining graph,
+         * avoiding the vertex being contracted.
+         */
+        private void witnessSearch(int source, int avoided, double maxLength) {
+            witnessGeneration++;
+            witnessHeap.clear();
+            witnessStamp[source] = witnessGeneration;
+            witnessDistance[source] = 0.0;
+            witnessHeap.insertOrDecrease(source, 0.0);
+            int settled = 0;
+            while (!witnessHeap.isEmpty() && settled < WITNESS_SETTLE_LIMIT) {
+                if (witnessHeap.minKey() > maxLength) {
+                    break;
+                }
+                int u = witnessHeap.poll();
+                settled++;
+                double base = witnessDistance[u];
+                for (int i = 0; i < outCount[u]; i++) {
+                    int e = outEdges[u][i];
+                    int w = to[e];
+                    if (w == avoided || contracted[w]) {
+                        continue;
+                    }
+                    double d = base + weight[e];
+                    if (witnessStamp[w] != witnessGeneration || d < witnessDistance[w]) {
+                        witnessStamp[w] = witnessGeneration;
+                        witnessDistance[w] = d;
+                        witnessHeap.insertOrDecrease(w, d);
+                    }
+                }
+            }
+        }
+
+        private void addEdge(int u, int v, double length, int first, int second) {
+            if (nbEdges == from.length) {
+                int capacity = nbEdges * 2;
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                weight = Arrays.copyOf(weight, capacity);
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                secondChild = Arrays.copyOf(secondChild, capacity);
+            }
+            int e = nbEdges++;
+            from[e] = u;
+            to[e] = v;
+            weight[e] = length;
+            firstChild[e] = first;
+            secondChild[e] = second;
+            if (outCount[u] == outEdges[u].length) {
+                outEdges[u] = Arrays.copyOf(outEdges[u], outCount[u] * 2);
+            }
+            outEdges[u][outCount[u]++] = e;
+            if (inCount[v] == inEdges[v].length) {
+                inEdges[v] = Arrays.copyOf(inEdges[v], inCount[v] * 2);
+            }
+            inEdges[v][inCount[v]++] = e;
+        }
+    }
+}
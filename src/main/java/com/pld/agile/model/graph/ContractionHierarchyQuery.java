@@ -0,0 +1,334 @@
+package com.pld.agile.model.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The {@code ContractionHierarchyQuery} class answers shortest path queries on
+ * a {@link ContractionHierarchy}.
+ *
+ * <p>
+ * Point-to-point queries run a bidirectional Dijkstra search that only follows
+ * upward edges, and unpack the shortcuts of the path found. Many-to-many
+ * queries use buckets: one backward upward search per target stores its
+ * distances in the buckets of the vertices it settles, then one forward upward
+ * search per source scans the buckets of the vertices it settles.
+ * </p>
+ *
+ * <p>
+ * The working arrays are reused across queries, so an instance is not
+ * thread-safe.
+ * </p>
+ */
+public class ContractionHierarchyQuery {
+    private final ContractionHierarchy ch;
+
+    private final IndexedMinHeap forwardHeap;
+    private final double[] forwardDistance;
+    private final int[] forwardEdge;
+    private final int[] forwardStamp;
+
+    private final IndexedMinHeap backwardHeap;
+    private final double[] backwardDistance;
+    private final int[] backwardEdge;
+    private final int[] backwardStamp;
+
+    private final int[] bucketStamp;
+    private final int[] bucketOf;
+    private int[] settledNodes = new int[0];
+    private int generation = 0;
+    private int nbSettled = 0;
+
+    /**
+     * Creates a query engine for the given contraction hierarchy.
+     *
+     * @param ch the contraction hierarchy to search
+     */
+    public ContractionHierarchyQuery(ContractionHierarchy ch) {
+        int n = ch.getNbVertices();
+        this.ch = ch;
+        this.forwardHeap = new IndexedMinHeap(n);
+        this.forwardDistance = new double[n];
+        this.forwardEdge = new int[n];
+        this.forwardStamp = new int[n];
+        this.backwardHeap = new IndexedMinHeap(n);
+        this.backwardDistance = new double[n];
+        this.backwardEdge = new int[n];
+        this.backwardStamp = new int[n];
+        this.bucketStamp = new int[n];
+        this.bucketOf = new int[n];
+    }
+
+    /**
+     * Returns the contraction hierarchy searched by this engine.
+     *
+     * @return the {@code ContractionHierarchy}
+     */
+    public ContractionHierarchy getHierarchy() {
+        return ch;
+    }
+
+    /**
+     * Returns the number of vertices settled by the last query, in both
+     * directions.
+     *
+     * @return the number of settled vertices
+     */
+    public int getNbSettled() {
+        return nbSettled;
+    }
+
+    /**
+     * Computes the shortest distance between two vertices.
+     *
+     * @param origin      the index of the starting node
+     * @param destination the index of the destination node
+     * @return the shortest distance, or {@code Double.MAX_VALUE} if the
+     * destination cannot be reached
+     */
+    public double findShortestDistance(int origin, int destination) {
+        int meeting = search(origin, destination);
+        return meeting < 0 ? Double.MAX_VALUE : forwardDistance[meeting] + backwardDistance[meeting];
+    }
+
+    /**
+     * Computes the shortest path between two vertices, with every shortcut
+     * unpacked into the original edges.
+     *
+     * @param origin      the index of the starting node
+     * @param destination the index of the destination node
+     * @return the list of node indices from the origin to the destination, or an
+     * empty list if the destination cannot be reached
+     */
+    public List<Integer> findShortestPath(int origin, int destination) {
+        List<Integer> path = new ArrayList<>();
+        int meeting = search(origin, destination);
+        if (meeting < 0) {
+            return path;
+        }
+
+        // Upward edges from the origin to the meeting vertex, collected backwards
+        List<Integer> upward = new ArrayList<>();
+        for (int node = meeting; node != origin; node = ch.from(forwardEdge[node])) {
+            upward.add(forwardEdge[node]);
+        }
+        path.add(origin);
+        for (int i = upward.size() - 1; i >= 0; i--) {
+            unpack(upward.get(i), path);
+        }
+        // Downward edges from the meeting vertex to the destination
+        for (int node = meeting; node != destination; node = ch.to(backwardEdge[node])) {
+            unpack(backwardEdge[node], path);
+        }
+        return path;
+    }
+
+    /**
+     * Computes the matrix of shortest distances between every source and every
+     * target with bucket-based many-to-many searches.
+     *
+     * @param sources the indices of the source nodes
+     * @param targets the indices of the target nodes
+     * @return a matrix where cell {@code [i][j]} is the distance from
+     * {@code sources[i]} to {@code targets[j]}, or {@code Double.MAX_VALUE} if
+     * it cannot be reached
+     */
+    public double[][] findDistanceMatrix(int[] sources, int[] targets) {
+        nbSettled = 0;
+
+        // Backward searches fill the buckets with (target, distance) entries
+        int nbEntries = 0;
+        int[] entryNode = new int[64];
+        int[] entryTarget = new int[64];
+        double[] entryDistance = new double[64];
+        for (int j = 0; j < targets.length; j++) {
+            upwardSearch(targets[j], false);
+            for (int v : settledNodes) {
+                if (nbEntries == entryNode.length) {
+                    entryNode = Arrays.copyOf(entryNode, nbEntries * 2);
+                    entryTarget = Arrays.copyOf(entryTarget, nbEntries * 2);
+                    entryDistance = Arrays.copyOf(entryDistance, nbEntries * 2);
+                }
+                entryNode[nbEntries] = v;
+                entryTarget[nbEntries] = j;
+                entryDistance[nbEntries] = backwardDistance[v];
+                nbEntries++;
+            }
+        }
+
+        // Group the entries by vertex with a counting sort over the touched vertices
+        int nbBuckets = 0;
+        int bucketGeneration = generation;
+        for (int i = 0; i < nbEntries; i++) {
+            int v = entryNode[i];
+            if (bucketStamp[v] != bucketGeneration) {
+                bucketStamp[v] = bucketGeneration;
+                bucketOf[v] = nbBuckets++;
+            }
+        }
+        int[] bucketStart = new int[nbBuckets + 1];
+        for (int i = 0; i < nbEntries; i++) {
+            bucketStart[bucketOf[entryNode[i]] + 1]++;
+        }
+        for (int b = 0; b < nbBuckets; b++) {
+            bucketStart[b + 1] += bucketStart[b];
+        }
+        int[] next = Arrays.copyOf(bucketStart, nbBuckets);
+        int[] bucketTarget = new int[nbEntries];
+        double[] bucketDistance = new double[nbEntries];
+        for (int i = 0; i < nbEntries; i++) {
+            int slot = next[bucketOf[entryNode[i]]]++;
+            bucketTarget[slot] = entryTarget[i];
+            bucketDistance[slot] = entryDistance[i];
+        }
+
+        // Forward searches scan the buckets of the vertices they settle
+        double[][] distances = new double[sources.length][targets.length];
+        for (int i = 0; i < sources.length; i++) {
+            double[] row = distances[i];
+            Arrays.fill(row, Double.MAX_VALUE);
+            upwardSearch(sources[i], true);
+            for (int v : settledNodes) {
+                if (bucketStamp[v] != bucketGeneration) {
+                    continue;
+                }
+                int b = bucketOf[v];
+                double base = forwardDistance[v];
+                for (int k = bucketStart[b]; k < bucketStart[b + 1]; k++) {
+                    double d = base + bucketDistance[k];
+                    if (d < row[bucketTarget[k]]) {
+                        row[bucketTarget[k]] = d;
+                    }
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Runs an exhaustive upward search from a vertex and records the settled
+     * vertices in {@code settledNodes}.
+     *
+     * @param source  the index of the starting node
+     * @param forward {@code true} to follow upward edges forwards, {@code false}
+     *                to follow them backwards
+     */
+    private void upwardSearch(int source, boolean forward) {
+        IndexedMinHeap heap = forward ? forwardHeap : backwardHeap;
+        double[] distance = forward ? forwardDistance : backwardDistance;
+        int[] stamp = forward ? forwardStamp : backwardStamp;
+        int searchGeneration = ++generation;
+        heap.clear();
+        stamp[source] = searchGeneration;
+        distance[source] = 0.0;
+        heap.insertOrDecrease(source, 0.0);
+        int count = 0;
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            if (count == settledNodes.length) {
+                settledNodes = Arrays.copyOf(settledNodes, Math.max(16, count * 2));
+            }
+            settledNodes[count++] = u;
+            relax(u, forward, heap, distance, stamp, searchGeneration, forward ? forwardEdge : backwardEdge);
+        }
+        settledNodes = Arrays.copyOf(settledNodes, count);
+        nbSettled += count;
+    }
+
+    /**
+     * Runs the bidirectional upward search between two vertices.
+     *
+     * @return the vertex where the shortest path crosses from the forward to the
+     * backward search, or {@code -1} if the destination cannot be reached
+     */
+    private int search(int origin, int destination) {
+        int searchGeneration = ++generation;
+        forwardHeap.clear();
+        backwardHeap.clear();
+        forwardStamp[origin] = searchGeneration;
+        forwardDistance[origin] = 0.0;
+        forwardEdge[origin] = -1;
+        forwardHeap.insertOrDecrease(origin, 0.0);
+        backwardStamp[destination] = searchGeneration;
+        backwardDistance[destination] = 0.0;
+        backwardEdge[destination] = -1;
+        backwardHeap.insertOrDecrease(destination, 0.0);
+
+        double best = Double.MAX_VALUE;
+        int meeting = -1;
+        nbSettled = 0;
+        while (!forwardHeap.isEmpty() || !backwardHeap.isEmpty()) {
+            double forwardMin = forwardHeap.isEmpty() ? Double.MAX_VALUE : forwardHeap.minKey();
+            double backwardMin = backwardHeap.isEmpty() ? Double.MAX_VALUE : backwardHeap.minKey();
+            if (Math.min(forwardMin, backwardMin) >= best) {
+                break;
+            }
+            boolean forward = forwardMin <= backwardMin;
+            IndexedMinHeap heap = forward ? forwardHeap : backwardHeap;
+            int u = heap.poll();
+            nbSettled++;
+            int[] otherStamp = forward ? backwardStamp : forwardStamp;
+            if (otherStamp[u] == searchGeneration) {
+                double d = forwardDistance[u] + backwardDistance[u];
+                if (d < best) {
+                    best = d;
+                    meeting = u;
+                }
+            }
+            if (forward) {
+                relax(u, true, forwardHeap, forwardDistance, forwardStamp, searchGeneration, forwardEdge);
+            } else {
+                relax(u, false, backwardHeap, backwardDistance, backwardStamp, searchGeneration, backwardEdge);
+            }
+        }
+        return meeting;
+    }
+
+    /**
+     * Relaxes the upward edges of a settled vertex, forwards or backwards.
+     */
+    private void relax(int u, boolean forward, IndexedMinHeap heap, double[] distance, int[] stamp,
+                       int searchGeneration, int[] parentEdge) {
+        double base = distance[u];
+        int first = forward ? ch.firstUpEdge(u) : ch.firstDownEdge(u);
+        int end = forward ? ch.endUpEdge(u) : ch.endDownEdge(u);
+        for (int i = first; i < end; i++) {
+            int e = forward ? ch.upEdge(i) : ch.downEdge(i);
+            int w = forward ? ch.to(e) : ch.from(e);
+            double d = base + ch.weight(e);
+            if (stamp[w] != searchGeneration || d < distance[w]) {
+                stamp[w] = searchGeneration;
+                distance[w] = d;
+                parentEdge[w] = e;
+                heap.insertOrDecrease(w, d);
+            }
+        }
+    }
+
+    /**
+     * Appends the original edges of an overlay edge to a path, without its
+     * first node which is already in the path.
+     *
+     * @param edge the overlay edge to unpack
+     * @param path the path to extend
+     */
+    private void unpack(int edge, List<Integer> path) {
+        int[] stack = new int[16];
+        int size = 0;
+        stack[size++] = edge;
+        while (size > 0) {
+            int e = stack[--size];
+            if (ch.firstChild(e) < 0) {
+                path.add(ch.to(e));
+            } else {
+                if (size + 2 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                // The second half is pushed first so the first half is unpacked first
+                stack[size++] = ch.secondChild(e);
+                stack[size++] = ch.firstChild(e);
+            }
+        }
+    }
+}
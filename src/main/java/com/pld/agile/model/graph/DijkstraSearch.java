@@ -0,0 +1,261 @@
+package com.pld.agile.model.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The {@code DijkstraSearch} class runs Dijkstra's algorithm on a
+ * {@link RoadGraph}. Only the outgoing edges of each settled vertex are
+ * relaxed and the frontier is kept in an {@link IndexedMinHeap}, so a query
+ * costs {@code O((V + E) log V)} in the worst case.
+ *
+ * <p>
+ * The working arrays are allocated once and reused across queries: each query
+ * bumps a generation counter instead of refilling them, so a query that stops
+ * early only pays for the vertices it actually reached. An instance is not
+ * thread-safe.
+ * </p>
+ */
+public class DijkstraSearch {
+    private final RoadGraph graph;
+    private final IndexedMinHeap heap;
+    private final double[] distances;
+    private final int[] previousNodes;
+    private final int[] reached;
+    private final boolean[] settled;
+    private final int[] targetMarks;
+    private int generation = 0;
+    private int origin = -1;
+    private int nbSettled = 0;
+
+    /**
+     * Creates a search engine for the given road graph.
+     *
+     * @param graph the road graph to search
+     */
+    public DijkstraSearch(RoadGraph graph) {
+        int n = graph.getNbVertices();
+        this.graph = graph;
+        this.heap = new IndexedMinHeap(n);
+        this.distances = new double[n];
+        this.previousNodes = new int[n];
+        this.reached = new int[n];
+        this.settled = new boolean[n];
+        this.targetMarks = new int[n];
+    }
+
+    /**
+     * Computes the shortest distances from the origin, stopping as soon as the
+     * destination is settled.
+     *
+     * @param origin      the index of the starting node
+     * @param destination the index of the destination node, or {@code -1} to
+     *                    settle every reachable node
+     */
+    public void run(int origin, int destination) {
+        start(origin);
+        while (!heap.isEmpty()) {
+            int currentNode = settleNext();
+            if (currentNode == destination) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Computes the shortest distances from the origin to several targets in a
+     * single search, stopping as soon as every target is settled.
+     *
+     * @param origin  the index of the starting node
+     * @param targets the indices of the target nodes
+     */
+    public void runToTargets(int origin, int[] targets) {
+        start(origin);
+        int remaining = 0;
+        for (int target : targets) {
+            if (targetMarks[target] != generation) {
+                targetMarks[target] = generation;
+                remaining++;
+            }
+        }
+        while (remaining > 0 && !heap.isEmpty()) {
+            int currentNode = settleNext();
+            if (targetMarks[currentNode] == generation) {
+                remaining--;
+            }
+        }
+    }
+
+    /**
+     * Extracts the distances and paths to the given targets from the last query.
+     *
+     * @param targets the indices of the target nodes
+     * @return the {@code ShortestPathTree} of the last query restricted to the
+     * targets
+     */
+    public ShortestPathTree toTree(int[] targets) {
+        double[] targetDistances = new double[targets.length];
+        int[][] paths = new int[targets.length][];
+        for (int i = 0; i < targets.length; i++) {
+            int target = targets[i];
+            if (!isSettled(target)) {
+                targetDistances[i] = -1;
+                paths[i] = new int[0];
+                continue;
+            }
+            targetDistances[i] = distances[target];
+            int length = 0;
+            for (int node = target; node != -1; node = previousNodes[node]) {
+                length++;
+            }
+            int[] path = new int[length];
+            for (int node = target; node != -1; node = previousNodes[node]) {
+                path[--length] = node;
+            }
+            paths[i] = path;
+        }
+        return new ShortestPathTree(origin, targets, targetDistances, paths);
+    }
+
+    /**
+     * Resets the search state and queues the origin.
+     *
+     * @param origin the index of the starting node
+     */
+    protected void start(int origin) {
+        generation++;
+        heap.clear();
+        this.origin = origin;
+        this.nbSettled = 0;
+        reach(origin, 0.0, -1);
+        heap.insertOrDecrease(origin, 0.0);
+    }
+
+    /**
+     * Settles the queued node with the smallest distance and relaxes its
+     * outgoing edges.
+     *
+     * @return the index of the settled node
+     */
+    protected int settleNext() {
+        int currentNode = heap.poll();
+        settled[currentNode] = true;
+        nbSettled++;
+        double base = distances[currentNode];
+        for (int e = graph.firstEdge(currentNode); e < graph.endEdge(currentNode); e++) {
+            int neighbor = graph.target(e);
+            double newDist = base + graph.weight(e);
+            if (reached[neighbor] != generation) {
+                reach(neighbor, newDist, currentNode);
+                heap.insertOrDecrease(neighbor, newDist);
+            } else if (!settled[neighbor] && newDist < distances[neighbor]) {
+                distances[neighbor] = newDist;
+                previousNodes[neighbor] = currentNode;
+                heap.insertOrDecrease(neighbor, newDist);
+            }
+        }
+        return currentNode;
+    }
+
+    /**
+     * Checks whether the frontier of the current query is exhausted.
+     *
+     * @return {@code true} if no node is left to settle
+     */
+    protected boolean isExhausted() {
+        return heap.isEmpty();
+    }
+
+    /**
+     * Marks a node as reached for the first time in the current query.
+     *
+     * @param node     the index of the node
+     * @param distance its tentative distance
+     * @param previous its tentative predecessor
+     */
+    private void reach(int node, double distance, int previous) {
+        reached[node] = generation;
+        settled[node] = false;
+        distances[node] = distance;
+        previousNodes[node] = previous;
+    }
+
+    /**
+     * Returns the distance from the origin of the last query to a node.
+     *
+     * @param node the index of the node
+     * @return the shortest distance found, or {@code Double.MAX_VALUE} if the
+     * node was not reached
+     */
+    public double getDistance(int node) {
+        return reached[node] == generation ? distances[node] : Double.MAX_VALUE;
+    }
+
+    /**
+     * Returns the predecessor of a node on its shortest path from the origin.
+     *
+     * @param node the index of the node
+     * @return the index of the previous node, or {@code -1} if there is none
+     */
+    public int getPreviousNode(int node) {
+        return reached[node] == generation ? previousNodes[node] : -1;
+    }
+
+    /**
+     * Checks whether the distance of a node is final for the last query.
+     *
+     * @param node the index of the node
+     * @return {@code true} if the node has been settled
+     */
+    public boolean isSettled(int node) {
+        return reached[node] == generation && settled[node];
+    }
+
+    /**
+     * Returns the number of nodes settled by the last query.
+     *
+     * @return the number of settled nodes
+     */
+    public int getNbSettled() {
+        return nbSettled;
+    }
+
+    /**
+     * Reconstructs the shortest path from the origin of the last query to the
+     * destination by walking the predecessor links backwards.
+     *
+     * @param destination the index of the destination node
+     * @return the list of node indices from the origin to the destination, or an
+     * empty list if the destination was not reached
+     */
+    public List<Integer> getPath(int destination) {
+        if (!isSettled(destination)) {
+            return new ArrayList<>();
+        }
+        List<Integer> path = new ArrayList<>();
+        for (int node = destination; node != -1; node = previousNodes[node]) {
+            path.add(node);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Returns the origin of the last query.
+     *
+     * @return the index of the origin node
+     */
+    public int getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Returns the road graph searched by this engine.
+     *
+     * @return the {@code RoadGraph}
+     */
+    public RoadGraph getGraph() {
+        return graph;
+    }
+}
@@ -0,0 +1,234 @@
+package com.pld.agile.model.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The {@code GoalDirectedSearch} class runs point-to-point A* searches on a
+ * {@link RoadGraph}. Queued vertices are ordered by their distance from the
+ * origin plus a lower bound of their distance to the destination, so the
+ * search settles the vertices towards the destination first.
+ *
+ * <p>
+ * The lower bound is the largest of a geographic bound, the haversine distance
+ * between the coordinates of the intersections, and of the landmark bound of
+ * an optional {@link Landmarks} table (ALT search). Since some sections are
+ * shorter than the straight line between their ends in the map files, the
+ * haversine distance is scaled down by the smallest ratio between the length
+ * of a section and the haversine distance of its ends, which keeps the bound
+ * admissible and consistent.
+ * </p>
+ *
+ * <p>
+ * As in {@link DijkstraSearch}, the working arrays are reused across queries
+ * with a generation counter, so an instance is not thread-safe.
+ * </p>
+ */
+public class GoalDirectedSearch {
+    /**
+     * The mean radius of the Earth, in meters.
+     */
+    private static final double EARTH_RADIUS = 6_371_000.0;
+
+    private final RoadGraph graph;
+    private final Landmarks landmarks;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] cosLatitudes;
+    private final double haversineScale;
+
+    private final IndexedMinHeap heap;
+    private final double[] distances;
+    private final double[] bounds;
+    private final int[] previousNodes;
+    private final int[] reached;
+    private final boolean[] settled;
+    private int generation = 0;
+    private int nbSettled = 0;
+
+    /**
+     * Creates a search engine for the given road graph.
+     *
+     * @param graph      the road graph to search
+     * @param latitudes  the latitude of each vertex, in degrees
+     * @param longitudes the longitude of each vertex, in degrees
+     * @param landmarks  the landmark tables of the graph, or {@code null} to only
+     *                   use the geographic bound
+     */
+    public GoalDirectedSearch(RoadGraph graph, double[] latitudes, double[] longitudes, Landmarks landmarks) {
+        int n = graph.getNbVertices();
+        this.graph = graph;
+        this.landmarks = landmarks;
+        this.latitudes = new double[n];
+        this.longitudes = new double[n];
+        this.cosLatitudes = new double[n];
+        for (int v = 0; v < n; v++) {
+            this.latitudes[v] = Math.toRadians(latitudes[v]);
+            this.longitudes[v] = Math.toRadians(longitudes[v]);
+            this.cosLatitudes[v] = Math.cos(this.latitudes[v]);
+        }
+        this.haversineScale = computeHaversineScale();
+        this.heap = new IndexedMinHeap(n);
+        this.distances = new double[n];
+        this.bounds = new double[n];
+        this.previousNodes = new int[n];
+        this.reached = new int[n];
+        this.settled = new boolean[n];
+    }
+
+    /**
+     * Computes the largest factor that keeps the scaled haversine distance below
+     * the length of every edge.
+     *
+     * @return the scale factor, at most 1
+     */
+    private double computeHaversineScale() {
+        double scale = 1.0;
+        for (int u = 0; u < graph.getNbVertices(); u++) {
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                double straight = haversine(u, graph.target(e));
+                if (straight > 0 && graph.weight(e) / straight < scale) {
+                    scale = graph.weight(e) / straight;
+                }
+            }
+        }
+        // Leave some room for rounding errors
+        return scale * (1 - 1e-9);
+    }
+
+    /**
+     * Computes the great-circle distance between two vertices.
+     *
+     * @param u the first vertex
+     * @param v the second vertex
+     * @return the haversine distance, in meters
+     */
+    private double haversine(int u, int v) {
+        double sinLat = Math.sin((latitudes[v] - latitudes[u]) / 2);
+        double sinLon = Math.sin((longitudes[v] - longitudes[u]) / 2);
+        double a = sinLat * sinLat + cosLatitudes[u] * cosLatitudes[v] * sinLon * sinLon;
+        return 2 * EARTH_RADIUS * Math.asin(Math.sqrt(Math.min(1.0, a)));
+    }
+
+    /**
+     * Computes the lower bound of the distance from a vertex to the destination.
+     *
+     * @param v           the vertex
+     * @param destination the destination of the query
+     * @return the largest admissible lower bound available
+     */
+    private double lowerBound(int v, int destination) {
+        double bound = haversineScale * haversine(v, destination);
+        if (landmarks != null) {
+            bound = Math.max(bound, landmarks.lowerBound(v, destination));
+        }
+        return bound;
+    }
+
+    /**
+     * Computes the shortest distance from the origin, stopping as soon as the
+     * destination is settled.
+     *
+     * @param origin      the index of the starting node
+     * @param destination the index of the destination node
+     */
+    public void run(int origin, int destination) {
+        generation++;
+        heap.clear();
+        nbSettled = 0;
+        reach(origin, 0.0, -1, destination);
+        heap.insertOrDecrease(origin, bounds[origin]);
+        while (!heap.isEmpty()) {
+            int currentNode = heap.poll();
+            settled[currentNode] = true;
+            nbSettled++;
+            if (currentNode == destination) {
+                break;
+            }
+            double base = distances[currentNode];
+            for (int e = graph.firstEdge(currentNode); e < graph.endEdge(currentNode); e++) {
+                int neighbor = graph.target(e);
+                double newDist = base + graph.weight(e);
+                if (reached[neighbor] != generation) {
+                    reach(neighbor, newDist, currentNode, destination);
+                    heap.insertOrDecrease(neighbor, newDist + bounds[neighbor]);
+                } else if (!settled[neighbor] && newDist < distances[neighbor]) {
+                    distances[neighbor] = newDist;
+                    previousNodes[neighbor] = currentNode;
+                    heap.insertOrDecrease(neighbor, newDist + bounds[neighbor]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks a node as reached for the first time in the current query and
+     * computes its lower bound.
+     */
+    private void reach(int node, double distance, int previous, int destination) {
+        reached[node] = generation;
+        settled[node] = false;
+        distances[node] = distance;
+        previousNodes[node] = previous;
+        bounds[node] = lowerBound(node, destination);
+    }
+
+    /**
+     * Returns the distance from the origin of the last query to a settled node.
+     *
+     * @param node the index of the node
+     * @return the shortest distance, or {@code Double.MAX_VALUE} if the node was
+     * not settled
+     */
+    public double getDistance(int node) {
+        return reached[node] == generation && settled[node] ? distances[node] : Double.MAX_VALUE;
+    }
+
+    /**
+     * Reconstructs the shortest path from the origin of the last query to the
+     * destination.
+     *
+     * @param destination the index of the destination node
+     * @return the list of node indices from the origin to the destination, or an
+     * empty list if the destination was not reached
+     */
+    public List<Integer> getPath(int destination) {
+        List<Integer> path = new ArrayList<>();
+        if (reached[destination] != generation || !settled[destination]) {
+            return path;
+        }
+        for (int node = destination; node != -1; node = previousNodes[node]) {
+            path.add(node);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Returns the number of nodes settled by the last query.
+     *
+     * @return the number of settled nodes
+     */
+    public int getNbSettled() {
+        return nbSettled;
+    }
+
+    /**
+     * Returns the road graph searched by this engine.
+     *
+     * @return the {@code RoadGraph}
+     */
+    public RoadGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the landmark tables used by this engine.
+     *
+     * @return the {@code Landmarks}, or {@code null} for a plain A* search
+     */
+    public Landmarks getLandmarks() {
+        return landmarks;
+    }
+}
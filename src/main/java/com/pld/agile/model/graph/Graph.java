@@ -13,6 +13,17 @@ public interface Graph {
 	 */
 	public abstract Double getCost(int i, int j);
 
+	/**
+	 * Primitive variant of {@link #getCost(int, int)}, for the inner loops of the
+	 * solvers: no boxing and no bounds check beyond the one of the underlying
+	 * array.
+	 *
+	 * @param i a vertex of <code>this</code>
+	 * @param j a vertex of <code>this</code>
+	 * @return the cost of arc (i,j) if (i,j) is an arc; -1 if i == j
+	 */
+	public abstract double cost(int i, int j);
+
 	/**
 	 * @param i 
 	 * @param j 
@@ -0,0 +1,209 @@
+package com.pld.agile.model.graph;
+
+import java.util.Arrays;
+
+/**
+ * The {@code IndexedMinHeap} class is a binary min-heap of vertices keyed by a
+ * {@code double} priority. Every vertex remembers its position in the heap, so
+ * the key of a queued vertex can be decreased in {@code O(log n)} instead of
+ * inserting a duplicate entry.
+ *
+ * <p>
+ * Keys are stored inside the heap, so they cannot be corrupted by updates of
+ * the caller's distance array, and no boxing happens on any operation.
+ * </p>
+ */
+public final class IndexedMinHeap {
+    private final int[] heap;
+    private final double[] keys;
+    private final int[] positions;
+    private int size;
+
+    /**
+     * Creates an empty heap able to hold the vertices {@code 0} to
+     * {@code capacity - 1}.
+     *
+     * @param capacity the number of distinct vertices the heap can hold
+     */
+    public IndexedMinHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.keys = new double[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Checks whether the heap is empty.
+     *
+     * @return {@code true} if no vertex is queued
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of queued vertices.
+     *
+     * @return the size of the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether a vertex is currently queued.
+     *
+     * @param v the vertex
+     * @return {@code true} if {@code v} is in the heap
+     */
+    public boolean contains(int v) {
+        return positions[v] >= 0;
+    }
+
+    /**
+     * Returns the smallest key in the heap.
+     *
+     * @return the key of the vertex that {@code poll()} would return
+     */
+    public double minKey() {
+        return keys[heap[0]];
+    }
+
+    /**
+     * Inserts a vertex, or lowers its key if it is already queued with a larger
+     * one. A larger key for a queued vertex is ignored.
+     *
+     * @param v   the vertex
+     * @param key the priority of the vertex
+     */
+    public void insertOrDecrease(int v, double key) {
+        int pos = positions[v];
+        if (pos < 0) {
+            pos = size++;
+            heap[pos] = v;
+            positions[v] = pos;
+        } else if (key >= keys[v]) {
+            return;
+        }
+        keys[v] = key;
+        siftUp(pos);
+    }
+
+    /**
+     * Inserts a vertex or changes its key, whether the new key is smaller or
+     * larger than the current one.
+     *
+     * @param v   the vertex
+     * @param key the new priority of the vertex
+     */
+    public void update(int v, double key) {
+        int pos = positions[v];
+        if (pos < 0) {
+            insertOrDecrease(v, key);
+            return;
+        }
+        double old = keys[v];
+        keys[v] = key;
+        if (key < old) {
+            siftUp(pos);
+        } else {
+            siftDown(pos);
+        }
+    }
+
+    /**
+     * Returns the vertex with the smallest key without removing it.
+     *
+     * @return the vertex that {@code poll()} would return
+     */
+    public int peek() {
+        return heap[0];
+    }
+
+    /**
+     * Returns the current key of a queued vertex.
+     *
+     * @param v the vertex
+     * @return the priority of {@code v}
+     */
+    public double getKey(int v) {
+        return keys[v];
+    }
+
+    /**
+     * Removes the vertex with the smallest key from the heap.
+     *
+     * @return the removed vertex
+     */
+    public int poll() {
+        int min = heap[0];
+        positions[min] = -1;
+        size--;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            positions[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Empties the heap in time proportional to its current size.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Moves the entry at the given position up until the heap order holds.
+     *
+     * @param pos the position of the entry to move
+     */
+    private void siftUp(int pos) {
+        int v = heap[pos];
+        double key = keys[v];
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            int p = heap[parent];
+            if (keys[p] <= key) {
+                break;
+            }
+            heap[pos] = p;
+            positions[p] = pos;
+            pos = parent;
+        }
+        heap[pos] = v;
+        positions[v] = pos;
+    }
+
+    /**
+     * Moves the entry at the given position down until the heap order holds.
+     *
+     * @param pos the position of the entry to move
+     */
+    private void siftDown(int pos) {
+        int v = heap[pos];
+        double key = keys[v];
+        int half = size >>> 1;
+        while (pos < half) {
+            int child = 2 * pos + 1;
+            int right = child + 1;
+            if (right < size && keys[heap[right]] < keys[heap[child]]) {
+                child = right;
+            }
+            int c = heap[child];
+            if (key <= keys[c]) {
+                break;
+            }
+            heap[pos] = c;
+            positions[c] = pos;
+            pos = child;
+        }
+        heap[pos] = v;
+        positions[v] = pos;
+    }
+}
@@ -0,0 +1,184 @@
+package com.pld.agile.model.graph;
+
+import java.util.Arrays;
+
+/**
+ * The {@code Landmarks} class stores the distance tables used by the ALT
+ * (A*, Landmarks, Triangle inequality) search.
+ *
+ * <p>
+ * For every landmark {@code L}, the distances {@code d(L, v)} and
+ * {@code d(v, L)} to every vertex {@code v} are precomputed. By the triangle
+ * inequality, {@code d(L, t) - d(L, v)} and {@code d(v, L) - d(t, L)} are both
+ * lower bounds of {@code d(v, t)}. The tables are flat row-major arrays, one
+ * row per landmark, and unreachable vertices hold
+ * {@code Double.POSITIVE_INFINITY}.
+ * </p>
+ */
+public final class Landmarks {
+    private final int nbVertices;
+    private final int[] vertices;
+    private final double[] fromLandmark;
+    private final double[] toLandmark;
+
+    /**
+     * Wraps already computed landmark tables without copying them.
+     *
+     * @param nbVertices   the number of vertices of the graph
+     * @param vertices     the landmark vertices
+     * @param fromLandmark the distances from each landmark to every vertex
+     * @param toLandmark   the distances from every vertex to each landmark
+     */
+    public Landmarks(int nbVertices, int[] vertices, double[] fromLandmark, double[] toLandmark) {
+        this.nbVertices = nbVertices;
+        this.vertices = vertices;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+    }
+
+    /**
+     * Selects landmarks with the farthest heuristic and computes their distance
+     * tables. The first landmark is the vertex farthest from vertex 0, and each
+     * following one is the vertex whose distance to the closest landmark already
+     * chosen is the largest.
+     *
+     * @param graph the road graph
+     * @param count the number of landmarks to select
+     * @return the {@code Landmarks} of the graph
+     */
+    public static Landmarks select(RoadGraph graph, int count) {
+        int n = graph.getNbVertices();
+        count = Math.min(count, n);
+        DijkstraSearch forward = new DijkstraSearch(graph);
+        DijkstraSearch backward = new DijkstraSearch(graph.reverse());
+        int[] vertices = new int[count];
+        double[] fromLandmark = new double[count * n];
+        double[] toLandmark = new double[count * n];
+
+        // Distance from each vertex to its closest landmark, in both directions
+        double[] closest = new double[n];
+        Arrays.fill(closest, Double.POSITIVE_INFINITY);
+        int candidate = farthest(forward, 0, n);
+        for (int l = 0; l < count; l++) {
+            vertices[l] = candidate;
+            forward.run(candidate, -1);
+            backward.run(candidate, -1);
+            int row = l * n;
+            for (int v = 0; v < n; v++) {
+                fromLandmark[row + v] = distance(forward, v);
+                toLandmark[row + v] = distance(backward, v);
+                double d = fromLandmark[row + v] + toLandmark[row + v];
+                if (d < closest[v]) {
+                    closest[v] = d;
+                }
+            }
+            // Unreachable vertices are not picked, they would give no bound
+            candidate = -1;
+            double best = -1;
+            for (int v = 0; v < n; v++) {
+                if (closest[v] != Double.POSITIVE_INFINITY && closest[v] > best) {
+                    best = closest[v];
+                    candidate = v;
+                }
+            }
+            if (candidate < 0) {
+                return new Landmarks(n, Arrays.copyOf(vertices, l + 1), Arrays.copyOf(fromLandmark, (l + 1) * n),
+                        Arrays.copyOf(toLandmark, (l + 1) * n));
+            }
+        }
+        return new Landmarks(n, vertices, fromLandmark, toLandmark);
+    }
+
+    /**
+     * Returns the vertex farthest from a source among the reachable ones.
+     */
+    private static int farthest(DijkstraSearch search, int source, int n) {
+        search.run(source, -1);
+        int farthest = source;
+        for (int v = 0; v < n; v++) {
+            if (search.isSettled(v) && search.getDistance(v) > search.getDistance(farthest)) {
+                farthest = v;
+            }
+        }
+        return farthest;
+    }
+
+    /**
+     * Returns the distance of a vertex in the last full search, or
+     * {@code Double.POSITIVE_INFINITY} if it was not reached.
+     */
+    private static double distance(DijkstraSearch search, int v) {
+        return search.isSettled(v) ? search.getDistance(v) : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Computes the best landmark lower bound of the distance between two
+     * vertices.
+     *
+     * @param v      the index of the current node
+     * @param target the index of the destination node
+     * @return a lower bound of the shortest distance from {@code v} to
+     * {@code target}, never negative
+     */
+    public double lowerBound(int v, int target) {
+        double bound = 0.0;
+        for (int row = 0; row < fromLandmark.length; row += nbVertices) {
+            double fromT = fromLandmark[row + target];
+            double fromV = fromLandmark[row + v];
+            if (fromT != Double.POSITIVE_INFINITY && fromV != Double.POSITIVE_INFINITY && fromT - fromV > bound) {
+                bound = fromT - fromV;
+            }
+            double toV = toLandmark[row + v];
+            double toT = toLandmark[row + target];
+            if (toV != Double.POSITIVE_INFINITY && toT != Double.POSITIVE_INFINITY && toV - toT > bound) {
+                bound = toV - toT;
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Returns the number of landmarks.
+     *
+     * @return the number of landmarks
+     */
+    public int getNbLandmarks() {
+        return vertices.length;
+    }
+
+    /**
+     * Returns the number of vertices covered by the tables.
+     *
+     * @return the number of vertices
+     */
+    public int getNbVertices() {
+        return nbVertices;
+    }
+
+    /**
+     * Returns the landmark vertices.
+     *
+     * @return the indices of the landmarks
+     */
+    public int[] getVertices() {
+        return vertices;
+    }
+
+    /**
+     * Returns the distances from each landmark to every vertex.
+     *
+     * @return the row-major table of distances
+     */
+    public double[] getFromLandmark() {
+        return fromLandmark;
+    }
+
+    /**
+     * Returns the distances from every vertex to each landmark.
+     *
+     * @return the row-major table of distances
+     */
+    public double[] getToLandmark() {
+        return toLandmark;
+    }
+}
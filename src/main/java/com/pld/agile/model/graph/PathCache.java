@@ -0,0 +1,146 @@
+package com.pld.agile.model.graph;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The {@code PathCache} class stores shortest paths between pairs of
+ * intersections, keyed by their (origin, destination) indices.
+ *
+ * <p>
+ * The cache is bounded by the total number of nodes held in its paths rather
+ * than by the number of entries, since path lengths vary a lot. When the bound
+ * is exceeded, the least recently used paths are evicted first. All methods are
+ * synchronized so the cache can be shared by concurrent solvers.
+ * </p>
+ */
+public class PathCache {
+    /**
+     * The default maximum number of nodes stored over all cached paths.
+     */
+    public static final int DEFAULT_MAX_NODES = 1_000_000;
+
+    private final int maxNodes;
+    private final LinkedHashMap<Long, int[]> paths = new LinkedHashMap<>(16, 0.75f, true);
+    private long storedNodes = 0;
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * Creates a cache with the default node budget.
+     */
+    public PathCache() {
+        this(DEFAULT_MAX_NODES);
+    }
+
+    /**
+     * Creates a cache holding at most the given number of nodes over all paths.
+     *
+     * @param maxNodes the maximum number of nodes stored in the cache
+     */
+    public PathCache(int maxNodes) {
+        this.maxNodes = maxNodes;
+    }
+
+    /**
+     * Builds the key of a pair of intersections.
+     *
+     * @param origin      the index of the origin node
+     * @param destination the index of the destination node
+     * @return the key identifying the pair
+     */
+    private static long key(int origin, int destination) {
+        return ((long) origin << 32) | (destination & 0xffffffffL);
+    }
+
+    /**
+     * Returns the cached path between two nodes.
+     *
+     * @param origin      the index of the origin node
+     * @param destination the index of the destination node
+     * @return the node indices of the path, or {@code null} if it is not cached
+     */
+    public synchronized int[] get(int origin, int destination) {
+        int[] path = paths.get(key(origin, destination));
+        if (path == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return path;
+    }
+
+    /**
+     * Stores the path between two nodes, evicting the least recently used paths
+     * if the node budget is exceeded. Paths longer than the whole budget are not
+     * stored.
+     *
+     * @param origin      the index of the origin node
+     * @param destination the index of the destination node
+     * @param path        the node indices of the path
+     */
+    public synchronized void put(int origin, int destination, int[] path) {
+        if (path.length > maxNodes) {
+            return;
+        }
+        int[] previous = paths.put(key(origin, destination), path);
+        if (previous != null) {
+            storedNodes -= previous.length;
+        }
+        storedNodes += path.length;
+        Iterator<Map.Entry<Long, int[]>> it = paths.entrySet().iterator();
+        while (storedNodes > maxNodes && it.hasNext()) {
+            storedNodes -= it.next().getValue().length;
+            it.remove();
+        }
+    }
+
+    /**
+     * Stores every path of a shortest path tree.
+     *
+     * @param tree the {@code ShortestPathTree} to store
+     */
+    public synchronized void putAll(ShortestPathTree tree) {
+        for (int i = 0; i < tree.getNbTargets(); i++) {
+            if (tree.getDistance(i) >= 0) {
+                put(tree.getOrigin(), tree.getTarget(i), tree.getPathArray(i));
+            }
+        }
+    }
+
+    /**
+     * Removes every cached path.
+     */
+    public synchronized void clear() {
+        paths.clear();
+        storedNodes = 0;
+    }
+
+    /**
+     * Returns the number of cached paths.
+     *
+     * @return the number of entries
+     */
+    public synchronized int size() {
+        return paths.size();
+    }
+
+    /**
+     * Returns the number of lookups that found a cached path.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that did not find a cached path.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
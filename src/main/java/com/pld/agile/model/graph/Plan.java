@@ -1,25 +1,27 @@
 package com.pld.agile.model.graph;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
+import java.util.Set;
 
 import javax.management.InstanceNotFoundException;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.springframework.web.multipart.MultipartFile;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 
 import com.pld.agile.model.entity.Intersection;
 import com.pld.agile.model.entity.Section;
@@ -27,10 +29,12 @@ import com.pld.agile.model.entity.Section;
 /**
  * The {@code Plan} class is responsible for reading and processing a city plan
  * in XML format, which consists of intersections and sections between them.
- * It also calculates the cost matrix for the graph and computes the shortest
- * paths between intersections using Dijkstra's algorithm.
+ * It also builds a sparse adjacency structure for the road network and computes
+ * the shortest paths between intersections using Dijkstra's algorithm.
  */
 public class Plan {
+    private static final String SNAPSHOT_EXTENSION = ".plan";
+
     @SuppressWarnings("FieldMayBeFinal")
     private List<Section> sections = new ArrayList<>();
     @SuppressWarnings("FieldMayBeFinal")
@@ -40,10 +44,19 @@ public class Plan {
     private Map<String, Integer> indexes = new HashMap<>();
     private Map<Integer, String> reverseIndexes = new HashMap<>();
 
-    @SuppressWarnings("FieldMayBeFinal")
-    private ArrayList<ArrayList<Double>> costsMatrix = new ArrayList<>();
-    private ArrayList<Integer> tour = new ArrayList<>();
-    private ArrayList<Intersection> IntersectionsTour = new ArrayList<>();
+    private RoadGraph roadGraph;
+    private RoadGraph reversedRoadGraph;
+    private final ThreadLocal<DijkstraSearch> searches = new ThreadLocal<>();
+    private final ThreadLocal<DijkstraSearch> backwardSearches = new ThreadLocal<>();
+    private final PathCache pathCache = new PathCache();
+    private ShortestPathEngine engine = ShortestPathEngine.DIJKSTRA;
+    private int nbLandmarks = 8;
+    private Landmarks landmarks;
+    private final ThreadLocal<GoalDirectedSearch> goalSearches = new ThreadLocal<>();
+    private ContractionHierarchy contractionHierarchy;
+    private final ThreadLocal<ContractionHierarchyQuery> chQueries = new ThreadLocal<>();
+    private Path snapshotDirectory;
+    private long version = 0;
 
     /**
      * Default constructor for the {@code Plan} class.
@@ -54,13 +67,16 @@ public class Plan {
     @SuppressWarnings("UseSpecificCatch")
     /**
      * Reads an XML file containing the plan of the city and populates the list of
-     * intersections and sections. It parses the XML, creates intersection and
-     * section objects, and stores them in their respective lists.
+     * intersections and sections. The file is streamed with a StAX parser, so
+     * the memory used grows with the plan and not with the document. The plan
+     * loaded before, if any, is replaced, whether the file is parsed or read
+     * back from its snapshot.
      *
      * @param filePath the path to the XML file
      * @throws Exception if an error occurs during the reading or parsing process
      */
     public void readXml(String filePath) throws Exception {
+        String snapshotKey = null;
         try {
             File xmlFile = new File(filePath);
 
@@ -69,68 +85,24 @@ public class Plan {
                 throw new FileNotFoundException("The file '" + filePath + "' is not found.");
             }
 
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document document = builder.parse(xmlFile);
-
-            // Reading the intersections
-            NodeList intersectionElements = document.getElementsByTagName("noeud");
-            for (int i = 0; i < intersectionElements.getLength(); i++) {
-                Element element = (Element) intersectionElements.item(i);
-                String id = element.getAttribute("id");
-                try {
-                    double latitude = Double.parseDouble(element.getAttribute("latitude"));
-                    double longitude = Double.parseDouble(element.getAttribute("longitude"));
-
-                    // Create the Intersection objects
-                    Intersection intersection = new Intersection();
-                    intersection.initialisation(id, latitude, longitude);
-                    intersectionMap.put(id, intersection);
-                    intersections.add(intersection);
-                } catch (NumberFormatException e) {
-                    throw new NumberFormatException("Invalid numeric value in an intersection : " + e.getMessage());
+            if (snapshotDirectory != null) {
+                try (InputStream input = new BufferedInputStream(new FileInputStream(xmlFile))) {
+                    snapshotKey = PlanSnapshot.hash(input);
                 }
-            }
-
-            // Reading the sections
-            NodeList sectionElements = document.getElementsByTagName("troncon");
-            for (int i = 0; i < sectionElements.getLength(); i++) {
-                Element element = (Element) sectionElements.item(i);
-                try {
-                    String originId = element.getAttribute("origine");
-                    String destinationId = element.getAttribute("destination");
-                    double length = Double.parseDouble(element.getAttribute("longueur"));
-                    String name = element.getAttribute("nomRue");
-
-                    // Create the Section objects
-                    Section section = new Section();
-                    section.initialisation(originId, destinationId, name, length);
-                    sections.add(section);
-                } catch (NumberFormatException e) {
-                    throw new NumberFormatException("Invalid numeric value in a section: " + e.getMessage());
+                if (loadSnapshot(snapshotKey)) {
+                    return;
                 }
             }
 
-            for (int i = 0; i < sections.size(); i++) {
-                Boolean originFind = false;
-                Boolean destinationFind = false;
-                for (int j = 0; j < intersections.size(); j++) {
-                    if (intersections.get(j).getId().equals(sections.get(i).getOrigin())) {
-                        originFind = true;
-                    }
-                    if (intersections.get(j).getId().equals(sections.get(i).getDestination())) {
-                        destinationFind = true;
-                    }
-                }
-                if (!originFind || !destinationFind) {
-                    throw new InstanceNotFoundException(
-                            "The XML file is missing required origin or destination intersections.");
-                }
+            resetMap();
+            try (InputStream input = new BufferedInputStream(new FileInputStream(xmlFile))) {
+                parseXml(input);
             }
+            checkSectionIntersections();
         } catch (FileNotFoundException e) {
             e.printStackTrace();
             throw e; // Propagate exception if file not found
-        } catch (SAXException e) {
+        } catch (XMLStreamException e) {
             // Captures errors related to malformed XML parsing
             throw new Exception("Malformed XML file : " + e.getMessage());
         } catch (NumberFormatException e) {
@@ -142,6 +114,7 @@ public class Plan {
         }
         System.out.println("Nombre d'intersections : " + intersections.size());
         System.out.println("Nombre de tronçons : " + sections.size());
+        finishLoading(snapshotKey);
     }
 
 
@@ -154,23 +127,33 @@ public class Plan {
         intersectionMap.clear();
         intersections.clear();
         sections.clear();
-        indexes.clear();
-        reverseIndexes.clear();
-        costsMatrix.clear();
-        tour.clear();
-        IntersectionsTour.clear();
+        invalidatePreprocessing();
     }
 
-
     /**
-     * Soft resets the map, clearing all but the intersections and sections.
+     * Drops every structure derived from the intersections and sections, and
+     * starts a new version of the plan.
      */
-    public void softResetMap() {
+    private void invalidatePreprocessing() {
         indexes.clear();
         reverseIndexes.clear();
-        costsMatrix.clear();
-        tour.clear();
-        IntersectionsTour.clear();
+        roadGraph = null;
+        reversedRoadGraph = null;
+        pathCache.clear();
+        landmarks = null;
+        contractionHierarchy = null;
+        version++;
+    }
+
+    /**
+     * Returns the version of the preprocessed data of the plan. It changes
+     * whenever the intersections or sections change, so a {@code Solver} built
+     * on an older version can tell that its distances are stale.
+     *
+     * @return the version of the plan
+     */
+    public long getVersion() {
+        return version;
     }
 
     /**
@@ -208,6 +191,7 @@ public class Plan {
      * @param intersection the {@code Intersection} object to add
      */
     public void addIntersection(Intersection intersection) {
+        invalidatePreprocessing();
         intersections.add(intersection);
         intersectionMap.put(intersection.getId(), intersection);
     }
@@ -256,199 +240,189 @@ public class Plan {
     }
 
     /**
-     * Initializes the cost matrix for the graph with 0 or infinity values. This
-     * method sets the distance from a node to itself as 0 and sets all other
-     * distances to infinity.
+     * Builds the compressed sparse row road graph from the sections read from
+     * the XML file, and its reverse for the backward searches. Both are built
+     * before any query, so the solvers of concurrent couriers share them
+     * without locking.
      */
-    private void initializeCostsMatrix() {
-        int size = intersections.size();
-        for (int i = 0; i < size; i++) {
-            ArrayList<Double> row = new ArrayList<>();
-            for (int j = 0; j < size; j++) {
-                if (i == j) {
-                    row.add(0.0); // Distance to self is 0
-                } else {
-                    row.add(Double.MAX_VALUE); // Initialize with a large value to indicate no direct connection
-                }
-            }
-            costsMatrix.add(row);
-        }
+    private void makeRoadGraph() {
+        roadGraph = RoadGraph.fromSections(intersections.size(), sections, indexes);
+        reversedRoadGraph = roadGraph.reverse();
+        pathCache.clear();
     }
 
     /**
-     * Fills the cost matrix based on the sections read from the XML file.
+     * Processes the data by creating indexing the ids of the intersections of the
+     * map and creating the road graph. This is done once per loaded map: later
+     * calls only compute what the selected shortest path engine still lacks.
      */
-    private void fillCostsMAtrix() {
-        // Set the costs based on the sections
-        for (Section section : sections) {
-            String originId = section.getOrigin();
-            String destinationId = section.getDestination();
-            double length = section.getLength();
+    public void preprocessData() {
+        if (roadGraph == null) {
+            reIndexIntersections();
+            reverseIndexation();
+            makeRoadGraph();
+        }
+        if (engine == ShortestPathEngine.ALT && landmarks == null) {
+            landmarks = Landmarks.select(roadGraph, nbLandmarks);
+        }
+        if (engine == ShortestPathEngine.CONTRACTION_HIERARCHY && contractionHierarchy == null) {
+            makeContractionHierarchy();
+        }
+    }
 
-            int originIndex = indexes.get(originId);
-            int destinationIndex = indexes.get(destinationId);
+    /**
+     * Builds the contraction hierarchy of the road graph, which is then used by
+     * every shortest path query of the plan.
+     */
+    private void makeContractionHierarchy() {
+        contractionHierarchy = ContractionHierarchy.build(roadGraph);
+    }
 
-            // Set the distance (or cost) for the matrix
-            costsMatrix.get(originIndex).set(destinationIndex, length);
+    /**
+     * Selects the algorithm answering the point-to-point shortest path queries.
+     * The landmarks of {@link ShortestPathEngine#ALT} and the contraction
+     * hierarchy of {@link ShortestPathEngine#CONTRACTION_HIERARCHY} are computed
+     * once after the plan is read, or by the next {@code preprocessData()} if
+     * the plan is already loaded.
+     *
+     * @param engine the shortest path engine to use
+     */
+    public void setShortestPathEngine(ShortestPathEngine engine) {
+        this.engine = engine;
+        if (engine != ShortestPathEngine.CONTRACTION_HIERARCHY) {
+            contractionHierarchy = null;
+        }
+        if (engine != ShortestPathEngine.ALT) {
+            landmarks = null;
+        }
+        if (roadGraph != null) {
+            preprocessData();
         }
     }
 
     /**
-     * makes the cost matrix using the values extarcted from the file
+     * Returns the algorithm answering the point-to-point shortest path queries.
+     *
+     * @return the current {@code ShortestPathEngine}
      */
-    private void makeCostsMatrix() {
-        // Initialize the adjacency matrix with the size of the intersections
-        initializeCostsMatrix();
-        fillCostsMAtrix();
+    public ShortestPathEngine getShortestPathEngine() {
+        return engine;
     }
 
     /**
-     * Processes the data by creating indexing the ids of the intersections of the
-     * map and creating the cost matrix.
+     * Sets the number of landmarks selected for the ALT engine. It takes effect
+     * the next time the landmarks are computed.
+     *
+     * @param nbLandmarks the number of landmarks
      */
-    public void preprocessData() {
-        reIndexIntersections();
-        reverseIndexation();
-        makeCostsMatrix();
+    public void setNbLandmarks(int nbLandmarks) {
+        this.nbLandmarks = nbLandmarks;
+        landmarks = null;
     }
 
     /**
-     * Initializes an array of distances for Dijkstra's algorithm. All distances are
-     * initially set to {@code Double.MAX_VALUE} (infinity), except for the origin
-     * node,
-     * which is set to 0.
+     * Returns the landmark tables of the ALT engine.
      *
-     * @param numNodes the total number of nodes in the graph
-     * @param origin   the index of the origin node
-     * @return a {@code double[]} array where the distance to the origin node is 0
-     * and all other distances are infinity
+     * @return the {@code Landmarks}, or {@code null} if the ALT engine is not
+     * selected or the tables are not computed yet
      */
-    private double[] initializeDistances(int numNodes, int origin) {
-        double[] distances = new double[numNodes];
-        Arrays.fill(distances, Double.MAX_VALUE);
-        distances[origin] = 0.0;
-        return distances;
+    public Landmarks getLandmarks() {
+        return landmarks;
     }
 
     /**
-     * Initializes the previous nodes array for Dijkstra's algorithm. Each node is
-     * initially set to -1, meaning no predecessor has been assigned yet.
+     * Returns the contraction hierarchy of the plan.
      *
-     * @param numNodes the total number of nodes in the graph
-     * @return an {@code int[]} array where all values are set to -1
+     * @return the {@code ContractionHierarchy}, or {@code null} if it is disabled
+     * or not built yet
      */
-    private int[] initializePreviousNodes(int numNodes) {
-        int[] previousNodes = new int[numNodes];
-        Arrays.fill(previousNodes, -1);
-        return previousNodes;
+    public ContractionHierarchy getContractionHierarchy() {
+        return contractionHierarchy;
     }
 
     /**
-     * Updates the distances of neighboring nodes for the current node during
-     * Dijkstra's algorithm.
-     * This method checks unvisited neighbors and updates their distance and
-     * predecessor
-     * if a shorter path is found through the current node. It then adds the
-     * neighbor to
-     * the priority queue for further exploration.
+     * Returns the road graph built by {@code preprocessData()}.
      *
-     * @param currentNode   the index of the current node being processed
-     * @param numNodes      the total number of nodes in the graph
-     * @param distances     the array of current shortest distances from the origin
-     * @param visited       the array indicating whether a node has been visited
-     * @param previousNodes the array storing the previous node for each node in the
-     *                      shortest path
-     * @param priorityQueue the priority queue for selecting the next node to
-     *                      process
-     * @param costsMatrix   the adjacency matrix representing the cost between nodes
+     * @return the {@code RoadGraph} of the plan, or {@code null} if the data has
+     * not been preprocessed yet
      */
-    private void updateNeighborDistances(int currentNode, int numNodes, double[] distances, boolean[] visited,
-                                         int[] previousNodes, PriorityQueue<Integer> priorityQueue, ArrayList<ArrayList<Double>> costsMatrix) {
-        for (int neighbor = 0; neighbor < numNodes; neighbor++) {
-            if (!visited[neighbor] && costsMatrix.get(currentNode).get(neighbor) < Double.MAX_VALUE) {
-                double newDist = distances[currentNode] + costsMatrix.get(currentNode).get(neighbor);
-
-                if (newDist < distances[neighbor]) {
-                    distances[neighbor] = newDist;
-                    previousNodes[neighbor] = currentNode;
-                    priorityQueue.add(neighbor);
-                }
-            }
-        }
+    public RoadGraph getRoadGraph() {
+        return roadGraph;
     }
 
     /**
-     * Reconstructs the shortest path from the origin to the destination using the
-     * previous
-     * nodes array generated by Dijkstra's algorithm. The path is traced backwards
-     * from
-     * the destination to the origin.
+     * Returns the Dijkstra search engine of the calling thread for the
+     * preprocessed road graph, creating it on first use. Search engines keep
+     * per-query state, so each thread has its own and several solvers can query
+     * the plan concurrently.
      *
-     * @param destination   the index of the destination node
-     * @param origin        the index of the origin node
-     * @param previousNodes the array storing the previous node for each node in the
-     *                      shortest path
-     * @return a {@code List<Integer>} representing the shortest path from the
-     * origin to the destination.
-     * If no path exists, an empty list is returned.
+     * @return the {@code DijkstraSearch} bound to the current road graph
      */
-    private List<Integer> reconstructPath(int destination, int origin, int[] previousNodes) {
-        List<Integer> path = new ArrayList<>();
-        for (int node = destination; node != -1; node = previousNodes[node]) {
-            path.add(node);
+    private DijkstraSearch getSearch() {
+        DijkstraSearch search = searches.get();
+        if (search == null || search.getGraph() != roadGraph) {
+            search = new DijkstraSearch(roadGraph);
+            searches.set(search);
         }
-        Collections.reverse(path);
-
-        // Check if the destination is reachable
-        if (path.size() == 1 && path.getFirst() != origin) {
+        return search;
+    }
 
-            System.out.println("No path found between" + origin + " and " + destination + ".");
-            return new ArrayList<>();
+    /**
+     * Returns the Dijkstra search engine of the calling thread for the reversed
+     * road graph, creating it on first use. A search from a node of the
+     * reversed graph finds the shortest paths leading to that node.
+     *
+     * @return the {@code DijkstraSearch} bound to the reversed road graph
+     */
+    private DijkstraSearch getBackwardSearch() {
+        DijkstraSearch search = backwardSearches.get();
+        if (search == null || search.getGraph() != reversedRoadGraph) {
+            search = new DijkstraSearch(reversedRoadGraph);
+            backwardSearches.set(search);
         }
-
-        return path;
+        return search;
     }
 
     /**
-     * Uses Dijkstra's algorithm to compute the shortest path between two nodes
-     * (origin and destination) in the graph, based on the cost matrix.
+     * Returns the A* search engine of the calling thread for the preprocessed
+     * road graph, creating it on first use with the coordinates of the
+     * intersections and, for the ALT engine, the landmark tables.
      *
-     * @param origin      the index of the starting node
-     * @param destination the index of the destination node
-     * @return a map containing the total distance and the array of previous nodes
-     */
-    private Map<String, Object> dijkstraAlgorithm(int origin, int destination) {
-        int numNodes = costsMatrix.size();
-
-        // Initialize required arrays and structures
-        double[] distances = initializeDistances(numNodes, origin);
-        boolean[] visited = new boolean[numNodes];
-        int[] previousNodes = initializePreviousNodes(numNodes);
-
-        // Priority queue to select the node with the minimum distance
-        PriorityQueue<Integer> priorityQueue = new PriorityQueue<>(Comparator.comparingDouble(node -> distances[node]));
-        priorityQueue.add(origin);
-
-        // Process nodes using Dijkstra's algorithm
-        while (!priorityQueue.isEmpty()) {
-            int currentNode = priorityQueue.poll();
-            // If we reached the destination, stop processing
-            if (currentNode == destination) {
-                break;
+     * @return the {@code GoalDirectedSearch} bound to the current road graph
+     */
+    private GoalDirectedSearch getGoalSearch() {
+        Landmarks engineLandmarks = engine == ShortestPathEngine.ALT ? landmarks : null;
+        GoalDirectedSearch goalSearch = goalSearches.get();
+        if (goalSearch == null || goalSearch.getGraph() != roadGraph || goalSearch.getLandmarks() != engineLandmarks) {
+            double[] latitudes = new double[intersections.size()];
+            double[] longitudes = new double[intersections.size()];
+            for (int i = 0; i < latitudes.length; i++) {
+                latitudes[i] = intersections.get(i).getLatitude();
+                longitudes[i] = intersections.get(i).getLongitude();
             }
-            // Mark the node as visited
-            visited[currentNode] = true;
-
-            // Explore neighbors of the current node
-            updateNeighborDistances(currentNode, numNodes, distances, visited, previousNodes, priorityQueue,
-                    costsMatrix);
+            goalSearch = new GoalDirectedSearch(roadGraph, latitudes, longitudes, engineLandmarks);
+            goalSearches.set(goalSearch);
         }
+        return goalSearch;
+    }
 
-        // Return the total distance and the previous nodes
-        Map<String, Object> result = new HashMap<>();
-        result.put("distance", distances[destination]);
-        result.put("previousNodes", previousNodes);
-        return result;
+    /**
+     * Returns the contraction hierarchy query engine of the calling thread,
+     * creating it on first use.
+     *
+     * @return the {@code ContractionHierarchyQuery} bound to the current
+     * hierarchy, or {@code null} if there is no contraction hierarchy
+     */
+    private ContractionHierarchyQuery getChQuery() {
+        if (contractionHierarchy == null) {
+            return null;
+        }
+        ContractionHierarchyQuery chQuery = chQueries.get();
+        if (chQuery == null || chQuery.getHierarchy() != contractionHierarchy) {
+            chQuery = new ContractionHierarchyQuery(contractionHierarchy);
+            chQueries.set(chQuery);
+        }
+        return chQuery;
     }
 
     /**
@@ -458,13 +432,27 @@ public class Plan {
      *
      * @param origin      the index of the starting node
      * @param destination the index of the destination node
-     * @return a list of node indices representing the shortest path
+     * @return a list of node indices representing the shortest path, or an empty
+     * list if the destination cannot be reached
      */
     public List<Integer> findShortestPath(int origin, int destination) {
-        Map<String, Object> result = dijkstraAlgorithm(origin, destination);
-        int[] previousNodes = (int[]) result.get("previousNodes");
-        // Reconstruct and return the shortest path
-        return reconstructPath(destination, origin, previousNodes);
+        List<Integer> path;
+        ContractionHierarchyQuery chQuery = getChQuery();
+        if (chQuery != null) {
+            path = chQuery.findShortestPath(origin, destination);
+        } else if (engine == ShortestPathEngine.A_STAR || engine == ShortestPathEngine.ALT) {
+            GoalDirectedSearch aStar = getGoalSearch();
+            aStar.run(origin, destination);
+            path = aStar.getPath(destination);
+        } else {
+            DijkstraSearch dijkstra = getSearch();
+            dijkstra.run(origin, destination);
+            path = dijkstra.getPath(destination);
+        }
+        if (path.isEmpty()) {
+            System.out.println("No path found between" + origin + " and " + destination + ".");
+        }
+        return path;
     }
 
     /**
@@ -473,41 +461,240 @@ public class Plan {
      *
      * @param origin      the index of the starting node
      * @param destination the index of the destination node
-     * @return the cost of the shortest path
+     * @return the cost of the shortest path, or -1 if the destination cannot be
+     * reached
      */
     public double findShortestDistance(int origin, int destination) {
-        Map<String, Object> result = dijkstraAlgorithm(origin, destination);
-        double totalDistance = (double) result.get("distance");
+        double totalDistance;
+        ContractionHierarchyQuery chQuery = getChQuery();
+        if (chQuery != null) {
+            totalDistance = chQuery.findShortestDistance(origin, destination);
+        } else if (engine == ShortestPathEngine.A_STAR || engine == ShortestPathEngine.ALT) {
+            GoalDirectedSearch aStar = getGoalSearch();
+            aStar.run(origin, destination);
+            totalDistance = aStar.getDistance(destination);
+        } else {
+            DijkstraSearch dijkstra = getSearch();
+            dijkstra.run(origin, destination);
+            totalDistance = dijkstra.getDistance(destination);
+        }
         // If unreachable, return -1
         return totalDistance == Double.MAX_VALUE ? -1 : totalDistance;
     }
 
+    /**
+     * Finds the shortest paths from one origin to several destinations with a
+     * single search, which stops once every destination is settled.
+     *
+     * @param origin       the index of the starting node
+     * @param destinations the indices of the destination nodes
+     * @return the {@code ShortestPathTree} holding the distance and path to each
+     * destination, in the order of {@code destinations}
+     */
+    public ShortestPathTree findShortestPaths(int origin, List<Integer> destinations) {
+        int[] targets = new int[destinations.size()];
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = destinations.get(i);
+        }
+        DijkstraSearch dijkstra = getSearch();
+        dijkstra.runToTargets(origin, targets);
+        ShortestPathTree tree = dijkstra.toTree(targets);
+        pathCache.putAll(tree);
+        return tree;
+    }
+
+    /**
+     * Computes the shortest distances from one node to several others with a
+     * single forward search. Without a contraction hierarchy, the paths found
+     * are stored in the path cache.
+     *
+     * @param origin       the index of the starting node
+     * @param destinations the indices of the destination nodes
+     * @return the distance to each destination, in the order of
+     * {@code destinations}, or -1 if it cannot be reached
+     */
+    public double[] findDistancesFrom(int origin, List<Integer> destinations) {
+        ContractionHierarchyQuery chQuery = getChQuery();
+        if (chQuery != null) {
+            return reachable(chQuery.findDistanceMatrix(new int[] { origin }, toArray(destinations))[0]);
+        }
+        ShortestPathTree tree = findShortestPaths(origin, destinations);
+        double[] distances = new double[destinations.size()];
+        for (int i = 0; i < distances.length; i++) {
+            distances[i] = tree.getDistance(i);
+        }
+        return distances;
+    }
+
+    /**
+     * Computes the shortest distances from several nodes to one node with a
+     * single backward search on the reversed road graph. Without a contraction
+     * hierarchy, the paths found are stored in the path cache.
+     *
+     * @param destination the index of the destination node
+     * @param origins     the indices of the starting nodes
+     * @return the distance from each origin, in the order of {@code origins},
+     * or -1 if the destination cannot be reached
+     */
+    public double[] findDistancesTo(int destination, List<Integer> origins) {
+        ContractionHierarchyQuery chQuery = getChQuery();
+        if (chQuery != null) {
+            double[][] column = chQuery.findDistanceMatrix(toArray(origins), new int[] { destination });
+            double[] distances = new double[origins.size()];
+            for (int i = 0; i < distances.length; i++) {
+                distances[i] = column[i][0];
+            }
+            return reachable(distances);
+        }
+        int[] sources = toArray(origins);
+        DijkstraSearch backward = getBackwardSearch();
+        backward.runToTargets(destination, sources);
+        ShortestPathTree tree = backward.toTree(sources);
+        double[] distances = new double[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            distances[i] = tree.getDistance(i);
+            int[] reversedPath = tree.getPathArray(i);
+            if (reversedPath.length > 0) {
+                int[] path = new int[reversedPath.length];
+                for (int k = 0; k < path.length; k++) {
+                    path[k] = reversedPath[path.length - 1 - k];
+                }
+                pathCache.put(sources[i], destination, path);
+            }
+        }
+        return distances;
+    }
+
+    private static int[] toArray(List<Integer> nodes) {
+        int[] array = new int[nodes.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = nodes.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * Replaces the unreachable distances of a contraction hierarchy query by -1.
+     */
+    private static double[] reachable(double[] distances) {
+        for (int i = 0; i < distances.length; i++) {
+            if (distances[i] == Double.MAX_VALUE) {
+                distances[i] = -1;
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Computes the shortest distances between every pair of the given vertices.
+     * With a contraction hierarchy, a bucket-based many-to-many query is used;
+     * otherwise one one-to-many Dijkstra search is run from each vertex and its
+     * paths are stored in the path cache.
+     *
+     * @param vertices the indices of the vertices
+     * @return a matrix where cell {@code [i][j]} is the distance from the i-th to
+     * the j-th vertex, or -1 if it cannot be reached
+     */
+    public double[][] findDistanceMatrix(List<Integer> vertices) {
+        int size = vertices.size();
+        double[][] distances;
+        ContractionHierarchyQuery chQuery = getChQuery();
+        if (chQuery != null) {
+            int[] nodes = new int[size];
+            for (int i = 0; i < size; i++) {
+                nodes[i] = vertices.get(i);
+            }
+            distances = chQuery.findDistanceMatrix(nodes, nodes);
+            for (double[] row : distances) {
+                for (int j = 0; j < size; j++) {
+                    if (row[j] == Double.MAX_VALUE) {
+                        row[j] = -1;
+                    }
+                }
+            }
+        } else {
+            distances = new double[size][];
+            for (int i = 0; i < size; i++) {
+                ShortestPathTree tree = findShortestPaths(vertices.get(i), vertices);
+                distances[i] = new double[size];
+                for (int j = 0; j < size; j++) {
+                    distances[i][j] = tree.getDistance(j);
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Returns the shortest path between two nodes, reading it from the path
+     * cache when it has already been computed, for instance while building the
+     * complete graph of a solver.
+     *
+     * @param origin      the index of the starting node
+     * @param destination the index of the destination node
+     * @return a list of node indices representing the shortest path
+     */
+    private List<Integer> findCachedShortestPath(int origin, int destination) {
+        int[] cached = pathCache.get(origin, destination);
+        if (cached == null) {
+            List<Integer> path = findShortestPath(origin, destination);
+            int[] nodes = new int[path.size()];
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = path.get(i);
+            }
+            if (nodes.length > 0) {
+                pathCache.put(origin, destination, nodes);
+            }
+            return path;
+        }
+        List<Integer> path = new ArrayList<>(cached.length);
+        for (int node : cached) {
+            path.add(node);
+        }
+        return path;
+    }
+
+    /**
+     * Returns the cache of shortest paths of the current road graph.
+     *
+     * @return the {@code PathCache} of the plan
+     */
+    public PathCache getPathCache() {
+        return pathCache;
+    }
+
     /**
      * Constructs a tour by finding the shortest paths between consecutive nodes
-     * and ensuring that no duplicates exist in the tour.
+     * and ensuring that no duplicates exist in the tour. Paths already computed
+     * while building the complete graph are read from the path cache.
      *
      * @param path the list of nodes to visit
+     * @return the list of node indices of the tour
      */
-    private void constructTour(List<Integer> path) {
+    private List<Integer> constructTour(List<Integer> path) {
+        List<Integer> tour = new ArrayList<>();
         for (int i = 0; i < path.size() - 1; i++) {
             if (i == 0) {
-                tour.addAll(findShortestPath(path.get(i), path.get(i + 1)));
+                tour.addAll(findCachedShortestPath(path.get(i), path.get(i + 1)));
             } else {
-                List<Integer> subPath = findShortestPath(path.get(i), path.get(i + 1));
+                List<Integer> subPath = findCachedShortestPath(path.get(i), path.get(i + 1));
                 tour.addAll(subPath.subList(1, subPath.size()));
             }
 
         }
 
         tour.add(tour.getFirst());
+        return tour;
     }
 
     /**
      * Converts the tour of node indices to a tour of intersection IDs.
      *
+     * @param tour the list of node indices of the tour
      * @return the list of intersection IDs in the order of the tour
      */
-    private List<Intersection> makeIntersectionsTour() {
+    private List<Intersection> makeIntersectionsTour(List<Integer> tour) {
+        List<Intersection> IntersectionsTour = new ArrayList<>();
         for (Integer point : tour) {
             String intersectionId = reverseIndexes.get(point);
             IntersectionsTour.add(intersectionMap.get(intersectionId));
@@ -523,11 +710,7 @@ public class Plan {
      * @return the list of intersection IDs in the order of the tour
      */
     public List<Intersection> computeTour(List<Integer> path) {
-        tour.clear();
-        IntersectionsTour.clear();
-
-        constructTour(path);
-        List<Intersection> finalResult = makeIntersectionsTour();
+        List<Intersection> finalResult = makeIntersectionsTour(constructTour(path));
         System.out.println("Tour size: " + finalResult.size());
         return finalResult;
     }
@@ -546,86 +729,233 @@ public class Plan {
         return formattedInput;
     }
 
+    /**
+     * Streams the {@code noeud} and {@code troncon} elements of a plan document
+     * into the lists of intersections and sections, wherever they appear in the
+     * document.
+     *
+     * @param input the XML document
+     * @throws XMLStreamException    if the document is not well-formed
+     * @throws NumberFormatException if a coordinate or a length is not a number
+     */
+    private void parseXml(InputStream input) throws XMLStreamException {
+        invalidatePreprocessing();
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        XMLStreamReader reader = factory.createXMLStreamReader(input);
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                String element = reader.getLocalName();
+                if (element.equals("noeud")) {
+                    String id = attribute(reader, "id");
+                    try {
+                        double latitude = Double.parseDouble(attribute(reader, "latitude"));
+                        double longitude = Double.parseDouble(attribute(reader, "longitude"));
+
+                        // Create the Intersection objects
+                        Intersection intersection = new Intersection();
+                        intersection.initialisation(id, latitude, longitude);
+                        intersectionMap.put(id, intersection);
+                        intersections.add(intersection);
+                    } catch (NumberFormatException e) {
+                        throw new NumberFormatException("Invalid numeric value in an intersection : " + e.getMessage());
+                    }
+                } else if (element.equals("troncon")) {
+                    try {
+                        String originId = attribute(reader, "origine");
+                        String destinationId = attribute(reader, "destination");
+                        double length = Double.parseDouble(attribute(reader, "longueur"));
+                        String name = attribute(reader, "nomRue");
+
+                        // Create the Section objects
+                        Section section = new Section();
+                        section.initialisation(originId, destinationId, name, length);
+                        sections.add(section);
+                    } catch (NumberFormatException e) {
+                        throw new NumberFormatException("Invalid numeric value in a section: " + e.getMessage());
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Returns the value of an attribute of the current element.
+     *
+     * @param reader the reader positioned on a start element
+     * @param name   the name of the attribute
+     * @return the value of the attribute, or an empty string if it is missing
+     */
+    private static String attribute(XMLStreamReader reader, String name) {
+        String value = reader.getAttributeValue(null, name);
+        return value == null ? "" : value;
+    }
+
+    /**
+     * Checks that the origin and destination of every section are intersections
+     * of the plan, with one lookup in the intersection map per endpoint. Every
+     * dangling ID is reported at once.
+     *
+     * @throws InstanceNotFoundException if sections refer to unknown
+     *                                   intersections
+     */
+    private void checkSectionIntersections() throws InstanceNotFoundException {
+        Set<String> missingIds = new LinkedHashSet<>();
+        for (Section section : sections) {
+            if (!intersectionMap.containsKey(section.getOrigin())) {
+                missingIds.add(section.getOrigin());
+            }
+            if (!intersectionMap.containsKey(section.getDestination())) {
+                missingIds.add(section.getDestination());
+            }
+        }
+        if (!missingIds.isEmpty()) {
+            throw new InstanceNotFoundException(
+                    "The XML file is missing required origin or destination intersections: "
+                            + String.join(", ", missingIds));
+        }
+    }
+
+    /**
+     * Runs the preprocessing required by the shortest path engine on a freshly
+     * parsed plan, and writes its snapshot.
+     *
+     * @param snapshotKey the hash of the XML document, or {@code null} if
+     *                    snapshots are disabled
+     */
+    private void finishLoading(String snapshotKey) {
+        if (engine == ShortestPathEngine.ALT || engine == ShortestPathEngine.CONTRACTION_HIERARCHY) {
+            preprocessData();
+        }
+        saveSnapshot(snapshotKey);
+    }
+
+    /**
+     * Loads the plan from its snapshot if one exists. The landmarks or the
+     * contraction hierarchy missing from the snapshot are computed and the
+     * snapshot is written again with them.
+     *
+     * @param snapshotKey the hash of the XML document
+     * @return {@code true} if the plan was loaded from the snapshot
+     */
+    private boolean loadSnapshot(String snapshotKey) {
+        Path file = snapshotDirectory.resolve(snapshotKey + SNAPSHOT_EXTENSION);
+        if (!Files.exists(file)) {
+            return false;
+        }
+        PlanSnapshot snapshot;
+        try {
+            snapshot = PlanSnapshot.read(file);
+        } catch (IOException e) {
+            // An unreadable or outdated snapshot is replaced by the parsed plan
+            return false;
+        }
+
+        resetMap();
+        for (Intersection intersection : snapshot.getIntersections()) {
+            intersectionMap.put(intersection.getId(), intersection);
+            intersections.add(intersection);
+        }
+        sections.addAll(snapshot.getSections());
+        reIndexIntersections();
+        reverseIndexation();
+        roadGraph = snapshot.getRoadGraph();
+        reversedRoadGraph = roadGraph.reverse();
+        if (engine == ShortestPathEngine.ALT && snapshot.getRequestedLandmarks() == nbLandmarks) {
+            landmarks = snapshot.getLandmarks();
+        }
+        if (engine == ShortestPathEngine.CONTRACTION_HIERARCHY && snapshot.getHierarchy() != null) {
+            contractionHierarchy = snapshot.getHierarchy();
+        }
+        boolean missingLandmarks = engine == ShortestPathEngine.ALT && landmarks == null;
+        boolean missingHierarchy = engine == ShortestPathEngine.CONTRACTION_HIERARCHY && contractionHierarchy == null;
+        if (missingLandmarks || missingHierarchy) {
+            preprocessData();
+            saveSnapshot(snapshotKey);
+        }
+        return true;
+    }
+
+    /**
+     * Writes the snapshot of the plan, with the landmarks and the contraction
+     * hierarchy if they are computed. A failure only disables the snapshot.
+     *
+     * @param snapshotKey the hash of the XML document, or {@code null} if
+     *                    snapshots are disabled
+     */
+    private void saveSnapshot(String snapshotKey) {
+        if (snapshotKey == null) {
+            return;
+        }
+        try {
+            PlanSnapshot.write(this, nbLandmarks, snapshotDirectory.resolve(snapshotKey + SNAPSHOT_EXTENSION));
+        } catch (IOException e) {
+            // The plan is parsed again on the next load
+        }
+    }
+
+    /**
+     * Sets the directory where the binary snapshots of the loaded plans are
+     * stored. When set, a plan whose XML file was already loaded is read back
+     * from its snapshot instead of being parsed and preprocessed again.
+     *
+     * @param snapshotDirectory the snapshot directory, or {@code null} to disable
+     *                          snapshots
+     */
+    public void setSnapshotDirectory(Path snapshotDirectory) {
+        this.snapshotDirectory = snapshotDirectory;
+    }
+
     // --------------------------------------------------------------------------------------
 
     /**
      * Reads an XML file from a {@code MultipartFile} and parses its content into
      * the
-     * list of intersections and sections.
+     * list of intersections and sections. The upload is streamed directly from
+     * its input stream, without being copied to a temporary file. The plan
+     * loaded before, if any, is replaced, whether the upload is parsed or read
+     * back from its snapshot.
      *
      * @param file the uploaded XML file
      * @throws Exception if an error occurs during the reading or parsing process
      */
     public void readXmlbyFile(MultipartFile file) throws Exception {
-        File tempFile = null;
-        try {
-            // Convert MultipartFile to a temporary file
-            tempFile = File.createTempFile("uploaded-", ".xml");
-            file.transferTo(tempFile);
-
-            // Parse the XML document
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document document = builder.parse(tempFile);
-
-            // Read intersections
-            NodeList intersectionElements = document.getElementsByTagName("noeud");
-            for (int i = 0; i < intersectionElements.getLength(); i++) {
-                Element element = (Element) intersectionElements.item(i);
-                String id = element.getAttribute("id");
-                double latitude = Double.parseDouble(element.getAttribute("latitude"));
-                double longitude = Double.parseDouble(element.getAttribute("longitude"));
-
-                Intersection intersection = new Intersection();
-                intersection.initialisation(id, latitude, longitude);
-                intersectionMap.put(id, intersection);
-                intersections.add(intersection);
+        String snapshotKey = null;
+        if (snapshotDirectory != null) {
+            try (InputStream input = file.getInputStream()) {
+                snapshotKey = PlanSnapshot.hash(input);
             }
-
-            // Read sections
-            NodeList sectionElements = document.getElementsByTagName("troncon");
-            for (int i = 0; i < sectionElements.getLength(); i++) {
-                Element element = (Element) sectionElements.item(i);
-                String originId = element.getAttribute("origine");
-                String destinationId = element.getAttribute("destination");
-                double length = Double.parseDouble(element.getAttribute("longueur"));
-                String name = element.getAttribute("nomRue");
-
-                Section section = new Section();
-                section.initialisation(originId, destinationId, name, length);
-                sections.add(section);
-            }
-
-            // Validate that all sections have valid intersections
-            for (Section section : sections) {
-                boolean originFound = intersections.stream().anyMatch(i -> i.getId().equals(section.getOrigin()));
-                boolean destinationFound = intersections.stream()
-                        .anyMatch(i -> i.getId().equals(section.getDestination()));
-                if (!originFound || !destinationFound) {
-                    throw new InstanceNotFoundException(
-                            "The XML file is missing required origin or destination intersections.");
-                }
+            if (loadSnapshot(snapshotKey)) {
+                return;
             }
+        }
 
+        resetMap();
+        try (InputStream input = new BufferedInputStream(file.getInputStream())) {
+            // Stream the upload straight into the plan, without a temporary file
+            parseXml(input);
+            checkSectionIntersections();
         } catch (FileNotFoundException e) {
             e.printStackTrace();
             resetMap(); // Clear data on file not found
             throw e;
-        } catch (SAXException e) {
+        } catch (XMLStreamException e) {
             resetMap(); // Clear data on XML parsing error
             throw new Exception("Malformed XML file: " + e.getMessage());
         } catch (NumberFormatException e) {
             resetMap(); // Clear data on numeric parsing error
             throw new NumberFormatException("Invalid numeric value: " + e.getMessage());
-        } finally {
-            // Cleanup temporary file in case of exception
-            if (tempFile != null && tempFile.exists()) {
-                tempFile.delete();
-            }
         }
 
         System.out.println("Number of intersections: " + intersections.size());
         System.out.println("Number of sections: " + sections.size());
+        finishLoading(snapshotKey);
     }
 
     public Map<String, Intersection> getIntersectionMap() {
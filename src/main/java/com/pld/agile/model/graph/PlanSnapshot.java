@@ -0,0 +1,393 @@
+package com.pld.agile.model.graph;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import com.pld.agile.model.entity.Intersection;
+import com.pld.agile.model.entity.Section;
+
+/**
+ * The {@code PlanSnapshot} class reads and writes the binary snapshot of a
+ * preprocessed {@link Plan}, so that a known map is loaded without parsing its
+ * XML file again.
+ *
+ * <p>
+ * A snapshot holds the intersection IDs and coordinates, the road graph in CSR
+ * form with the street name of each edge (interned in a name table), the edge
+ * of each section in the order of the XML file, and optionally the {@link Landmarks} tables and the
+ * {@link ContractionHierarchy}. Strings are stored as offsets into a UTF-8
+ * byte block and every other table as a flat primitive array, so the file is
+ * read with a few bulk copies from a {@link MappedByteBuffer}.
+ * </p>
+ *
+ * <p>
+ * Snapshots are named after the SHA-256 hash of the source XML, see
+ * {@link #hash(InputStream)}.
+ * </p>
+ */
+public final class PlanSnapshot {
+    private static final int MAGIC = 0x504C4453; // "PLDS"
+    private static final int VERSION = 2;
+    private static final int HAS_LANDMARKS = 1;
+    private static final int HAS_HIERARCHY = 2;
+
+    private final List<Intersection> intersections;
+    private final List<Section> sections;
+    private final RoadGraph roadGraph;
+    private final int requestedLandmarks;
+    private final Landmarks landmarks;
+    private final ContractionHierarchy hierarchy;
+
+    private PlanSnapshot(List<Intersection> intersections, List<Section> sections, RoadGraph roadGraph,
+                         int requestedLandmarks, Landmarks landmarks, ContractionHierarchy hierarchy) {
+        this.intersections = intersections;
+        this.sections = sections;
+        this.roadGraph = roadGraph;
+        this.requestedLandmarks = requestedLandmarks;
+        this.landmarks = landmarks;
+        this.hierarchy = hierarchy;
+    }
+
+    /**
+     * Computes the key of an XML document, the hexadecimal SHA-256 hash of its
+     * bytes.
+     *
+     * @param input the XML document
+     * @return the key of the snapshot of the document
+     * @throws IOException if the document cannot be read
+     */
+    public static String hash(InputStream input) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        int read;
+        while ((read = input.read(buffer)) > 0) {
+            digest.update(buffer, 0, read);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Writes the snapshot of a plan. The file is written next to its final
+     * location and then moved, so a concurrent reader never sees a partial
+     * snapshot.
+     *
+     * @param plan               the plan, with its intersections and sections
+     *                           loaded
+     * @param requestedLandmarks the number of landmarks the landmark tables were
+     *                           requested with
+     * @param file               the snapshot file
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Plan plan, int requestedLandmarks, Path file) throws IOException {
+        List<Intersection> intersections = plan.getIntersections();
+        List<Section> sections = plan.getSections();
+        int n = intersections.size();
+        int m = sections.size();
+
+        byte[][] ids = new byte[n][];
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            Intersection intersection = intersections.get(i);
+            ids[i] = intersection.getId().getBytes(StandardCharsets.UTF_8);
+            latitudes[i] = intersection.getLatitude();
+            longitudes[i] = intersection.getLongitude();
+            indexes.put(intersection.getId(), i);
+        }
+
+        // Sections are stored in CSR order, bucketed by origin with a stable counting sort
+        int[] offsets = new int[n + 1];
+        for (Section section : sections) {
+            offsets[indexes.get(section.getOrigin()) + 1]++;
+        }
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+        int[] next = Arrays.copyOf(offsets, n);
+        int[] targets = new int[m];
+        double[] weights = new double[m];
+        int[] nameOfEdge = new int[m];
+        int[] edgeOfSection = new int[m];
+        Map<String, Integer> nameIndexes = new HashMap<>();
+        List<byte[]> names = new ArrayList<>();
+        for (int i = 0; i < m; i++) {
+            Section section = sections.get(i);
+            int slot = next[indexes.get(section.getOrigin())]++;
+            edgeOfSection[i] = slot;
+            targets[slot] = indexes.get(section.getDestination());
+            weights[slot] = section.getLength();
+            Integer name = nameIndexes.get(section.getName());
+            if (name == null) {
+                name = names.size();
+                nameIndexes.put(section.getName(), name);
+                names.add(section.getName().getBytes(StandardCharsets.UTF_8));
+            }
+            nameOfEdge[slot] = name;
+        }
+
+        Landmarks landmarks = plan.getLandmarks();
+        ContractionHierarchy hierarchy = plan.getContractionHierarchy();
+        int flags = (landmarks != null ? HAS_LANDMARKS : 0) | (hierarchy != null ? HAS_HIERARCHY : 0);
+
+        long size = 7L * Integer.BYTES + stringTableSize(ids) + 2L * n * Double.BYTES
+                + (n + 1L + m) * Integer.BYTES + (long) m * Double.BYTES + 2L * m * Integer.BYTES
+                + stringTableSize(names.toArray(new byte[0][]));
+        if (landmarks != null) {
+            int k = landmarks.getNbLandmarks();
+            size += Integer.BYTES + (long) k * Integer.BYTES + 2L * k * n * Double.BYTES;
+        }
+        if (hierarchy != null) {
+            long e = hierarchy.getNbEdges();
+            size += Integer.BYTES + (long) n * Integer.BYTES + e * (4L * Integer.BYTES + Double.BYTES);
+        }
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path tempFile = Files.createTempFile(file.toAbsolutePath().getParent(), "plan-", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(m).putInt(flags)
+                        .putInt(requestedLandmarks).putInt(names.size());
+                putStrings(buffer, ids);
+                putDoubles(buffer, latitudes);
+                putDoubles(buffer, longitudes);
+                putInts(buffer, offsets);
+                putInts(buffer, targets);
+                putDoubles(buffer, weights);
+                putInts(buffer, nameOfEdge);
+                putInts(buffer, edgeOfSection);
+                putStrings(buffer, names.toArray(new byte[0][]));
+                if (landmarks != null) {
+                    buffer.putInt(landmarks.getNbLandmarks());
+                    putInts(buffer, landmarks.getVertices());
+                    putDoubles(buffer, landmarks.getFromLandmark());
+                    putDoubles(buffer, landmarks.getToLandmark());
+                }
+                if (hierarchy != null) {
+                    buffer.putInt(hierarchy.getNbEdges());
+                    putInts(buffer, hierarchy.getRanks());
+                    putInts(buffer, hierarchy.getEdgeFrom());
+                    putInts(buffer, hierarchy.getEdgeTo());
+                    putDoubles(buffer, hierarchy.getEdgeWeights());
+                    putInts(buffer, hierarchy.getEdgeFirstChildren());
+                    putInts(buffer, hierarchy.getEdgeSecondChildren());
+                }
+                buffer.force();
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Reads a snapshot file by mapping it in memory.
+     *
+     * @param file the snapshot file
+     * @return the {@code PlanSnapshot} read
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    public static PlanSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("The file '" + file + "' is not a plan snapshot.");
+            }
+            int n = buffer.getInt();
+            int m = buffer.getInt();
+            int flags = buffer.getInt();
+            int requestedLandmarks = buffer.getInt();
+            int nbNames = buffer.getInt();
+
+            String[] ids = getStrings(buffer, n);
+            double[] latitudes = getDoubles(buffer, n);
+            double[] longitudes = getDoubles(buffer, n);
+            int[] offsets = getInts(buffer, n + 1);
+            int[] targets = getInts(buffer, m);
+            double[] weights = getDoubles(buffer, m);
+            int[] nameOfEdge = getInts(buffer, m);
+            int[] edgeOfSection = getInts(buffer, m);
+            String[] names = getStrings(buffer, nbNames);
+
+            List<Intersection> intersections = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                Intersection intersection = new Intersection();
+                intersection.initialisation(ids[i], latitudes[i], longitudes[i]);
+                intersections.add(intersection);
+            }
+            int[] originOfEdge = new int[m];
+            for (int u = 0; u < n; u++) {
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    originOfEdge[e] = u;
+                }
+            }
+            // Sections are restored in the order of the XML file
+            List<Section> sections = new ArrayList<>(m);
+            for (int e : edgeOfSection) {
+                Section section = new Section();
+                section.initialisation(ids[originOfEdge[e]], ids[targets[e]], names[nameOfEdge[e]], weights[e]);
+                sections.add(section);
+            }
+
+            Landmarks landmarks = null;
+            if ((flags & HAS_LANDMARKS) != 0) {
+                int k = buffer.getInt();
+                int[] vertices = getInts(buffer, k);
+                double[] fromLandmark = getDoubles(buffer, k * n);
+                double[] toLandmark = getDoubles(buffer, k * n);
+                landmarks = new Landmarks(n, vertices, fromLandmark, toLandmark);
+            }
+            ContractionHierarchy hierarchy = null;
+            if ((flags & HAS_HIERARCHY) != 0) {
+                int e = buffer.getInt();
+                int[] rank = getInts(buffer, n);
+                int[] edgeFrom = getInts(buffer, e);
+                int[] edgeTo = getInts(buffer, e);
+                double[] edgeWeight = getDoubles(buffer, e);
+                int[] firstChild = getInts(buffer, e);
+                int[] secondChild = getInts(buffer, e);
+                hierarchy = new ContractionHierarchy(rank, edgeFrom, edgeTo, edgeWeight, firstChild, secondChild);
+            }
+            return new PlanSnapshot(intersections, sections, new RoadGraph(offsets, targets, weights),
+                    requestedLandmarks, landmarks, hierarchy);
+        } catch (RuntimeException e) {
+            // A truncated file makes the buffer reads fail
+            throw new IOException("The plan snapshot '" + file + "' is corrupted.", e);
+        }
+    }
+
+    /**
+     * Returns the size of a string table: the offsets followed by the bytes.
+     */
+    private static long stringTableSize(byte[][] strings) {
+        long size = (strings.length + 1L) * Integer.BYTES;
+        for (byte[] string : strings) {
+            size += string.length;
+        }
+        return size;
+    }
+
+    private static void putStrings(MappedByteBuffer buffer, byte[][] strings) {
+        int offset = 0;
+        buffer.putInt(offset);
+        for (byte[] string : strings) {
+            offset += string.length;
+            buffer.putInt(offset);
+        }
+        for (byte[] string : strings) {
+            buffer.put(string);
+        }
+    }
+
+    private static String[] getStrings(MappedByteBuffer buffer, int count) {
+        int[] offsets = getInts(buffer, count + 1);
+        byte[] bytes = new byte[offsets[count]];
+        buffer.get(bytes);
+        String[] strings = new String[count];
+        for (int i = 0; i < count; i++) {
+            strings[i] = new String(bytes, offsets[i], offsets[i + 1] - offsets[i], StandardCharsets.UTF_8);
+        }
+        return strings;
+    }
+
+    private static void putInts(MappedByteBuffer buffer, int[] values) {
+        buffer.asIntBuffer().put(values);
+        buffer.position(buffer.position() + values.length * Integer.BYTES);
+    }
+
+    private static void putDoubles(MappedByteBuffer buffer, double[] values) {
+        buffer.asDoubleBuffer().put(values);
+        buffer.position(buffer.position() + values.length * Double.BYTES);
+    }
+
+    private static int[] getInts(MappedByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        return values;
+    }
+
+    private static double[] getDoubles(MappedByteBuffer buffer, int count) {
+        double[] values = new double[count];
+        buffer.asDoubleBuffer().get(values);
+        buffer.position(buffer.position() + count * Double.BYTES);
+        return values;
+    }
+
+    /**
+     * Returns the intersections of the snapshot, in index order.
+     *
+     * @return the list of intersections
+     */
+    public List<Intersection> getIntersections() {
+        return intersections;
+    }
+
+    /**
+     * Returns the sections of the snapshot, in the order of the XML file.
+     *
+     * @return the list of sections
+     */
+    public List<Section> getSections() {
+        return sections;
+    }
+
+    /**
+     * Returns the road graph of the snapshot.
+     *
+     * @return the {@code RoadGraph}
+     */
+    public RoadGraph getRoadGraph() {
+        return roadGraph;
+    }
+
+    /**
+     * Returns the number of landmarks the landmark tables were requested with.
+     *
+     * @return the requested number of landmarks
+     */
+    public int getRequestedLandmarks() {
+        return requestedLandmarks;
+    }
+
+    /**
+     * Returns the landmark tables of the snapshot.
+     *
+     * @return the {@code Landmarks}, or {@code null} if the snapshot has none
+     */
+    public Landmarks getLandmarks() {
+        return landmarks;
+    }
+
+    /**
+     * Returns the contraction hierarchy of the snapshot.
+     *
+     * @return the {@code ContractionHierarchy}, or {@code null} if the snapshot
+     * has none
+     */
+    public ContractionHierarchy getHierarchy() {
+        return hierarchy;
+    }
+}
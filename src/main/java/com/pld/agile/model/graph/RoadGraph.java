@@ -0,0 +1,217 @@
+package com.pld.agile.model.graph;
+
+import java.util.List;
+import java.util.Map;
+
+import com.pld.agile.model.entity.Section;
+
+/**
+ * The {@code RoadGraph} class stores the road network of a {@link Plan} as a
+ * compressed sparse row (CSR) adjacency structure.
+ *
+ * <p>
+ * The outgoing edges of vertex {@code u} are stored in the index range
+ * {@code [offsets[u], offsets[u + 1])} of the {@code targets} and
+ * {@code weights} arrays. Only primitive arrays are used, so the memory
+ * footprint grows with the number of sections and not with the square of the
+ * number of intersections.
+ * </p>
+ */
+public final class RoadGraph {
+    private final int nbVertices;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+
+    /**
+     * Builds a road graph from parallel arrays describing its directed edges.
+     * The edges are bucketed by origin with a counting sort, so the
+     * construction runs in {@code O(V + E)}.
+     *
+     * @param nbVertices   the number of vertices in the graph
+     * @param origins      the origin vertex of each edge
+     * @param destinations the destination vertex of each edge
+     * @param lengths      the length of each edge
+     * @param nbEdges      the number of edges stored in the three arrays
+     */
+    public RoadGraph(int nbVertices, int[] origins, int[] destinations, double[] lengths, int nbEdges) {
+        this.nbVertices = nbVertices;
+        this.offsets = new int[nbVertices + 1];
+        this.targets = new int[nbEdges];
+        this.weights = new double[nbEdges];
+
+        // Count the outgoing edges of each vertex
+        for (int e = 0; e < nbEdges; e++) {
+            offsets[origins[e] + 1]++;
+        }
+        for (int u = 0; u < nbVertices; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+
+        // Place each edge in the bucket of its origin
+        int[] next = new int[nbVertices];
+        System.arraycopy(offsets, 0, next, 0, nbVertices);
+        for (int e = 0; e < nbEdges; e++) {
+            int slot = next[origins[e]]++;
+            targets[slot] = destinations[e];
+            weights[slot] = lengths[e];
+        }
+    }
+
+    /**
+     * Wraps already built CSR arrays without copying them.
+     *
+     * @param offsets the edge offsets of each vertex, of length {@code nbVertices + 1}
+     * @param targets the destination vertex of each edge
+     * @param weights the length of each edge
+     */
+    public RoadGraph(int[] offsets, int[] targets, double[] weights) {
+        this.nbVertices = offsets.length - 1;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Builds the road graph of a plan from its sections, using the given index
+     * of intersection IDs.
+     *
+     * @param nbVertices the number of intersections of the plan
+     * @param sections   the sections of the plan
+     * @param indexes    the index of each intersection ID
+     * @return the {@code RoadGraph} containing one edge per section
+     */
+    public static RoadGraph fromSections(int nbVertices, List<Section> sections, Map<String, Integer> indexes) {
+        int nbEdges = sections.size();
+        int[] origins = new int[nbEdges];
+        int[] destinations = new int[nbEdges];
+        double[] lengths = new double[nbEdges];
+        int e = 0;
+        for (Section section : sections) {
+            origins[e] = indexes.get(section.getOrigin());
+            destinations[e] = indexes.get(section.getDestination());
+            lengths[e] = section.getLength();
+            e++;
+        }
+        return new RoadGraph(nbVertices, origins, destinations, lengths, nbEdges);
+    }
+
+    /**
+     * Builds the graph with the same vertices and every edge reversed.
+     *
+     * @return the reversed {@code RoadGraph}
+     */
+    public RoadGraph reverse() {
+        int nbEdges = targets.length;
+        int[] origins = new int[nbEdges];
+        for (int u = 0; u < nbVertices; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                origins[e] = u;
+            }
+        }
+        return new RoadGraph(nbVertices, targets, origins, weights, nbEdges);
+    }
+
+    /**
+     * Returns the number of vertices in the graph.
+     *
+     * @return the number of vertices
+     */
+    public int getNbVertices() {
+        return nbVertices;
+    }
+
+    /**
+     * Returns the number of directed edges in the graph.
+     *
+     * @return the number of edges
+     */
+    public int getNbEdges() {
+        return targets.length;
+    }
+
+    /**
+     * Returns the index of the first outgoing edge of a vertex.
+     *
+     * @param u the vertex
+     * @return the index of the first edge leaving {@code u}
+     */
+    public int firstEdge(int u) {
+        return offsets[u];
+    }
+
+    /**
+     * Returns the index following the last outgoing edge of a vertex.
+     *
+     * @param u the vertex
+     * @return the exclusive upper bound of the edges leaving {@code u}
+     */
+    public int endEdge(int u) {
+        return offsets[u + 1];
+    }
+
+    /**
+     * Returns the destination vertex of an edge.
+     *
+     * @param e the edge index
+     * @return the vertex the edge points to
+     */
+    public int target(int e) {
+        return targets[e];
+    }
+
+    /**
+     * Returns the length of an edge.
+     *
+     * @param e the edge index
+     * @return the length of the edge
+     */
+    public double weight(int e) {
+        return weights[e];
+    }
+
+    /**
+     * Returns the length of the shortest direct edge between two vertices.
+     *
+     * @param u the origin vertex
+     * @param v the destination vertex
+     * @return the length of the edge from {@code u} to {@code v}, or
+     * {@code Double.MAX_VALUE} if there is none
+     */
+    public double edgeWeight(int u, int v) {
+        double best = Double.MAX_VALUE;
+        for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+            if (targets[e] == v && weights[e] < best) {
+                best = weights[e];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the offsets array of the CSR structure.
+     *
+     * @return the edge offsets of each vertex
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * Returns the targets array of the CSR structure.
+     *
+     * @return the destination vertex of each edge
+     */
+    public int[] getTargets() {
+        return targets;
+    }
+
+    /**
+     * Returns the weights array of the CSR structure.
+     *
+     * @return the length of each edge
+     */
+    public double[] getWeights() {
+        return weights;
+    }
+}
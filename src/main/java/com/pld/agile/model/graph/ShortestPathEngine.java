@@ -0,0 +1,28 @@
+package com.pld.agile.model.graph;
+
+/**
+ * The {@code ShortestPathEngine} enum lists the algorithms a {@link Plan} can
+ * use to answer point-to-point shortest path queries.
+ */
+public enum ShortestPathEngine {
+    /**
+     * Dijkstra's algorithm, without any preprocessing.
+     */
+    DIJKSTRA,
+
+    /**
+     * A* search guided by the haversine distance to the destination.
+     */
+    A_STAR,
+
+    /**
+     * A* search guided by landmark distance tables and the haversine distance,
+     * computed once per plan.
+     */
+    ALT,
+
+    /**
+     * Bidirectional search on a contraction hierarchy, computed once per plan.
+     */
+    CONTRACTION_HIERARCHY
+}
@@ -0,0 +1,98 @@
+package com.pld.agile.model.graph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code ShortestPathTree} class holds the result of a one-to-many
+ * shortest path search: the distance from one origin to each requested target
+ * and the path leading to it, extracted from the predecessor tree of the
+ * search.
+ */
+public class ShortestPathTree {
+    private final int origin;
+    private final int[] targets;
+    private final double[] distances;
+    private final int[][] paths;
+
+    /**
+     * Constructs a shortest path tree.
+     *
+     * @param origin    the index of the origin node
+     * @param targets   the indices of the target nodes
+     * @param distances the distance to each target, or {@code -1} if it is
+     *                  unreachable
+     * @param paths     the node indices of the path to each target, empty if it
+     *                  is unreachable
+     */
+    public ShortestPathTree(int origin, int[] targets, double[] distances, int[][] paths) {
+        this.origin = origin;
+        this.targets = targets;
+        this.distances = distances;
+        this.paths = paths;
+    }
+
+    /**
+     * Returns the origin of the search.
+     *
+     * @return the index of the origin node
+     */
+    public int getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Returns the number of targets of the search.
+     *
+     * @return the number of targets
+     */
+    public int getNbTargets() {
+        return targets.length;
+    }
+
+    /**
+     * Returns the node index of the i-th target.
+     *
+     * @param i the position of the target
+     * @return the index of the target node
+     */
+    public int getTarget(int i) {
+        return targets[i];
+    }
+
+    /**
+     * Returns the shortest distance from the origin to the i-th target.
+     *
+     * @param i the position of the target
+     * @return the distance, or {@code -1} if the target is unreachable
+     */
+    public double getDistance(int i) {
+        return distances[i];
+    }
+
+    /**
+     * Returns the shortest path from the origin to the i-th target.
+     *
+     * @param i the position of the target
+     * @return the node indices from the origin to the target, empty if the target
+     * is unreachable
+     */
+    public int[] getPathArray(int i) {
+        return paths[i];
+    }
+
+    /**
+     * Returns the shortest path from the origin to the i-th target as a list.
+     *
+     * @param i the position of the target
+     * @return the list of node indices from the origin to the target, empty if the
+     * target is unreachable
+     */
+    public List<Integer> getPath(int i) {
+        List<Integer> path = new ArrayList<>(paths[i].length);
+        for (int node : paths[i]) {
+            path.add(node);
+        }
+        return path;
+    }
+}
@@ -4,6 +4,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.pld.agile.model.algorithm.bnb.BranchAndBound;
+import com.pld.agile.model.algorithm.bound.LowerBound;
+import com.pld.agile.model.algorithm.Deadline;
 import com.pld.agile.model.graph.CompleteGraph;
 
 /**
@@ -24,7 +26,6 @@ import com.pld.agile.model.graph.CompleteGraph;
 public class BnBStrategy implements SolvingStrategy {
     private BranchAndBound bnb;
     private List<Integer> bestPath;
-    private double bestCost;
 
     /**
      * Constructs a new {@code BnBStrategy} instance.
@@ -39,22 +40,33 @@ public class BnBStrategy implements SolvingStrategy {
         this.bestPath = new ArrayList<>();
     }
 
+    /**
+     * Constructs a new {@code BnBStrategy} instance pruning with a lower bound.
+     *
+     * @param lowerBound the lower bound used by the {@link BranchAndBound} solver
+     */
+    public BnBStrategy(LowerBound lowerBound) {
+        this.bnb = new BranchAndBound(lowerBound);
+        this.bestPath = new ArrayList<>();
+    }
+
     /**
      * Solves the Traveling Salesman Problem (TSP) using the Branch and Bound algorithm.
      * 
      * <p>
      * The method takes a {@link CompleteGraph} object represented by a cost matrix, 
      * sets it in the {@link BranchAndBound} solver, and computes the optimal solution 
-     * including the best cost and path.
+     * including the best cost and path, or the best one found before the deadline.
      * </p>
      *
      * @param completeGraph the complete graph represented as a cost matrix, where 
      *                      each entry indicates the cost (or distance) between two vertices
+     * @param deadline      the deadline of the search
      */
     @Override
-    public void solve(CompleteGraph completeGraph) {
+    public void solve(CompleteGraph completeGraph, Deadline deadline) {
         bnb.setCompleteGraph(completeGraph);
-        bnb.findBestCost();
+        bnb.findBestCost(deadline);
     }
 
     /**
@@ -84,7 +96,7 @@ public class BnBStrategy implements SolvingStrategy {
      */
     @Override
     public double getBestCost() {
-        return bestCost;
+        return bnb.getBestCost();
     }
 
     /**
@@ -101,4 +113,15 @@ public class BnBStrategy implements SolvingStrategy {
     public boolean getTimeExceeded() {
         return bnb.getTimeExceeded();
     }
+
+    /**
+     * Checks whether the best path is proven optimal, that is whether the search
+     * tree was explored before the deadline.
+     *
+     * @return {@code true} if the best path is optimal
+     */
+    @Override
+    public boolean isOptimal() {
+        return !getTimeExceeded();
+    }
 }
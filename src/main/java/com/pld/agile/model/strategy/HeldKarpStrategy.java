@@ -0,0 +1,90 @@
+package com.pld.agile.model.strategy;
+
+import java.util.List;
+
+import com.pld.agile.model.algorithm.bound.LagrangianBound;
+import com.pld.agile.model.algorithm.heldkarp.HeldKarp;
+import com.pld.agile.model.algorithm.Deadline;
+import com.pld.agile.model.graph.CompleteGraph;
+
+/**
+ * The {@code HeldKarpStrategy} class implements the {@code SolvingStrategy}
+ * interface with the {@link HeldKarp} dynamic program, which gives the optimal
+ * tour of a small graph in a predictable time.
+ *
+ * <p>
+ * Graphs whose tables would not fit in memory are delegated to a
+ * {@link ParallelBnBStrategy} pruning with a {@link LagrangianBound} instead.
+ * </p>
+ */
+public class HeldKarpStrategy implements SolvingStrategy {
+    private final HeldKarp heldKarp;
+    private SolvingStrategy fallback;
+
+    /**
+     * Constructs a new {@code HeldKarpStrategy} instance.
+     */
+    public HeldKarpStrategy() {
+        this.heldKarp = new HeldKarp();
+    }
+
+    /**
+     * Solves the Traveling Salesman Problem (TSP) with the Held-Karp algorithm,
+     * or with the parallel Branch and Bound algorithm if the graph is too large.
+     *
+     * @param completeGraph the complete graph represented as a cost matrix
+     * @param deadline      the deadline of the computation
+     */
+    @Override
+    public void solve(CompleteGraph completeGraph, Deadline deadline) {
+        if (HeldKarp.fits(completeGraph.getNbVertices())) {
+            fallback = null;
+            heldKarp.solve(completeGraph, deadline);
+        } else {
+            fallback = new ParallelBnBStrategy(LagrangianBound::new);
+            fallback.solve(completeGraph, deadline);
+        }
+    }
+
+    /**
+     * Returns the best path found, starting and ending at vertex 0.
+     *
+     * @return the best path as a {@code List<Integer>} of vertex indices
+     */
+    @Override
+    public List<Integer> getBestPath() {
+        return fallback != null ? fallback.getBestPath() : heldKarp.getBestPath();
+    }
+
+    /**
+     * Returns the cost of the best path found.
+     *
+     * @return the best cost as a {@code double} value
+     */
+    @Override
+    public double getBestCost() {
+        return fallback != null ? fallback.getBestCost() : heldKarp.getBestCost();
+    }
+
+    /**
+     * Checks if the deadline was reached before the optimal tour was computed,
+     * in which case the best path is a nearest neighbour tour.
+     *
+     * @return {@code true} if the time limit was exceeded, {@code false} otherwise
+     */
+    @Override
+    public boolean getTimeExceeded() {
+        return fallback != null ? fallback.getTimeExceeded() : heldKarp.getTimeExceeded();
+    }
+
+    /**
+     * Checks whether the best path is proven optimal, that is whether the search
+     * tree was explored before the deadline.
+     *
+     * @return {@code true} if the best path is optimal
+     */
+    @Override
+    public boolean isOptimal() {
+        return !getTimeExceeded();
+    }
+}
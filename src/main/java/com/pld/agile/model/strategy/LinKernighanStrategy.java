@@ -0,0 +1,97 @@
+package com.pld.agile.model.strategy;
+
+import java.util.List;
+
+import com.pld.agile.model.algorithm.lk.LinKernighan;
+import com.pld.agile.model.algorithm.Deadline;
+import com.pld.agile.model.graph.CompleteGraph;
+
+/**
+ * The {@code LinKernighanStrategy} class implements the {@code SolvingStrategy}
+ * interface with the iterated {@link LinKernighan} heuristic.
+ *
+ * <p>
+ * Unlike the exact strategies, it does not prove that its tour is optimal, but
+ * it finds tours close to the optimum for tours of dozens of delivery points,
+ * which the exact strategies cannot solve within their time limit.
+ * </p>
+ */
+public class LinKernighanStrategy implements SolvingStrategy {
+    /**
+     * The default time given to the heuristic, in milliseconds.
+     */
+    public static final long DEFAULT_TIME_LIMIT = 1000;
+
+    private final LinKernighan linKernighan;
+    private final long timeLimit;
+
+    /**
+     * Constructs a new {@code LinKernighanStrategy} with the default time limit.
+     */
+    public LinKernighanStrategy() {
+        this(DEFAULT_TIME_LIMIT);
+    }
+
+    /**
+     * Constructs a new {@code LinKernighanStrategy} with the given time limit.
+     *
+     * @param timeLimit the time given to the heuristic, in milliseconds
+     */
+    public LinKernighanStrategy(long timeLimit) {
+        this.linKernighan = new LinKernighan();
+        this.timeLimit = timeLimit;
+    }
+
+    /**
+     * Searches a short tour with the Lin-Kernighan heuristic, within the time
+     * limit of this strategy.
+     *
+     * @param completeGraph the complete graph represented as a cost matrix
+     */
+    @Override
+    public void solve(CompleteGraph completeGraph) {
+        solve(completeGraph, Deadline.after(timeLimit));
+    }
+
+    /**
+     * Searches a short tour with the Lin-Kernighan heuristic until the deadline.
+     *
+     * @param completeGraph the complete graph represented as a cost matrix
+     * @param deadline      the deadline of the search
+     */
+    @Override
+    public void solve(CompleteGraph completeGraph, Deadline deadline) {
+        linKernighan.solve(completeGraph, deadline);
+    }
+
+    /**
+     * Returns the best path found, starting and ending at vertex 0.
+     *
+     * @return the best path as a {@code List<Integer>} of vertex indices
+     */
+    @Override
+    public List<Integer> getBestPath() {
+        return linKernighan.getBestPath();
+    }
+
+    /**
+     * Returns the cost of the best path found.
+     *
+     * @return the best cost as a {@code double} value
+     */
+    @Override
+    public double getBestCost() {
+        return linKernighan.getBestCost();
+    }
+
+    /**
+     * Indicates whether the time limit ended the search before every kick was
+     * tried. The best tour found is returned either way.
+     *
+     * @return {@code true} if the time limit was exceeded, {@code false} otherwise
+     */
+    @Override
+    public boolean getTimeExceeded() {
+        return linKernighan.getTimeExceeded();
+    }
+}
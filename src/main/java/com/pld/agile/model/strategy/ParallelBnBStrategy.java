@@ -0,0 +1,95 @@
+package com.pld.agile.model.strategy;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import com.pld.agile.model.algorithm.bnb.ParallelBranchAndBound;
+import com.pld.agile.model.algorithm.bound.LowerBound;
+import com.pld.agile.model.algorithm.Deadline;
+import com.pld.agile.model.graph.CompleteGraph;
+
+/**
+ * The {@code ParallelBnBStrategy} class implements the {@code SolvingStrategy}
+ * interface with the multi-threaded {@link ParallelBranchAndBound} algorithm.
+ *
+ * <p>
+ * It finds the same tours as {@link BnBStrategy}, but the search tree is
+ * explored by all the threads of the common fork/join pool, which lets larger
+ * tours be proven optimal within the time limit.
+ * </p>
+ */
+public class ParallelBnBStrategy implements SolvingStrategy {
+    private final ParallelBranchAndBound bnb;
+
+    /**
+     * Constructs a new {@code ParallelBnBStrategy} instance.
+     */
+    public ParallelBnBStrategy() {
+        this.bnb = new ParallelBranchAndBound();
+    }
+
+    /**
+     * Constructs a new {@code ParallelBnBStrategy} instance pruning with lower
+     * bounds.
+     *
+     * @param lowerBounds the supplier of the lower bound of each search task
+     */
+    public ParallelBnBStrategy(Supplier<LowerBound> lowerBounds) {
+        this.bnb = new ParallelBranchAndBound(lowerBounds);
+    }
+
+    /**
+     * Solves the Traveling Salesman Problem (TSP) with the parallel Branch and
+     * Bound algorithm, until the deadline.
+     *
+     * @param completeGraph the complete graph represented as a cost matrix
+     * @param deadline      the deadline of the search
+     */
+    @Override
+    public void solve(CompleteGraph completeGraph, Deadline deadline) {
+        bnb.setCompleteGraph(completeGraph);
+        bnb.findBestCost(deadline);
+    }
+
+    /**
+     * Returns the best path found, starting and ending at vertex 0.
+     *
+     * @return the best path as a {@code List<Integer>} of vertex indices
+     */
+    @Override
+    public List<Integer> getBestPath() {
+        return bnb.getBestPath();
+    }
+
+    /**
+     * Returns the cost of the best path found.
+     *
+     * @return the best cost as a {@code double} value
+     */
+    @Override
+    public double getBestCost() {
+        return bnb.getBestCost();
+    }
+
+    /**
+     * Checks if the search was stopped by the time limit before the tour was
+     * proven optimal.
+     *
+     * @return {@code true} if the time limit was exceeded, {@code false} otherwise
+     */
+    @Override
+    public boolean getTimeExceeded() {
+        return bnb.getTimeExceeded();
+    }
+
+    /**
+     * Checks whether the best path is proven optimal, that is whether the search
+     * tree was explored before the deadline.
+     *
+     * @return {@code true} if the best path is optimal
+     */
+    @Override
+    public boolean isOptimal() {
+        return !getTimeExceeded();
+    }
+}
@@ -2,6 +2,7 @@ package com.pld.agile.model.strategy;
 
 import java.util.List;
 
+import com.pld.agile.model.algorithm.Deadline;
 import com.pld.agile.model.graph.CompleteGraph;
 
 /**
@@ -24,9 +25,14 @@ import com.pld.agile.model.graph.CompleteGraph;
  * @since 2024-04-27
  */
 public interface SolvingStrategy {
+    /**
+     * The default time budget of {@link #solve(CompleteGraph)}, in milliseconds.
+     */
+    long DEFAULT_TIME_LIMIT = 20000;
 
     /**
-     * Solves the Traveling Salesman Problem (TSP) based on the provided graph.
+     * Solves the Traveling Salesman Problem (TSP) based on the provided graph,
+     * within the default time budget.
      * 
      * <p>
      * Implementing classes will use their specific algorithm to compute the 
@@ -35,7 +41,24 @@ public interface SolvingStrategy {
      *
      * @param graph the {@link CompleteGraph} representing the problem as a cost matrix
      */
-    void solve(CompleteGraph graph);
+    default void solve(CompleteGraph graph) {
+        solve(graph, Deadline.after(DEFAULT_TIME_LIMIT));
+    }
+
+    /**
+     * Solves the Traveling Salesman Problem (TSP) based on the provided graph,
+     * until the deadline is reached or cancelled.
+     *
+     * <p>
+     * The search is anytime: {@link #getBestPath()} and {@link #getBestCost()}
+     * may be called from another thread while it runs, and return the best tour
+     * found so far.
+     * </p>
+     *
+     * @param graph    the {@link CompleteGraph} representing the problem as a cost matrix
+     * @param deadline the deadline of the search
+     */
+    void solve(CompleteGraph graph, Deadline deadline);
 
     /**
      * Retrieves the best path found by the strategy after solving the TSP.
@@ -72,4 +95,15 @@ public interface SolvingStrategy {
      * @return {@code true} if the time limit was exceeded, {@code false} otherwise
      */
     boolean getTimeExceeded();
+
+    /**
+     * Checks whether the best path is proven optimal, which is the case when an
+     * exact algorithm completed its search before its deadline.
+     *
+     * @return {@code true} if the best path is optimal, {@code false} if it is
+     *         only the best one found
+     */
+    default boolean isOptimal() {
+        return false;
+    }
 }
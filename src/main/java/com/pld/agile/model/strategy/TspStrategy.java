@@ -3,6 +3,7 @@ package com.pld.agile.model.strategy;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.pld.agile.model.algorithm.Deadline;
 import com.pld.agile.model.algorithm.tsp.TSP;
 import com.pld.agile.model.algorithm.tsp.TSP1;
 import com.pld.agile.model.graph.CompleteGraph;
@@ -25,17 +26,14 @@ import com.pld.agile.model.graph.CompleteGraph;
  */
 public class TspStrategy implements SolvingStrategy {
     private TSP tsp;
-    private List<Integer> bestPath;
-    private double bestCost;
+    private int nbVertices;
 
     /**
      * Constructs a new {@code TspStrategy} instance, initializing the {@code TSP} solver
-     * with a default implementation ({@link TSP1}) and preparing an empty list to
-     * store the best path.
+     * with a default implementation ({@link TSP1}).
      */
     public TspStrategy() {
         this.tsp = new TSP1(); // Initializing with a specific TSP implementation
-        this.bestPath = new ArrayList<>();
     }
 
     /**
@@ -43,28 +41,22 @@ public class TspStrategy implements SolvingStrategy {
      * 
      * <p>
      * This method employs the {@link TSP} solver to compute the optimal solution
-     * for the TSP within a fixed iteration limit. The best path and cost are then
-     * stored for retrieval.
+     * for the TSP until the deadline. The best path and cost are then available
+     * for retrieval.
      * </p>
      *
-     * @param g the {@link CompleteGraph} representing the cost matrix of the graph
+     * @param g        the {@link CompleteGraph} representing the cost matrix of the graph
+     * @param deadline the deadline of the search
      */
     @Override
-    public void solve(CompleteGraph g) {
+    public void solve(CompleteGraph g, Deadline deadline) {
         long startTime = System.currentTimeMillis(); // Start time tracking
-        tsp.searchSolution(20000, g); // Solve with an iteration limit of 20,000
+        nbVertices = g.getNbVertices();
+        tsp.searchSolution(deadline, g);
 
         // Log the solution details
-        System.out.print("Classic solver solution of cost " + tsp.getSolutionCost() + " found in "
-                + (System.currentTimeMillis() - startTime) + "ms: ");
-
-        // Retrieve and store the solution path
-        for (int i = 0; i < g.getNbVertices(); i++) {
-            int iSol = tsp.getSolution(i);
-            System.out.print(iSol + " ");
-            bestPath.add(iSol);
-        }
-        System.out.println("0"); // Return to the starting point
+        System.out.println("Classic solver solution of cost " + tsp.getSolutionCost() + " found in "
+                + (System.currentTimeMillis() - startTime) + "ms: " + getBestPath());
     }
 
     /**
@@ -73,14 +65,24 @@ public class TspStrategy implements SolvingStrategy {
      * <p>
      * The best path represents the optimal order of vertices to visit to minimize
      * the total travel cost. The path is a closed loop, returning to the starting
-     * point.
+     * point. It is empty if no solution was found yet.
      * </p>
      *
      * @return the best path as a {@code List<Integer>} of vertex indices
      */
     @Override
     public List<Integer> getBestPath() {
-        bestPath.add(bestPath.get(0)); // Ensure the path loops back to the start
+        List<Integer> bestPath = new ArrayList<>(nbVertices + 1);
+        for (int i = 0; i < nbVertices; i++) {
+            Integer iSol = tsp.getSolution(i);
+            if (iSol == null || iSol < 0) {
+                return new ArrayList<>();
+            }
+            bestPath.add(iSol);
+        }
+        if (!bestPath.isEmpty()) {
+            bestPath.add(bestPath.get(0)); // Ensure the path loops back to the start
+        }
         return bestPath;
     }
 
@@ -96,21 +98,28 @@ public class TspStrategy implements SolvingStrategy {
      */
     @Override
     public double getBestCost() {
-        return bestCost;
+        return tsp.getSolutionCost();
     }
 
     /**
      * Indicates whether the solving process exceeded the time limit.
      * 
-     * <p>
-     * This implementation always returns {@code false} as the TSP solver in this
-     * strategy does not include time-based termination.
-     * </p>
-     *
-     * @return {@code false} to indicate that no time limit was exceeded
+     * @return {@code true} if the deadline was reached before the search tree
+     *         was explored, {@code false} otherwise
      */
     @Override
     public boolean getTimeExceeded() {
-        return false;
+        return tsp.getTimeExceeded();
+    }
+
+    /**
+     * Checks whether the best path is proven optimal, that is whether the search
+     * tree was explored before the deadline.
+     *
+     * @return {@code true} if the best path is optimal
+     */
+    @Override
+    public boolean isOptimal() {
+        return !getTimeExceeded();
     }
 }
@@ -1,12 +1,24 @@
 package com.pld.agile.model.entity;
 
+import com.pld.agile.model.graph.DijkstraSearch;
+import com.pld.agile.model.graph.GoalDirectedSearch;
+import com.pld.agile.model.graph.Landmarks;
+import com.pld.agile.model.graph.PathCache;
 import com.pld.agile.model.graph.Plan;
+import com.pld.agile.model.graph.RoadGraph;
+import com.pld.agile.model.graph.ShortestPathEngine;
+import com.pld.agile.model.graph.ShortestPathTree;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
 
 import javax.management.InstanceNotFoundException;
 import java.io.FileNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -74,6 +86,18 @@ class PlanTest {
                 "Error message does not match for invalid numeric data.");
     }
 
+    @Test
+    void testUploadWithInvalidData() throws Exception {
+        Plan plan = new Plan();
+        byte[] content = Files.readAllBytes(Path.of("src/test/java/com/pld/agile/model/entity/planTestInvalidData.xml"));
+
+        Exception exception = assertThrows(NumberFormatException.class,
+                () -> plan.readXmlbyFile(new MockMultipartFile("file", content)));
+
+        assertTrue(exception.getMessage().startsWith("Invalid numeric value: "), exception.getMessage());
+        assertTrue(plan.getIntersections().isEmpty(), "The plan should be cleared after a parsing error.");
+    }
+
     @Test
     void testNoIntersectionCorrespondingToSection() {
         Plan plan = new Plan();
@@ -95,4 +119,293 @@ class PlanTest {
         assertTrue(exception.getMessage().contains("Malformed XML file"),
                 "Error message does not match for a malformed XML file.");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testReadingAPlanReplacesThePreviousOne(@TempDir Path snapshotDirectory) throws Exception {
+        String small = "src/test/java/com/pld/agile/model/entity/planTestValidData.xml";
+        String large = "src/test/java/com/pld/agile/model/strategy/petitPlanTest.xml";
+        Plan expected = new Plan();
+        expected.readXml(small);
+
+        // Parsed without snapshots, then parsed and read back from a snapshot
+        plan.readXml(large);
+        plan.readXml(small);
+        assertEquals(expected.getIntersections().size(), plan.getIntersections().size());
+        assertEquals(expected.getSections().size(), plan.getSections().size());
+
+        plan.setSnapshotDirectory(snapshotDirectory);
+        plan.readXml(small);
+        plan.readXml(large);
+        plan.readXml(small);
+        assertEquals(expected.getIntersections().size(), plan.getIntersections().size());
+        assertEquals(expected.getSections().size(), plan.getSections().size());
+    }
+
+    @Test
+    void testPreprocessDataBuildsRoadGraph() throws Exception {
+        plan.readXml("src/test/java/com/pld/agile/model/entity/planTestValidData.xml");
+        plan.preprocessData();
+
+        RoadGraph graph = plan.getRoadGraph();
+        assertEquals(4, graph.getNbVertices(), "Incorrect number of vertices.");
+        assertEquals(2, graph.getNbEdges(), "Incorrect number of edges.");
+
+        int origin = plan.getIndexById("21993013");
+        int destination = plan.getIndexById("21992980");
+        assertEquals(75.947624, graph.edgeWeight(origin, destination), 0.00001);
+        assertEquals(Double.MAX_VALUE, graph.edgeWeight(destination, origin));
+
+        assertEquals(75.947624, plan.findShortestDistance(origin, destination), 0.00001);
+        assertEquals(List.of(origin, destination), plan.findShortestPath(origin, destination));
+        assertEquals(-1, plan.findShortestDistance(destination, origin));
+    }
+
+    @Test
+    void testOneToManyMatchesPointToPoint() throws Exception {
+        plan.readXml("src/test/java/com/pld/agile/model/strategy/petitPlanTest.xml");
+        plan.preprocessData();
+
+        List<Integer> targets = plan.formatInput(List.of("208769457", "25336179", "208769039", "26317229"));
+        for (int origin : targets) {
+            ShortestPathTree tree = plan.findShortestPaths(origin, targets);
+            for (int i = 0; i < targets.size(); i++) {
+                int target = targets.get(i);
+                assertEquals(plan.findShortestDistance(origin, target), tree.getDistance(i), 0.00001);
+                assertEquals(plan.findShortestPath(origin, target), tree.getPath(i));
+            }
+        }
+    }
+
+    @Test
+    void testComputeTourReusesCachedPaths() throws Exception {
+        plan.readXml("src/test/java/com/pld/agile/model/strategy/petitPlanTest.xml");
+        plan.preprocessData();
+
+        List<Integer> stops = plan.formatInput(List.of("208769457", "25336179", "208769039"));
+        for (int origin : stops) {
+            plan.findShortestPaths(origin, stops);
+        }
+        PathCache cache = plan.getPathCache();
+        long misses = cache.getMisses();
+
+        List<Intersection> tour = plan.computeTour(List.of(stops.get(0), stops.get(1), stops.get(2), stops.get(0)));
+        assertEquals(misses, cache.getMisses(), "Every leg of the tour should come from the cache.");
+        assertEquals("208769457", tour.getFirst().getId());
+
+        plan.preprocessData();
+        assertTrue(cache.size() > 0, "The cache should survive until the plan changes.");
+        plan.resetMap();
+        assertEquals(0, cache.size(), "The cache should be invalidated with the plan indexes.");
+    }
+
+    @Test
+    void testPreprocessingIsComputedOncePerMap() throws Exception {
+        plan.readXml("src/test/java/com/pld/agile/model/strategy/petitPlanTest.xml");
+        plan.preprocessData();
+        RoadGraph graph = plan.getRoadGraph();
+        long version = plan.getVersion();
+
+        plan.preprocessData();
+        assertSame(graph, plan.getRoadGraph(), "The road graph should not be rebuilt for the same map.");
+        assertEquals(version, plan.getVersion());
+
+        plan.resetMap();
+        plan.readXml("src/test/java/com/pld/agile/model/strategy/petitPlanTest.xml");
+        plan.preprocessData();
+        assertNotSame(graph, plan.getRoadGraph());
+        assertNotEquals(version, plan.getVersion(), "Loading a map should start a new version.");
+    }
+
+    @Test
+    void testContractionHierarchyMatchesDijkstra() throws Exception {
+        plan.readXml("src/test/java/com/pld/agile/model/strategy/petitPlanTest.xml");
+        plan.preprocessData();
+        Plan chPlan = new Plan();
+        chPlan.setShortestPathEngine(ShortestPathEngine.CONTRACTION_HIERARCHY);
+        chPlan.readXml("src/test/java/com/pld/agile/model/strategy/petitPlanTest.xml");
+        assertNotNull(chPlan.getContractionHierarchy(), "The hierarchy should be built after reading the plan.");
+
+        RoadGraph graph = plan.getRoadGraph();
+        int n = graph.getNbVertices();
+        for (int origin = 0; origin < n; origin += 7) {
+            for (int destination = 0; destination < n; destination += 3) {
+                double expected = plan.findShortestDistance(origin, destination);
+                assertEquals(expected, chPlan.findShortestDistance(origin, destination), 0.00001);
+
+                List<Integer> path = chPlan.findShortestPath(origin, destination);
+                if (expected < 0) {
+                    assertTrue(path.isEmpty());
+                    continue;
+                }
+                assertEquals(origin, path.getFirst());
+                assertEquals(destination, path.getLast());
+                double length = 0;
+                for (int i = 0; i + 1 < path.size(); i++) {
+                    length += graph.edgeWeight(path.get(i), path.get(i + 1));
+                }
+                assertEquals(expected, length, 0.00001);
+            }
+        }
+
+        List<Integer> stops = plan.formatInput(List.of("208769457", "25336179", "208769039", "26317229"));
+        double[][] expected = plan.findDistanceMatrix(stops);
+        double[][] actual = chPlan.findDistanceMatrix(stops);
+        for (int i = 0; i < stops.size(); i++) {
+            assertArrayEquals(expected[i], actual[i], 0.00001);
+        }
+    }
+
+    @Test
+    void testGoalDirectedEnginesMatchDijkstra() throws Exception {
+        plan.readXml("src/test/java/com/pld/agile/model/strategy/petitPlanTest.xml");
+        plan.preprocessData();
+        int n = plan.getRoadGraph().getNbVertices();
+        double[][] expected = new double[n][n];
+        for (int origin = 0; origin < n; origin += 5) {
+            for (int destination = 0; destination < n; destination += 3) {
+                expected[origin][destination] = plan.findShortestDistance(origin, destination);
+            }
+        }
+
+        for (ShortestPathEngine engine : List.of(ShortestPathEngine.A_STAR, ShortestPathEngine.ALT)) {
+            plan.setNbLandmarks(4);
+            plan.setShortestPathEngine(engine);
+            for (int origin = 0; origin < n; origin += 5) {
+                for (int destination = 0; destination < n; destination += 3) {
+                    assertEquals(expected[origin][destination], plan.findShortestDistance(origin, destination),
+                            0.00001, engine + " distance from " + origin + " to " + destination);
+                    List<Integer> path = plan.findShortestPath(origin, destination);
+                    if (!path.isEmpty()) {
+                        assertEquals(origin, path.getFirst());
+                        assertEquals(destination, path.getLast());
+                    }
+                }
+            }
+        }
+        assertEquals(4, plan.getLandmarks().getNbLandmarks());
+    }
+
+    @Test
+    void testAltSettlesFewerNodesThanDijkstra() throws Exception {
+        plan.readXml("src/test/java/com/pld/agile/model/strategy/petitPlanTest.xml");
+        plan.preprocessData();
+        RoadGraph graph = plan.getRoadGraph();
+        int n = graph.getNbVertices();
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        for (int i = 0; i < n; i++) {
+            latitudes[i] = plan.getIntersections().get(i).getLatitude();
+            longitudes[i] = plan.getIntersections().get(i).getLongitude();
+        }
+        DijkstraSearch dijkstra = new DijkstraSearch(graph);
+        GoalDirectedSearch alt = new GoalDirectedSearch(graph, latitudes, longitudes, Landmarks.select(graph, 8));
+
+        long dijkstraSettled = 0;
+        long altSettled = 0;
+        for (int origin = 0; origin < n; origin += 11) {
+            for (int destination = 0; destination < n; destination += 13) {
+                dijkstra.run(origin, destination);
+                alt.run(origin, destination);
+                assertEquals(dijkstra.getDistance(destination), alt.getDistance(destination), 0.00001);
+                dijkstraSettled += dijkstra.getNbSettled();
+                altSettled += alt.getNbSettled();
+            }
+        }
+        assertTrue(altSettled * 2 < dijkstraSettled,
+                "ALT settled " + altSettled + " nodes against " + dijkstraSettled + " for Dijkstra.");
+    }
+
+    @Test
+    void testReadXmlbyFileMatchesReadXml() throws Exception {
+        String filePath = "src/test/java/com/pld/agile/model/strategy/petitPlanTest.xml";
+        plan.readXml(filePath);
+        Plan uploaded = new Plan();
+        uploaded.readXmlbyFile(new MockMultipartFile("file", "petitPlanTest.xml", "text/xml",
+                Files.readAllBytes(Path.of(filePath))));
+
+        assertEquals(plan.getIntersections().size(), uploaded.getIntersections().size());
+        assertEquals(plan.getSections().size(), uploaded.getSections().size());
+        for (int i = 0; i < plan.getSections().size(); i++) {
+            Section expected = plan.getSections().get(i);
+            Section actual = uploaded.getSections().get(i);
+            assertEquals(expected.getOrigin(), actual.getOrigin());
+            assertEquals(expected.getDestination(), actual.getDestination());
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getLength(), actual.getLength());
+        }
+    }
+
+    @Test
+    void testReadXmlbyFileWithInvalidFormat() throws Exception {
+        byte[] content = Files.readAllBytes(Path.of("src/test/java/com/pld/agile/model/entity/planTestInvalidFormat.xml"));
+
+        Exception exception = assertThrows(Exception.class,
+                () -> plan.readXmlbyFile(new MockMultipartFile("file", content)));
+
+        assertTrue(exception.getMessage().contains("Malformed XML file"),
+                "Error message does not match for a malformed XML file.");
+        assertTrue(plan.getIntersections().isEmpty(), "The plan should be cleared after a parsing error.");
+    }
+
+    @Test
+    void testAllMissingIntersectionsAreReported() {
+        String xml = """
+                <reseau>
+                    <noeud id="1" latitude="45.75" longitude="4.86"/>
+                    <noeud id="2" latitude="45.76" longitude="4.87"/>
+                    <troncon destination="2" longueur="10.0" nomRue="A" origine="1"/>
+                    <troncon destination="3" longueur="20.0" nomRue="B" origine="1"/>
+                    <troncon destination="2" longueur="30.0" nomRue="C" origine="4"/>
+                    <troncon destination="3" longueur="40.0" nomRue="D" origine="2"/>
+                </reseau>
+                """;
+
+        Exception exception = assertThrows(InstanceNotFoundException.class,
+                () -> plan.readXmlbyFile(new MockMultipartFile("file", xml.getBytes())));
+
+        assertTrue(exception.getMessage().endsWith(": 3, 4"), exception.getMessage());
+    }
+
+    @Test
+    void testPlanIsReloadedFromSnapshot(@TempDir Path snapshotDirectory) throws Exception {
+        String filePath = "src/test/java/com/pld/agile/model/strategy/petitPlanTest.xml";
+        plan.setShortestPathEngine(ShortestPathEngine.CONTRACTION_HIERARCHY);
+        plan.setSnapshotDirectory(snapshotDirectory);
+        plan.readXml(filePath);
+        try (Stream<Path> files = Files.list(snapshotDirectory)) {
+            assertEquals(1, files.count(), "One snapshot should be written after the first parse.");
+        }
+
+        Plan reloaded = new Plan();
+        reloaded.setShortestPathEngine(ShortestPathEngine.CONTRACTION_HIERARCHY);
+        reloaded.setSnapshotDirectory(snapshotDirectory);
+        reloaded.readXml(filePath);
+
+        assertNotNull(reloaded.getContractionHierarchy(), "The hierarchy should be read from the snapshot.");
+        assertEquals(plan.getIntersections().size(), reloaded.getIntersections().size());
+        assertEquals(plan.getSections().size(), reloaded.getSections().size());
+        Intersection intersection = reloaded.getIntersectionById("208769457");
+        assertEquals(plan.getIntersectionById("208769457").getLatitude(), intersection.getLatitude());
+        assertEquals(plan.getIntersectionById("208769457").getLongitude(), intersection.getLongitude());
+        for (int i = 0; i < plan.getSections().size(); i++) {
+            Section expected = plan.getSections().get(i);
+            Section actual = reloaded.getSections().get(i);
+            assertEquals(expected.getOrigin(), actual.getOrigin());
+            assertEquals(expected.getDestination(), actual.getDestination());
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getLength(), actual.getLength());
+        }
+
+        List<Integer> stops = plan.formatInput(List.of("208769457", "25336179", "208769039", "26317229"));
+        List<Integer> reloadedStops = reloaded.formatInput(List.of("208769457", "25336179", "208769039", "26317229"));
+        double[][] expected = plan.findDistanceMatrix(stops);
+        double[][] actual = reloaded.findDistanceMatrix(reloadedStops);
+        for (int i = 0; i < stops.size(); i++) {
+            assertArrayEquals(expected[i], actual[i], 0.00001);
+        }
+
+        reloaded.preprocessData();
+        assertEquals(plan.findShortestDistance(stops.get(0), stops.get(1)),
+                reloaded.findShortestDistance(reloadedStops.get(0), reloadedStops.get(1)), 0.00001);
+    }
+}
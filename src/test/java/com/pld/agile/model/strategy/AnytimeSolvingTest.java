@@ -0,0 +1,96 @@
+package com.pld.agile.model.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.pld.agile.model.Solver;
+import com.pld.agile.model.algorithm.Deadline;
+import com.pld.agile.model.entity.Round;
+import com.pld.agile.model.graph.CompleteGraph;
+import com.pld.agile.model.graph.Plan;
+
+class AnytimeSolvingTest {
+    private static void assertValidTour(int n, List<Integer> path) {
+        assertEquals(n + 1, path.size());
+        assertEquals(0, path.getFirst());
+        assertEquals(0, path.getLast());
+        assertEquals(n, new HashSet<>(path).size());
+    }
+
+    @Test
+    void testDeadlineStopsExactStrategies() {
+        CompleteGraph g = TestGraphs.randomGraph(30, 7);
+        List<SolvingStrategy> strategies = List.of(new BnBStrategy(), new ParallelBnBStrategy(), new TspStrategy());
+        for (SolvingStrategy strategy : strategies) {
+            Deadline deadline = Deadline.after(200);
+            strategy.solve(g, deadline);
+
+            // The search returns once the deadline is reached, not after proving optimality
+            assertTrue(deadline.isReached(), strategy.getClass().getSimpleName());
+            assertTrue(strategy.getTimeExceeded());
+            assertFalse(strategy.isOptimal());
+            assertValidTour(30, strategy.getBestPath());
+        }
+    }
+
+    @Test
+    void testCancelStopsTheSearch() throws InterruptedException {
+        CompleteGraph g = TestGraphs.randomGraph(30, 11);
+        BnBStrategy strategy = new BnBStrategy();
+        Deadline deadline = Deadline.none();
+        Thread search = new Thread(() -> strategy.solve(g, deadline));
+        search.start();
+        Thread.sleep(100);
+        deadline.cancel();
+        search.join();
+
+        assertTrue(deadline.isCancelled());
+        assertTrue(strategy.getTimeExceeded());
+        assertValidTour(30, strategy.getBestPath());
+    }
+
+    @Test
+    void testHeldKarpKeepsATourWhenTheDeadlineIsReached() {
+        CompleteGraph g = TestGraphs.randomGraph(14, 3);
+        HeldKarpStrategy strategy = new HeldKarpStrategy();
+        strategy.solve(g, Deadline.after(0));
+
+        assertTrue(strategy.getTimeExceeded());
+        assertValidTour(14, strategy.getBestPath());
+
+        strategy.solve(g, Deadline.none());
+        assertFalse(strategy.getTimeExceeded());
+        assertTrue(strategy.isOptimal());
+    }
+
+    @Test
+    void testSolverGap() throws Exception {
+        Plan plan = new Plan();
+        plan.readXml("src/test/java/com/pld/agile/model/strategy/petitPlanTest.xml");
+        plan.preprocessData();
+        Round round = new Round();
+        round.init(1, plan);
+        round.loadRequests("src/test/java/com/pld/agile/model/strategy/demandeLivraisonTest.xml");
+        List<Integer> vertices = plan.formatInput(round.getDeliveryIntersectionsList());
+
+        // A completed exact search proves its tour optimal
+        Solver solver = new Solver(plan, vertices, new BnBStrategy()).init();
+        solver.solve(Deadline.none());
+        assertEquals(0.0, solver.getGap(), 1e-9);
+        assertEquals(solver.getBestPath(), solver.getIncumbent());
+
+        // A heuristic only knows the spanning tree bound
+        solver = new Solver(plan, vertices, new LinKernighanStrategy()).init();
+        solver.setTimeBudget(200);
+        solver.solve();
+        assertTrue(solver.getLowerBound() > 0.0);
+        assertTrue(solver.getLowerBound() <= solver.getBestCost() + 1e-6);
+        assertTrue(solver.getGap() >= 0.0 && solver.getGap() < 1.0);
+    }
+}
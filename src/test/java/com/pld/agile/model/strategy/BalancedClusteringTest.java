@@ -0,0 +1,110 @@
+package com.pld.agile.model.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.pld.agile.model.algorithm.BalancedClustering;
+import com.pld.agile.model.graph.Plan;
+
+class BalancedClusteringTest {
+
+    /**
+     * Builds the distances of points on a line, the warehouse at 0, with a
+     * detour on the way back so that the distances are asymmetric.
+     */
+    private static double[][] lineDistances(double[] positions) {
+        int size = positions.length;
+        double[][] distances = new double[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                double d = Math.abs(positions[i] - positions[j]);
+                distances[i][j] = positions[j] < positions[i] ? d * 1.5 : d;
+            }
+        }
+        return distances;
+    }
+
+    private static void assertPartition(ArrayList<ArrayList<Integer>> groups, int nbPoints) {
+        Set<Integer> seen = new HashSet<>();
+        for (List<Integer> group : groups) {
+            for (int p : group) {
+                assertTrue(seen.add(p));
+            }
+        }
+        assertEquals(nbPoints, seen.size());
+    }
+
+    @Test
+    void testClustersAreBalancedAndCompact() {
+        // Warehouse at 0, four points close to 10 and four close to 100
+        double[] positions = { 0, 10, 11, 12, 13, 100, 101, 102, 103 };
+        ArrayList<ArrayList<Integer>> groups = new BalancedClustering().predictClusters(lineDistances(positions), 2);
+
+        assertEquals(2, groups.size());
+        assertPartition(groups, 8);
+        assertEquals(new HashSet<>(List.of(0, 1, 2, 3)), new HashSet<>(groups.get(groups.get(0).contains(0) ? 0 : 1)));
+        assertEquals(new HashSet<>(List.of(4, 5, 6, 7)), new HashSet<>(groups.get(groups.get(0).contains(0) ? 1 : 0)));
+    }
+
+    @Test
+    void testClusterSizesDifferByAtMostOne() {
+        // Most points close to the warehouse, a few far away
+        double[] positions = { 0, 10, 11, 12, 13, 14, 15, 16, 100, 101 };
+        ArrayList<ArrayList<Integer>> groups = new BalancedClustering().predictClusters(lineDistances(positions), 3);
+
+        assertPartition(groups, 9);
+        for (List<Integer> group : groups) {
+            assertEquals(3, group.size());
+        }
+    }
+
+    @Test
+    void testMoreCouriersThanPoints() {
+        double[] positions = { 0, 10, 20 };
+        ArrayList<ArrayList<Integer>> groups = new BalancedClustering().predictClusters(lineDistances(positions), 4);
+
+        assertEquals(4, groups.size());
+        assertPartition(groups, 2);
+        for (List<Integer> group : groups) {
+            assertTrue(group.size() <= 1);
+        }
+    }
+
+    @Test
+    void testNoPointsAndInvalidCouriers() {
+        BalancedClustering clustering = new BalancedClustering();
+        ArrayList<ArrayList<Integer>> groups = clustering.predictClusters(new double[][] { { -1 } }, 3);
+
+        assertEquals(3, groups.size());
+        assertPartition(groups, 0);
+        assertThrows(IllegalArgumentException.class, () -> clustering.predictClusters(new double[1][1], 0));
+    }
+
+    @Test
+    void testRoadDistancesOfPlan() throws Exception {
+        Plan plan = new Plan();
+        plan.readXml("src/test/java/com/pld/agile/model/strategy/petitPlanTest.xml");
+        plan.preprocessData();
+        int nbIntersections = plan.getIntersections().size();
+        List<Integer> stops = new ArrayList<>();
+        for (int i = 0; i < 31; i++) {
+            stops.add(i * (nbIntersections / 31));
+        }
+
+        ArrayList<ArrayList<Integer>> groups = new BalancedClustering()
+                .predictClusters(plan.findDistanceMatrix(stops), 3);
+
+        assertPartition(groups, 30);
+        for (List<Integer> group : groups) {
+            assertEquals(10, group.size());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.pld.agile.model.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.pld.agile.model.algorithm.Deadline;
+import com.pld.agile.model.algorithm.bnb.BranchAndBound;
+import com.pld.agile.model.graph.CompleteGraph;
+
+class CrossingTableTest {
+
+    @Test
+    void testTableAndScanFindSameTour() {
+        for (long seed = 1; seed <= 5; seed++) {
+            CompleteGraph g = TestGraphs.randomGraph(11, seed);
+            BranchAndBound bnb = new BranchAndBound(g);
+
+            bnb.setIncrementalCrossingCheck(false);
+            bnb.findBestCost(Deadline.none());
+            double scanCost = bnb.getBestCost();
+            long scanCalls = bnb.getNbCalls();
+
+            bnb.setIncrementalCrossingCheck(true);
+            bnb.findBestCost(Deadline.none());
+
+            assertEquals(scanCost, bnb.getBestCost(), 1e-9);
+            assertEquals(scanCalls, bnb.getNbCalls());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.pld.agile.model.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.pld.agile.model.algorithm.Deadline;
+import com.pld.agile.model.graph.CompleteGraph;
+
+class HeldKarpStrategyTest {
+    /**
+     * Computes the cost of the best tour by trying every permutation.
+     */
+    private static double bruteForce(CompleteGraph g, int[] tour, int depth) {
+        int n = g.getNbVertices();
+        if (depth == n) {
+            return g.getCost(tour[n - 1], 0) + TestGraphs.tourCost(g, tour);
+        }
+        double best = Double.MAX_VALUE;
+        for (int i = depth; i < n; i++) {
+            int tmp = tour[depth];
+            tour[depth] = tour[i];
+            tour[i] = tmp;
+            best = Math.min(best, bruteForce(g, tour, depth + 1));
+            tour[i] = tour[depth];
+            tour[depth] = tmp;
+        }
+        return best;
+    }
+
+    @Test
+    void testFindsOptimalTour() {
+        for (long seed = 1; seed <= 5; seed++) {
+            CompleteGraph g = TestGraphs.randomCosts(8, seed);
+            int[] tour = {0, 1, 2, 3, 4, 5, 6, 7};
+
+            HeldKarpStrategy strategy = new HeldKarpStrategy();
+            strategy.solve(g);
+
+            List<Integer> path = strategy.getBestPath();
+            double cost = 0;
+            for (int i = 0; i < path.size() - 1; i++) {
+                cost += g.getCost(path.get(i), path.get(i + 1));
+            }
+            assertEquals(9, path.size());
+            assertEquals(0, path.getFirst());
+            assertEquals(0, path.getLast());
+            assertEquals(8, path.stream().distinct().count());
+            assertEquals(bruteForce(g, tour, 1), strategy.getBestCost(), 1e-6);
+            assertEquals(strategy.getBestCost(), cost, 1e-6);
+            assertFalse(strategy.getTimeExceeded());
+        }
+    }
+
+    @Test
+    void testMatchesBranchAndBoundOnFifteenStops() {
+        CompleteGraph g = TestGraphs.randomCosts(16, 42);
+        BnBStrategy bnb = new BnBStrategy();
+        bnb.solve(g, Deadline.none());
+        double bnbCost = TestGraphs.tourCost(g, bnb.getBestPath());
+
+        HeldKarpStrategy strategy = new HeldKarpStrategy();
+        strategy.solve(g, Deadline.none());
+
+        assertFalse(strategy.getTimeExceeded());
+        assertTrue(strategy.isOptimal());
+        assertEquals(bnbCost, strategy.getBestCost(), 1e-6);
+    }
+}
@@ -0,0 +1,102 @@
+package com.pld.agile.model.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.pld.agile.model.Solver;
+import com.pld.agile.model.graph.CompleteGraph;
+import com.pld.agile.model.graph.Plan;
+
+class IncrementalSolverTest {
+    private Plan plan;
+    private List<Integer> vertices;
+    private int added;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        plan = new Plan();
+        plan.readXml("src/test/java/com/pld/agile/model/strategy/petitPlanTest.xml");
+        plan.preprocessData();
+        int nbIntersections = plan.getIntersections().size();
+        vertices = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            vertices.add(i * (nbIntersections / 13));
+        }
+        added = 12 * (nbIntersections / 13) + 1;
+    }
+
+    /**
+     * Checks that the complete graph of the solver holds the distances between
+     * its vertices, as a full computation would.
+     */
+    private void assertDistancesOf(Solver solver) {
+        List<Integer> stops = solver.getVertices();
+        double[][] expected = plan.findDistanceMatrix(stops);
+        CompleteGraph g = solver.getCompleteGraph();
+        assertEquals(stops.size(), g.getNbVertices());
+        for (int i = 0; i < stops.size(); i++) {
+            for (int j = 0; j < stops.size(); j++) {
+                if (i != j) {
+                    assertEquals(expected[i][j], g.cost(i, j), 1e-6);
+                }
+            }
+        }
+    }
+
+    private static void assertTourOf(Solver solver) {
+        List<Integer> path = solver.getBestPath();
+        List<Integer> stops = solver.getVertices();
+        assertEquals(stops.size() + 1, path.size());
+        assertEquals(stops.getFirst(), path.getFirst());
+        assertEquals(stops.getFirst(), path.getLast());
+        assertEquals(new HashSet<>(stops), new HashSet<>(path));
+    }
+
+    @Test
+    void testAddThenDeleteUpdatesGraphAndTour() {
+        Solver solver = new Solver(plan, vertices, new HeldKarpStrategy());
+        solver.solve();
+        double initialCost = solver.getBestCost();
+
+        solver.addDeliveryPoint(added);
+        assertEquals(13, solver.getVertices().size());
+        assertDistancesOf(solver);
+        assertTourOf(solver);
+        // The new point can only lengthen the optimal tour
+        assertTrue(solver.getBestCost() >= initialCost - 1e-6);
+
+        solver.deleteDeliveryPoint(vertices.get(5));
+        assertEquals(12, solver.getVertices().size());
+        assertDistancesOf(solver);
+        assertTourOf(solver);
+    }
+
+    @Test
+    void testWarehouseAndUnknownPointsAreNotDeleted() {
+        Solver solver = new Solver(plan, vertices, new HeldKarpStrategy());
+        solver.solve();
+        List<Integer> path = solver.getBestPath();
+
+        assertEquals(path, solver.deleteDeliveryPoint(vertices.getFirst()));
+        assertEquals(path, solver.deleteDeliveryPoint(added));
+        assertEquals(path, solver.addDeliveryPoint(vertices.get(3)));
+    }
+
+    @Test
+    void testAddBeforeSolvingSolves() {
+        Solver solver = new Solver(plan, vertices, new HeldKarpStrategy());
+        solver.addDeliveryPoint(added);
+
+        assertEquals(13, solver.getVertices().size());
+        assertDistancesOf(solver);
+        assertTourOf(solver);
+        assertEquals(12, vertices.size());
+    }
+}
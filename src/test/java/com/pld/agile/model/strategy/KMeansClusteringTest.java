@@ -0,0 +1,49 @@
+package com.pld.agile.model.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.pld.agile.model.algorithm.KMeansClustering;
+
+class KMeansClusteringTest {
+
+    @Test
+    void testEveryPointIsAssignedOnce() {
+        Random random = new Random(3);
+        double[][] data = new double[2000][];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = new double[] { 45.75 + random.nextDouble() * 0.05, 4.85 + random.nextDouble() * 0.05 };
+        }
+
+        ArrayList<ArrayList<Integer>> groups = new KMeansClustering().predictClusters(data, 5);
+
+        assertEquals(5, groups.size());
+        Set<Integer> seen = new HashSet<>();
+        for (List<Integer> group : groups) {
+            for (int p : group) {
+                assertTrue(seen.add(p));
+            }
+        }
+        assertEquals(data.length, seen.size());
+    }
+
+    @Test
+    void testPointsAtTheSameCoordinatesKeepTheirIndices() {
+        double[][] data = { { 1.0, 1.0 }, { 1.0, 1.0 }, { 5.0, 5.0 }, { 1.0, 1.0 } };
+
+        ArrayList<ArrayList<Integer>> groups = new KMeansClustering().predictClusters(data, 2);
+
+        List<Integer> near = groups.get(0).contains(0) ? groups.get(0) : groups.get(1);
+        List<Integer> far = groups.get(0).contains(0) ? groups.get(1) : groups.get(0);
+        assertEquals(List.of(0, 1, 3), near);
+        assertEquals(List.of(2), far);
+    }
+}
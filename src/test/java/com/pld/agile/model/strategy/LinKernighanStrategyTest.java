@@ -0,0 +1,74 @@
+package com.pld.agile.model.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.pld.agile.model.algorithm.Deadline;
+import com.pld.agile.model.algorithm.bound.LagrangianBound;
+import com.pld.agile.model.algorithm.localsearch.LocalSearch;
+import com.pld.agile.model.graph.CompleteGraph;
+
+class LinKernighanStrategyTest {
+    @Test
+    void testFindsOptimumOfSmallTours() {
+        for (long seed = 1; seed <= 5; seed++) {
+            CompleteGraph g = TestGraphs.randomGraph(14, seed, 0.1);
+            HeldKarpStrategy exact = new HeldKarpStrategy();
+            exact.solve(g);
+            LinKernighanStrategy heuristic = new LinKernighanStrategy();
+            heuristic.solve(g);
+
+            assertEquals(TestGraphs.tourCost(g, heuristic.getBestPath()), heuristic.getBestCost(), 1e-6);
+            assertTrue(heuristic.getBestCost() <= exact.getBestCost() * 1.01,
+                    heuristic.getBestCost() + " vs " + exact.getBestCost());
+        }
+    }
+
+    @Test
+    void testLargeTourIsCloseToTheLowerBound() {
+        CompleteGraph g = TestGraphs.randomGraph(81, 3, 0.1);
+        List<Integer> identity = new ArrayList<>();
+        for (int i = 0; i < 81; i++) {
+            identity.add(i);
+        }
+        identity.add(0);
+        LocalSearch localSearch = new LocalSearch(g);
+        double localCost = localSearch.cost(localSearch.improve(identity, Deadline.none()));
+        LagrangianBound bound = new LagrangianBound();
+        bound.init(g);
+        double lowerBound = bound.evaluateTour();
+
+        LinKernighanStrategy heuristic = new LinKernighanStrategy();
+        heuristic.solve(g, Deadline.none());
+
+        List<Integer> path = heuristic.getBestPath();
+        assertEquals(82, path.size());
+        assertEquals(0, path.getFirst());
+        assertEquals(0, path.getLast());
+        assertEquals(81, path.stream().distinct().count());
+        assertEquals(TestGraphs.tourCost(g, path), heuristic.getBestCost(), 1e-6);
+        assertTrue(heuristic.getBestCost() <= localCost, heuristic.getBestCost() + " vs " + localCost);
+        // Within 16% of the Lagrangian bound, where the local search ends at 18%
+        assertTrue(heuristic.getBestCost() <= lowerBound * 1.16, heuristic.getBestCost() + " vs " + lowerBound);
+    }
+
+    @Test
+    void testReportsWhetherTheDeadlineEndedTheSearch() {
+        CompleteGraph g = TestGraphs.randomGraph(40, 5, 0.1);
+        LinKernighanStrategy heuristic = new LinKernighanStrategy();
+        Deadline cancelled = Deadline.none();
+        cancelled.cancel();
+        heuristic.solve(g, cancelled);
+        assertTrue(heuristic.getTimeExceeded());
+        assertEquals(41, heuristic.getBestPath().size());
+
+        heuristic.solve(g, Deadline.none());
+        assertFalse(heuristic.getTimeExceeded());
+    }
+}
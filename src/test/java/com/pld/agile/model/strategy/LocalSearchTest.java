@@ -0,0 +1,65 @@
+package com.pld.agile.model.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.pld.agile.model.algorithm.localsearch.LocalSearch;
+import com.pld.agile.model.graph.CompleteGraph;
+
+class LocalSearchTest {
+    private static List<Integer> identityTour(int n) {
+        List<Integer> tour = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            tour.add(i);
+        }
+        tour.add(0);
+        return tour;
+    }
+
+    @Test
+    void testImprovesTourAndKeepsItValid() {
+        CompleteGraph g = TestGraphs.randomGraph(80, 11, 0.1);
+        LocalSearch localSearch = new LocalSearch(g);
+        List<Integer> initial = identityTour(80);
+
+        List<Integer> improved = localSearch.improve(initial, 1000);
+
+        assertEquals(81, improved.size());
+        assertEquals(0, improved.getFirst());
+        assertEquals(0, improved.getLast());
+        assertEquals(80, improved.stream().distinct().count());
+        assertTrue(localSearch.getNbMoves() > 0);
+        assertTrue(localSearch.cost(improved) < localSearch.cost(initial) * 0.5);
+    }
+
+    @Test
+    void testGetsCloseToOptimum() {
+        for (long seed = 1; seed <= 3; seed++) {
+            CompleteGraph g = TestGraphs.randomGraph(13, seed, 0.1);
+            HeldKarpStrategy exact = new HeldKarpStrategy();
+            exact.solve(g);
+
+            LocalSearch localSearch = new LocalSearch(g);
+            List<Integer> improved = localSearch.improve(identityTour(13), 1000);
+
+            assertTrue(localSearch.cost(improved) >= exact.getBestCost() - 1e-6);
+            assertTrue(localSearch.cost(improved) <= exact.getBestCost() * 1.15);
+        }
+    }
+
+    @Test
+    void testKeepsOptimalTour() {
+        CompleteGraph g = TestGraphs.randomGraph(12, 5, 0.1);
+        HeldKarpStrategy exact = new HeldKarpStrategy();
+        exact.solve(g);
+
+        List<Integer> improved = new LocalSearch(g).improve(exact.getBestPath(), 1000);
+
+        assertEquals(exact.getBestPath(), improved);
+    }
+}
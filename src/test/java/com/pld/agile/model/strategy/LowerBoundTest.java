@@ -0,0 +1,99 @@
+package com.pld.agile.model.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.pld.agile.model.algorithm.bnb.BranchAndBound;
+import com.pld.agile.model.algorithm.bound.LagrangianBound;
+import com.pld.agile.model.algorithm.bound.LowerBound;
+import com.pld.agile.model.algorithm.bound.MinOutgoingEdgeBound;
+import com.pld.agile.model.algorithm.bound.SpanningTreeBound;
+import com.pld.agile.model.algorithm.tsp.TSP1;
+import com.pld.agile.model.algorithm.tsp.TSP2;
+import com.pld.agile.model.graph.CompleteGraph;
+
+class LowerBoundTest {
+    private static List<LowerBound> bounds() {
+        return List.of(new MinOutgoingEdgeBound(), new SpanningTreeBound(), new LagrangianBound());
+    }
+
+    @Test
+    void testBoundsNeverExceedOptimalTour() {
+        for (long seed = 1; seed <= 3; seed++) {
+            CompleteGraph g = TestGraphs.randomGraph(9, seed, 0.2);
+            TSP1 tsp = new TSP1();
+            tsp.searchSolution(20000, g);
+            double optimum = tsp.getSolutionCost();
+            int[] unvisited = {1, 2, 3, 4, 5, 6, 7, 8};
+
+            for (LowerBound bound : bounds()) {
+                bound.init(g);
+                assertTrue(bound.evaluate(0, unvisited, 8) <= optimum + 1e-6, bound.getClass().getSimpleName());
+                // With the optimum as incumbent, the root must not be pruned
+                assertFalse(bound.prunes(0, unvisited, 8, 0.0, optimum + 1e-6), bound.getClass().getSimpleName());
+            }
+        }
+    }
+
+    @Test
+    void testTemplateTSPWithBoundsFindsOptimum() {
+        CompleteGraph g = TestGraphs.randomGraph(10, 7, 0.2);
+        TSP1 reference = new TSP1();
+        reference.searchSolution(20000, g);
+
+        for (LowerBound bound : bounds()) {
+            TSP2 tsp = new TSP2(bound);
+            tsp.searchSolution(20000, g);
+            assertEquals(reference.getSolutionCost(), tsp.getSolutionCost(), 1e-6);
+            assertTrue(bound.getNbPruned() > 0);
+            assertTrue(bound.getNbPruned() <= bound.getNbEvaluations());
+        }
+    }
+
+    @Test
+    void testBranchAndBoundWithBoundsFindsSameCost() {
+        CompleteGraph g = TestGraphs.randomGraph(12, 3, 0.2);
+        BranchAndBound reference = new BranchAndBound(g);
+        reference.findBestCost();
+        double referenceCost = 0;
+        List<Integer> referencePath = reference.getBestPath();
+        for (int i = 0; i < referencePath.size() - 1; i++) {
+            referenceCost += g.getCost(referencePath.get(i), referencePath.get(i + 1));
+        }
+
+        for (LowerBound bound : bounds()) {
+            BranchAndBound bnb = new BranchAndBound(bound);
+            bnb.setCompleteGraph(g);
+            bnb.findBestCost();
+            List<Integer> path = bnb.getBestPath();
+            double cost = 0;
+            for (int i = 0; i < path.size() - 1; i++) {
+                cost += g.getCost(path.get(i), path.get(i + 1));
+            }
+            assertEquals(referenceCost, cost, 1e-6);
+            assertTrue(bnb.getNbCalls() < reference.getNbCalls());
+        }
+    }
+
+    @Test
+    void testRunningSumMatchesFullSum() {
+        CompleteGraph g = TestGraphs.randomGraph(9, 5, 0.2);
+        MinOutgoingEdgeBound tracked = new MinOutgoingEdgeBound();
+        tracked.init(g);
+        MinOutgoingEdgeBound untracked = new MinOutgoingEdgeBound();
+        untracked.init(g);
+        int[] unvisited = {3, 4, 5, 6, 7, 8};
+
+        tracked.visit(1);
+        tracked.visit(2);
+        assertEquals(untracked.evaluate(2, unvisited, 6), tracked.evaluate(2, unvisited, 6), 1e-9);
+        tracked.unvisit(2);
+        int[] withTwo = {2, 3, 4, 5, 6, 7, 8};
+        assertEquals(untracked.evaluate(1, withTwo, 7), tracked.evaluate(1, withTwo, 7), 1e-9);
+    }
+}
@@ -0,0 +1,63 @@
+package com.pld.agile.model.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.pld.agile.model.algorithm.Deadline;
+import com.pld.agile.model.algorithm.bnb.ParallelBranchAndBound;
+import com.pld.agile.model.algorithm.bound.LagrangianBound;
+import com.pld.agile.model.algorithm.bound.LowerBound;
+import com.pld.agile.model.algorithm.bound.MinOutgoingEdgeBound;
+import com.pld.agile.model.algorithm.bound.SpanningTreeBound;
+import com.pld.agile.model.graph.CompleteGraph;
+
+class ParallelBnBStrategyTest {
+    @Test
+    void testFindsSameCostAsSequentialBranchAndBound() {
+        for (long seed = 1; seed <= 5; seed++) {
+            CompleteGraph g = TestGraphs.randomGraph(11, seed);
+
+            BnBStrategy sequential = new BnBStrategy();
+            sequential.solve(g);
+            ParallelBnBStrategy parallel = new ParallelBnBStrategy();
+            parallel.solve(g);
+
+            List<Integer> path = parallel.getBestPath();
+            assertFalse(parallel.getTimeExceeded());
+            assertEquals(12, path.size());
+            assertEquals(0, path.getFirst());
+            assertEquals(0, path.getLast());
+            assertEquals(11, path.stream().distinct().count());
+            assertEquals(TestGraphs.tourCost(g, sequential.getBestPath()), parallel.getBestCost(), 1e-6);
+            assertEquals(parallel.getBestCost(), TestGraphs.tourCost(g, path), 1e-6);
+        }
+    }
+
+    @Test
+    void testLowerBoundsOfTheTasksPruneTheSearch() {
+        for (long seed = 1; seed <= 3; seed++) {
+            CompleteGraph g = TestGraphs.randomGraph(14, seed, 0.1);
+            ParallelBranchAndBound plain = new ParallelBranchAndBound();
+            plain.setCompleteGraph(g);
+            plain.findBestCost(Deadline.none());
+
+            for (Supplier<LowerBound> lowerBounds : List.<Supplier<LowerBound>>of(MinOutgoingEdgeBound::new,
+                    SpanningTreeBound::new, LagrangianBound::new)) {
+                ParallelBranchAndBound bounded = new ParallelBranchAndBound(lowerBounds);
+                bounded.setCompleteGraph(g);
+                bounded.findBestCost(Deadline.none());
+
+                assertEquals(plain.getBestCost(), bounded.getBestCost(), 1e-6);
+                assertEquals(bounded.getBestCost(), TestGraphs.tourCost(g, bounded.getBestPath()), 1e-6);
+                assertTrue(bounded.getNbPruned() > 0);
+                assertTrue(bounded.getNbCalls() < plain.getNbCalls());
+            }
+        }
+    }
+}
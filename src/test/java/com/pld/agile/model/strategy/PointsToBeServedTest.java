@@ -0,0 +1,75 @@
+package com.pld.agile.model.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.pld.agile.model.Solver;
+import com.pld.agile.model.graph.Plan;
+
+class PointsToBeServedTest {
+
+    /**
+     * Builds a plan where the warehouse 1 and the point 2 are 1 km apart both
+     * ways, and the point 3 is only reached through 2 and only left towards 1.
+     * At 15 km/h, 1 km takes 4 minutes.
+     */
+    private static Plan plan(double twoToThree, double threeToOne) throws Exception {
+        String xml = """
+                <reseau>
+                    <noeud id="1" latitude="45.75" longitude="4.86"/>
+                    <noeud id="2" latitude="45.76" longitude="4.87"/>
+                    <noeud id="3" latitude="45.77" longitude="4.88"/>
+                    <troncon destination="2" longueur="1000.0" nomRue="A" origine="1"/>
+                    <troncon destination="1" longueur="1000.0" nomRue="A" origine="2"/>
+                    <troncon destination="3" longueur="%s" nomRue="B" origine="2"/>
+                    <troncon destination="1" longueur="%s" nomRue="C" origine="3"/>
+                </reseau>
+                """.formatted(twoToThree, threeToOne);
+        Plan plan = new Plan();
+        plan.readXmlbyFile(new MockMultipartFile("file", xml.getBytes()));
+        plan.preprocessData();
+        return plan;
+    }
+
+    @Test
+    void testPointsWithinTheShiftAreServed() throws Exception {
+        Plan plan = plan(20000.0, 21000.0);
+        List<Integer> vertices = plan.formatInput(List.of("1", "2", "3"));
+        Solver solver = new Solver(plan, vertices, new BnBStrategy());
+        solver.solve();
+
+        assertEquals(List.of(vertices.get(0), vertices.get(1), vertices.get(2), vertices.get(0)),
+                solver.getBestPossiblePath());
+        assertEquals(42000.0, solver.getBestPossibleCost(), 1e-9);
+        Map<Integer, LocalTime> times = solver.getPointsWithTime();
+        assertEquals(LocalTime.of(8, 4), times.get(vertices.get(1)));
+        // 4 minutes, 5 minutes of delivery, then 80 minutes
+        assertEquals(LocalTime.of(9, 29), times.get(vertices.get(2)));
+        // The warehouse is mapped to the return time
+        assertEquals(LocalTime.of(10, 58), times.get(vertices.get(0)));
+    }
+
+    @Test
+    void testPointsTooLateToReturnAreDropped() throws Exception {
+        // Reaching 3 takes 4 hours and coming back 4 more: past 16:00
+        Plan plan = plan(60000.0, 61000.0);
+        List<Integer> vertices = plan.formatInput(List.of("1", "2", "3"));
+        Solver solver = new Solver(plan, vertices, new BnBStrategy());
+        solver.solve();
+
+        assertEquals(List.of(vertices.get(0), vertices.get(1), vertices.get(2), vertices.get(0)),
+                solver.getBestPath());
+        assertEquals(List.of(vertices.get(0), vertices.get(1), vertices.get(0)), solver.getBestPossiblePath());
+        assertEquals(2000.0, solver.getBestPossibleCost(), 1e-9);
+        Map<Integer, LocalTime> times = solver.getPointsWithTime();
+        assertEquals(2, times.size());
+        assertEquals(LocalTime.of(8, 4), times.get(vertices.get(1)));
+        assertEquals(LocalTime.of(8, 13), times.get(vertices.get(0)));
+    }
+}
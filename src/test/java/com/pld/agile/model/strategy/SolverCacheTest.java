@@ -0,0 +1,145 @@
+package com.pld.agile.model.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.pld.agile.model.Solver;
+import com.pld.agile.model.SolverCache;
+import com.pld.agile.model.algorithm.Deadline;
+import com.pld.agile.model.entity.Round;
+import com.pld.agile.model.graph.Plan;
+
+class SolverCacheTest {
+    private Plan plan;
+    private List<Integer> vertices;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        plan = new Plan();
+        plan.readXml("src/test/java/com/pld/agile/model/strategy/petitPlanTest.xml");
+        plan.preprocessData();
+        Round round = new Round();
+        round.init(1, plan);
+        round.loadRequests("src/test/java/com/pld/agile/model/strategy/demandeLivraisonTest.xml");
+        vertices = plan.formatInput(round.getDeliveryIntersectionsList());
+    }
+
+    @Test
+    void testSameStopsHitTheCache() {
+        SolverCache cache = new SolverCache();
+        Solver first = new Solver(plan, vertices, new BnBStrategy());
+        first.setCache(cache);
+        first.solve();
+
+        // The same stops, delivery points listed in another order
+        List<Integer> shuffled = new ArrayList<>(vertices.subList(1, vertices.size()));
+        Collections.reverse(shuffled);
+        shuffled.addFirst(vertices.getFirst());
+        Solver second = new Solver(plan, shuffled, new BnBStrategy());
+        second.setCache(cache);
+        second.solve();
+
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(first.getBestPath(), second.getBestPath());
+        assertEquals(first.getBestCost(), second.getBestCost(), 1e-9);
+        assertEquals(first.getPointsWithTime(), second.getPointsWithTime());
+        assertEquals(first.getBestPossibleCost(), second.getBestPossibleCost(), 1e-9);
+        assertEquals(first.getVertices(), second.getVertices());
+    }
+
+    @Test
+    void testOtherStrategyMissesTheCache() {
+        SolverCache cache = new SolverCache();
+        Solver first = new Solver(plan, vertices, new BnBStrategy());
+        first.setCache(cache);
+        first.solve();
+        Solver second = new Solver(plan, vertices, new HeldKarpStrategy());
+        second.setCache(cache);
+        second.solve();
+
+        assertEquals(0, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testTimedOutSearchIsNotCached() {
+        int nbIntersections = plan.getIntersections().size();
+        List<Integer> stops = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            stops.add(i * (nbIntersections / 30));
+        }
+        SolverCache cache = new SolverCache();
+        Solver solver = new Solver(plan, stops, new BnBStrategy());
+        solver.setCache(cache);
+        solver.setTimeBudget(50);
+        solver.solve();
+
+        assertTrue(solver.getTimeExceeded());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testTourCutByTheDeadlineIsNotReused() {
+        int nbIntersections = plan.getIntersections().size();
+        List<Integer> stops = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            stops.add(i * (nbIntersections / 30));
+        }
+        SolverCache cache = new SolverCache();
+        Solver hurried = new Solver(plan, stops, new LinKernighanStrategy());
+        hurried.setCache(cache);
+        hurried.solve(Deadline.after(0));
+        assertTrue(hurried.getTimeExceeded());
+        assertEquals(0, cache.size());
+
+        Solver patient = new Solver(plan, stops, new LinKernighanStrategy());
+        patient.setCache(cache);
+        patient.solve(Deadline.after(60_000));
+        assertFalse(patient.getTimeExceeded());
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.size());
+        assertTrue(patient.getBestCost() <= hurried.getBestCost() + 1e-6);
+
+        Solver again = new Solver(plan, stops, new LinKernighanStrategy());
+        again.setCache(cache);
+        again.solve(Deadline.after(0));
+        assertEquals(1, cache.getHits());
+        assertEquals(patient.getBestPath(), again.getBestPath());
+    }
+
+    @Test
+    void testLeastRecentlyUsedResultIsEvicted() {
+        Solver solver = new Solver(plan, vertices, new BnBStrategy());
+        solver.solve();
+        int n = vertices.size();
+        SolverCache.Result result = new SolverCache.Result(solver.getVertices(), solver.getCompleteGraph(),
+                List.of(), solver.getBestPossiblePath(), solver.getPointsWithTime(), 0.0, 0.0, false, true);
+
+        // Room for two results
+        SolverCache cache = new SolverCache(2L * n * n);
+        SolverCache.Key a = SolverCache.key(plan, List.of(0, 1), new BnBStrategy());
+        SolverCache.Key b = SolverCache.key(plan, List.of(0, 2), new BnBStrategy());
+        SolverCache.Key c = SolverCache.key(plan, List.of(0, 3), new BnBStrategy());
+        cache.put(a, result);
+        cache.put(b, result);
+        assertNotNull(cache.get(a));
+        cache.put(c, result);
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(a));
+        assertNull(cache.get(b));
+        assertNotNull(cache.get(c));
+    }
+}
@@ -0,0 +1,89 @@
+package com.pld.agile.model.strategy;
+
+import java.util.List;
+import java.util.Random;
+
+import com.pld.agile.model.graph.CompleteGraph;
+import com.pld.agile.model.graph.Graph;
+
+/**
+ * Random complete graphs and tour costs shared by the solver tests.
+ */
+final class TestGraphs {
+
+    private TestGraphs() {
+    }
+
+    /**
+     * Builds a complete graph over random points of a 1 km square, with
+     * symmetric costs.
+     */
+    static CompleteGraph randomGraph(int n, long seed) {
+        return randomGraph(n, seed, 0.0);
+    }
+
+    /**
+     * Builds a complete graph over random points of a 1 km square, each cost
+     * being lengthened by a random factor of at most {@code asymmetry}.
+     */
+    static CompleteGraph randomGraph(int n, long seed, double asymmetry) {
+        Random random = new Random(seed);
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = random.nextDouble() * 1000;
+            y[i] = random.nextDouble() * 1000;
+        }
+        double[] costs = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                double cost = -1.0;
+                if (i != j) {
+                    cost = Math.hypot(x[i] - x[j], y[i] - y[j]);
+                    if (asymmetry > 0) {
+                        cost *= 1 + random.nextDouble() * asymmetry;
+                    }
+                }
+                costs[i * n + j] = cost;
+            }
+        }
+        return new CompleteGraph(n, costs);
+    }
+
+    /**
+     * Builds a complete graph with independent random costs between 100 and
+     * 1000, which do not satisfy the triangle inequality.
+     */
+    static CompleteGraph randomCosts(int n, long seed) {
+        Random random = new Random(seed);
+        double[] costs = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                costs[i * n + j] = i == j ? -1.0 : 100 + random.nextDouble() * 900;
+            }
+        }
+        return new CompleteGraph(n, costs);
+    }
+
+    /**
+     * Returns the cost of a path of vertices.
+     */
+    static double tourCost(Graph g, List<Integer> path) {
+        double cost = 0;
+        for (int i = 0; i < path.size() - 1; i++) {
+            cost += g.cost(path.get(i), path.get(i + 1));
+        }
+        return cost;
+    }
+
+    /**
+     * Returns the cost of a path of vertices.
+     */
+    static double tourCost(Graph g, int[] path) {
+        double cost = 0;
+        for (int i = 0; i < path.length - 1; i++) {
+            cost += g.cost(path[i], path[i + 1]);
+        }
+        return cost;
+    }
+}